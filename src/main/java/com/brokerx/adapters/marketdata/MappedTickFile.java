@@ -0,0 +1,166 @@
+package com.brokerx.adapters.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.brokerx.domain.money.Money;
+import com.brokerx.ports.TickSource;
+
+/**
+ * Tick file read through a read-only memory mapping, so a replay pages the file in lazily and never
+ * copies it onto the heap. Two layouts are accepted:
+ * <ul>
+ *     <li>binary, written by {@link #write}: the {@code BXTK} magic, a version, the symbol table, then one
+ *     fixed 18-byte record per tick (epoch millis, symbol index, price in cents);</li>
+ *     <li>CSV, one {@code timestamp,symbol,price} line per tick, the timestamp being epoch millis or an
+ *     ISO-8601 instant; a header line is skipped.</li>
+ * </ul>
+ * Files are limited to 2 GB, the size of a single mapping.
+ */
+public final class MappedTickFile implements TickSource {
+    private static final int MAGIC = 0x4258544B; // "BXTK"
+    private static final short VERSION = 1;
+
+    private final MappedByteBuffer buffer;
+    private final String[] symbols;
+
+    private MappedTickFile(MappedByteBuffer buffer, String[] symbols) {
+        this.buffer = buffer;
+        this.symbols = symbols;
+    }
+
+    public static MappedTickFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid once the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() >= Integer.BYTES && buffer.getInt(0) == MAGIC) {
+                return new MappedTickFile(buffer, readHeader(buffer, path));
+            }
+            return new MappedTickFile(buffer, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to map tick file " + path, ex);
+        }
+    }
+
+    /** Writes {@code ticks} in the binary layout. */
+    public static void write(Path path, List<RecordedTick> ticks) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (RecordedTick tick : ticks) {
+            index.putIfAbsent(tick.symbol(), index.size());
+        }
+        if (index.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many symbols for a tick file: " + index.size());
+        }
+        int headerSize = Integer.BYTES + 2 * Short.BYTES;
+        for (String symbol : index.keySet()) {
+            headerSize += 1 + symbol.getBytes(StandardCharsets.US_ASCII).length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(headerSize + ticks.size() * (Long.BYTES + Short.BYTES + Long.BYTES));
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) index.size());
+        for (String symbol : index.keySet()) {
+            byte[] bytes = symbol.getBytes(StandardCharsets.US_ASCII);
+            out.put((byte) bytes.length).put(bytes);
+        }
+        for (RecordedTick tick : ticks) {
+            out.putLong(tick.epochMillis()).putShort(index.get(tick.symbol()).shortValue()).putLong(tick.priceCents());
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write tick file " + path, ex);
+        }
+    }
+
+    /** Reads every tick of a file, mainly to convert a CSV recording to the binary layout. */
+    public static List<RecordedTick> readAll(Path path) {
+        List<RecordedTick> ticks = new ArrayList<>();
+        try (MappedTickFile file = open(path)) {
+            for (RecordedTick tick = file.next(); tick != null; tick = file.next()) {
+                ticks.add(tick);
+            }
+        }
+        return ticks;
+    }
+
+    @Override
+    public RecordedTick next() {
+        return symbols != null ? nextBinary() : nextCsv();
+    }
+
+    @Override
+    public void close() {
+        // nothing to release: the mapping is unmapped when the buffer is collected
+    }
+
+    private static String[] readHeader(MappedByteBuffer buffer, Path path) {
+        buffer.position(Integer.BYTES);
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported tick file version " + version + " in " + path);
+        }
+        String[] symbols = new String[buffer.getShort()];
+        for (int i = 0; i < symbols.length; i++) {
+            byte[] bytes = new byte[buffer.get()];
+            buffer.get(bytes);
+            symbols[i] = new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return symbols;
+    }
+
+    private RecordedTick nextBinary() {
+        if (buffer.remaining() < Long.BYTES + Short.BYTES + Long.BYTES) {
+            return null;
+        }
+        long epochMillis = buffer.getLong();
+        String symbol = symbols[buffer.getShort()];
+        return new RecordedTick(symbol, buffer.getLong(), epochMillis);
+    }
+
+    private RecordedTick nextCsv() {
+        while (buffer.hasRemaining()) {
+            String line = readLine().trim();
+            if (line.isEmpty() || !Character.isDigit(line.charAt(0))) {
+                continue; // blank line or header
+            }
+            String[] fields = line.split(",");
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Malformed tick line: " + line);
+            }
+            String timestamp = fields[0].trim();
+            long epochMillis = timestamp.indexOf('T') >= 0
+                    ? Instant.parse(timestamp).toEpochMilli()
+                    : Long.parseLong(timestamp);
+            return new RecordedTick(fields[1].trim(), Money.parse(fields[2].trim()), epochMillis);
+        }
+        return null;
+    }
+
+    private String readLine() {
+        int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        if (buffer.hasRemaining()) {
+            buffer.get(); // newline
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,352 @@
+package com.brokerx.adapters.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.brokerx.ports.TickJournal;
+
+/**
+ * Tick journal kept in rolling memory-mapped segment files. A segment starts with a 32-byte header (magic,
+ * version, base epoch nanos, record count) followed by fixed 16-byte records:
+ * {@code int symbolId | int priceDelta | long nanosSinceBase}. The price is stored as a delta from the
+ * symbol's previous price in the same segment (the first one from zero) and the time as an offset from
+ * the segment's first tick, instead of 20 bytes of raw id, price and nanos.
+ *
+ * <p>Appending is a few stores into an already mapped page: no syscall, no fsync and no database round
+ * trip on the tick path. Each segment keeps a per-symbol index (first and last record, time bounds),
+ * written next to it as {@code .idx} when the segment is sealed and rebuilt by a scan if it is missing
+ * after a crash; range reads use it to skip segments and to start at the symbol's first record.
+ * Symbol ids come from the append-only {@code symbols.txt}.
+ */
+public final class MappedTickJournal implements TickJournal {
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+    private static final int SEGMENT_MAGIC = 0x4258544A; // "BXTJ"
+    private static final int INDEX_MAGIC = 0x42585449; // "BXTI"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int COUNT_OFFSET = 16;
+    private static final int RECORD_SIZE = 16;
+    private static final String SYMBOLS_FILE = "symbols.txt";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+    private boolean closed;
+
+    private MappedTickJournal(Path directory, int recordsPerSegment) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    public static MappedTickJournal open(Path directory, int recordsPerSegment) {
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("recordsPerSegment must be positive");
+        }
+        MappedTickJournal journal = new MappedTickJournal(directory, recordsPerSegment);
+        try {
+            Files.createDirectories(directory);
+            Path symbols = directory.resolve(SYMBOLS_FILE);
+            if (Files.exists(symbols)) {
+                for (String symbol : Files.readAllLines(symbols, StandardCharsets.US_ASCII)) {
+                    if (!symbol.isEmpty()) {
+                        journal.symbolIds.put(symbol, journal.symbolIds.size());
+                    }
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                List<Path> segmentFiles = files
+                        .filter(path -> path.getFileName().toString().endsWith(".seg"))
+                        .sorted()
+                        .toList();
+                for (Path file : segmentFiles) {
+                    journal.segments.add(Segment.load(file));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open tick journal " + directory, ex);
+        }
+        return journal;
+    }
+
+    @Override
+    public synchronized void append(String symbol, long priceCents, Instant timestamp) {
+        if (closed) {
+            return;
+        }
+        long nanos = epochNanos(timestamp);
+        int symbolId = symbolId(symbol);
+        if (active == null || active.count == recordsPerSegment) {
+            roll(nanos);
+        }
+        SymbolRange range = active.range(symbolId);
+        long delta = priceCents - (range == null ? 0 : range.lastPrice);
+        if (delta != (int) delta) {
+            throw new IllegalArgumentException("Price move too large for the tick journal: " + symbol);
+        }
+        int position = HEADER_SIZE + active.count * RECORD_SIZE;
+        active.buffer.putInt(position, symbolId)
+                .putInt(position + 4, (int) delta)
+                .putLong(position + 8, nanos - active.baseNanos);
+        if (range == null) {
+            range = new SymbolRange(active.count, nanos);
+            active.put(symbolId, range);
+        }
+        range.add(active.count, nanos, priceCents);
+        active.count++;
+        active.buffer.putInt(COUNT_OFFSET, active.count);
+    }
+
+    @Override
+    public List<JournalTick> read(String symbol, Instant from, Instant to) {
+        long fromNanos = epochNanos(from);
+        long toNanos = epochNanos(to);
+        List<Segment> candidates = new ArrayList<>();
+        List<SymbolRange> ranges = new ArrayList<>();
+        int symbolId;
+        // copy the bounds under the lock, then scan without holding it so appends never wait on a read
+        synchronized (this) {
+            Integer id = symbolIds.get(symbol);
+            if (id == null) {
+                return List.of();
+            }
+            symbolId = id;
+            for (Segment segment : segments) {
+                SymbolRange range = segment.range(symbolId);
+                if (range != null && range.maxNanos >= fromNanos && range.minNanos < toNanos) {
+                    candidates.add(segment);
+                    ranges.add(range.copy());
+                }
+            }
+        }
+        List<JournalTick> ticks = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Segment segment = candidates.get(i);
+            SymbolRange range = ranges.get(i);
+            ByteBuffer buffer = segment.readBuffer();
+            long price = 0;
+            for (int record = range.first; record <= range.last; record++) {
+                int position = HEADER_SIZE + record * RECORD_SIZE;
+                if (buffer.getInt(position) != symbolId) {
+                    continue;
+                }
+                price += buffer.getInt(position + 4);
+                long nanos = segment.baseNanos + buffer.getLong(position + 8);
+                if (nanos >= fromNanos && nanos < toNanos) {
+                    ticks.add(new JournalTick(symbol, price, toInstant(nanos)));
+                }
+            }
+        }
+        return ticks;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (active != null) {
+            active.seal();
+            active = null;
+        }
+    }
+
+    private int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        try {
+            Files.writeString(directory.resolve(SYMBOLS_FILE), symbol + "\n", StandardCharsets.US_ASCII,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to register symbol " + symbol, ex);
+        }
+        int created = symbolIds.size();
+        symbolIds.put(symbol, created);
+        return created;
+    }
+
+    private void roll(long baseNanos) {
+        if (active != null) {
+            active.seal();
+        }
+        int number = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).number + 1;
+        Path file = directory.resolve(String.format("ticks-%08d.seg", number));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE);
+            buffer.putInt(0, SEGMENT_MAGIC).putShort(4, VERSION).putLong(8, baseNanos).putInt(COUNT_OFFSET, 0);
+            active = new Segment(number, file, baseNanos, buffer);
+            segments.add(active);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to create tick journal segment " + file, ex);
+        }
+    }
+
+    private static long epochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L), Math.floorMod(epochNanos, 1_000_000_000L));
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path file;
+        private final long baseNanos;
+        private SymbolRange[] ranges = new SymbolRange[16];
+        private MappedByteBuffer buffer;
+        private int count;
+
+        private Segment(int number, Path file, long baseNanos, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.baseNanos = baseNanos;
+            this.buffer = buffer;
+        }
+
+        private static Segment load(Path file) throws IOException {
+            String name = file.getFileName().toString();
+            int number = Integer.parseInt(name.substring("ticks-".length(), name.length() - ".seg".length()));
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.getInt(0) != SEGMENT_MAGIC || buffer.getShort(4) != VERSION) {
+                throw new IllegalArgumentException("Not a tick journal segment: " + file);
+            }
+            Segment segment = new Segment(number, file, buffer.getLong(8), buffer);
+            segment.count = buffer.getInt(COUNT_OFFSET);
+            if (!segment.loadIndex()) {
+                segment.rebuildIndex();
+            }
+            return segment;
+        }
+
+        private SymbolRange range(int symbolId) {
+            return symbolId < ranges.length ? ranges[symbolId] : null;
+        }
+
+        private void put(int symbolId, SymbolRange range) {
+            if (symbolId >= ranges.length) {
+                ranges = Arrays.copyOf(ranges, Math.max(ranges.length * 2, symbolId + 1));
+            }
+            ranges[symbolId] = range;
+        }
+
+        private ByteBuffer readBuffer() {
+            return buffer.duplicate();
+        }
+
+        private void seal() {
+            buffer.force();
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 0; id < ranges.length; id++) {
+                if (ranges[id] != null) {
+                    ids.add(id);
+                }
+            }
+            ByteBuffer index = ByteBuffer.allocate(12 + ids.size() * 28);
+            index.putInt(INDEX_MAGIC).putInt(count).putInt(ids.size());
+            for (int id : ids) {
+                SymbolRange range = ranges[id];
+                index.putInt(id).putInt(range.first).putInt(range.last).putLong(range.minNanos).putLong(range.maxNanos);
+            }
+            try {
+                Files.write(indexFile(), index.array());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Unable to write tick journal index " + indexFile(), ex);
+            }
+        }
+
+        private boolean loadIndex() throws IOException {
+            Path indexFile = indexFile();
+            if (!Files.exists(indexFile)) {
+                return false;
+            }
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (index.getInt() != INDEX_MAGIC || index.getInt() != count) {
+                return false;
+            }
+            int entries = index.getInt();
+            for (int i = 0; i < entries; i++) {
+                int id = index.getInt();
+                int first = index.getInt();
+                int last = index.getInt();
+                SymbolRange range = new SymbolRange(first, index.getLong());
+                range.last = last;
+                range.maxNanos = index.getLong();
+                put(id, range);
+            }
+            return true;
+        }
+
+        private void rebuildIndex() {
+            for (int record = 0; record < count; record++) {
+                int position = HEADER_SIZE + record * RECORD_SIZE;
+                int id = buffer.getInt(position);
+                long nanos = baseNanos + buffer.getLong(position + 8);
+                SymbolRange range = range(id);
+                if (range == null) {
+                    range = new SymbolRange(record, nanos);
+                    put(id, range);
+                }
+                range.add(record, nanos, range.lastPrice + buffer.getInt(position + 4));
+            }
+        }
+
+        private Path indexFile() {
+            String name = file.getFileName().toString();
+            return file.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+        }
+    }
+
+    private static final class SymbolRange {
+        private final int first;
+        private int last;
+        private long minNanos;
+        private long maxNanos;
+        private long lastPrice;
+
+        private SymbolRange(int first, long nanos) {
+            this.first = first;
+            this.last = first;
+            this.minNanos = nanos;
+            this.maxNanos = nanos;
+        }
+
+        private void add(int record, long nanos, long price) {
+            last = record;
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+            lastPrice = price;
+        }
+
+        private SymbolRange copy() {
+            SymbolRange copy = new SymbolRange(first, minNanos);
+            copy.last = last;
+            copy.maxNanos = maxNanos;
+            return copy;
+        }
+    }
+}
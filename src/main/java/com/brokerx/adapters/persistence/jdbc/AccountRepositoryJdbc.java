@@ -11,6 +11,7 @@ import java.util.UUID;
 import javax.sql.DataSource;
 
 import com.brokerx.domain.account.AccountState;
+import com.brokerx.domain.account.AccountStatus;
 import com.brokerx.domain.account.UserAccount;
 import com.brokerx.ports.AccountRepository;
 
@@ -72,6 +73,27 @@ public class AccountRepositoryJdbc implements AccountRepository {
         }
     }
 
+    @Override
+    public Optional<AccountStatus> findStatus(UUID accountId) {
+        var sql = "SELECT state, version FROM accounts WHERE id = ?";
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            ps.setObject(1, accountId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new AccountStatus(
+                            accountId,
+                            AccountState.valueOf(rs.getString("state")),
+                            rs.getLong("version")
+                    ));
+                }
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to load account status", e);
+        }
+    }
+
     @Override
     public void save(UserAccount account) {
         var sql = """
@@ -103,7 +125,8 @@ public class AccountRepositoryJdbc implements AccountRepository {
                    verification_code = ?,
                    verification_expires_at = ?,
                    rejection_reason = ?,
-                   updated_at = ?
+                   updated_at = ?,
+                   version = version + 1
              WHERE id = ?
         """;
         try (var handle = ConnectionHandle.acquire(dataSource);
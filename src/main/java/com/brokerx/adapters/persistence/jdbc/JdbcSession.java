@@ -1,9 +1,12 @@
 package com.brokerx.adapters.persistence.jdbc;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
 final class JdbcSession {
     private static final ThreadLocal<Connection> CONTEXT = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> AFTER_COMMIT = new ThreadLocal<>();
 
     private JdbcSession() {
     }
@@ -12,11 +15,26 @@ final class JdbcSession {
         return CONTEXT.get();
     }
 
+    static List<Runnable> afterCommitActions() {
+        return AFTER_COMMIT.get();
+    }
+
     static void bind(Connection connection) {
         CONTEXT.set(connection);
+        AFTER_COMMIT.set(new ArrayList<>());
+    }
+
+    static void restore(Connection connection, List<Runnable> afterCommit) {
+        if (connection == null) {
+            clear();
+            return;
+        }
+        CONTEXT.set(connection);
+        AFTER_COMMIT.set(afterCommit);
     }
 
     static void clear() {
         CONTEXT.remove();
+        AFTER_COMMIT.remove();
     }
 }
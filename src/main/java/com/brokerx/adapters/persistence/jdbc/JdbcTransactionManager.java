@@ -7,6 +7,8 @@ import com.brokerx.ports.TransactionRunnable;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
 
 public class JdbcTransactionManager implements TransactionManager {
     private final DataSource dataSource;
@@ -17,14 +19,18 @@ public class JdbcTransactionManager implements TransactionManager {
 
     @Override
     public <T> T inTransaction(TransactionCallback<T> callback) {
+        Connection outer = JdbcSession.current();
+        List<Runnable> outerActions = JdbcSession.afterCommitActions();
+        List<Runnable> actions;
+        T result;
         try (Connection connection = dataSource.getConnection()) {
             boolean previousAutoCommit = connection.getAutoCommit();
             connection.setAutoCommit(false);
             JdbcSession.bind(connection);
+            actions = JdbcSession.afterCommitActions();
             try {
-                T result = callback.doInTransaction();
+                result = callback.doInTransaction();
                 connection.commit();
-                return result;
             } catch (Exception ex) {
                 try {
                     connection.rollback();
@@ -36,12 +42,57 @@ public class JdbcTransactionManager implements TransactionManager {
                 }
                 throw new PersistenceException("Transaction failed", ex);
             } finally {
-                JdbcSession.clear();
+                JdbcSession.restore(outer, outerActions);
                 connection.setAutoCommit(previousAutoCommit);
             }
         } catch (SQLException ex) {
             throw new PersistenceException("Unable to obtain transactional connection", ex);
         }
+        // the connection is back in the pool before post-commit work starts
+        actions.forEach(Runnable::run);
+        return result;
+    }
+
+    @Override
+    public <T> T inSavepoint(TransactionCallback<T> callback) {
+        Connection connection = JdbcSession.current();
+        if (connection == null) {
+            return inTransaction(callback);
+        }
+        List<Runnable> actions = JdbcSession.afterCommitActions();
+        int registered = actions.size();
+        Savepoint savepoint;
+        try {
+            savepoint = connection.setSavepoint();
+        } catch (SQLException ex) {
+            throw new PersistenceException("Unable to create savepoint", ex);
+        }
+        try {
+            T result = callback.doInTransaction();
+            connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (Exception ex) {
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException rollback) {
+                throw new PersistenceException("Savepoint rollback failed", rollback);
+            }
+            actions.subList(registered, actions.size()).clear();
+            if (ex instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new PersistenceException("Savepoint block failed", ex);
+        }
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        List<Runnable> actions = JdbcSession.afterCommitActions();
+        if (actions == null) {
+            action.run();
+            return;
+        }
+        actions.add(action);
     }
 
     @Override
@@ -8,6 +8,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class OrderAuditRepositoryJdbc implements OrderAuditRepository {
@@ -35,4 +36,29 @@ public class OrderAuditRepositoryJdbc implements OrderAuditRepository {
             throw new PersistenceException("Failed to append order audit", e);
         }
     }
+
+    @Override
+    public void appendAll(List<OrderAuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        var sql = """
+            INSERT INTO order_audit (id, order_id, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (OrderAuditEntry entry : entries) {
+                ps.setObject(1, UUID.randomUUID());
+                ps.setObject(2, entry.orderId());
+                ps.setString(3, entry.eventType());
+                ps.setString(4, entry.payload());
+                ps.setTimestamp(5, Timestamp.from(entry.createdAt() != null ? entry.createdAt() : Instant.now()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to append order audit batch", e);
+        }
+    }
 }
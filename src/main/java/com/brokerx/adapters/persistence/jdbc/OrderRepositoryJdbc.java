@@ -3,16 +3,20 @@ package com.brokerx.adapters.persistence.jdbc;
 import com.brokerx.domain.order.OrderSide;
 import com.brokerx.domain.order.OrderStatus;
 import com.brokerx.domain.order.OrderType;
+import com.brokerx.domain.order.TimeInForce;
 import com.brokerx.domain.order.TradeOrder;
 import com.brokerx.ports.OrderRepository;
 
 import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,8 +47,10 @@ public class OrderRepositoryJdbc implements OrderRepository {
                 failure_reason,
                 created_at,
                 updated_at,
-                executed_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                executed_at,
+                time_in_force,
+                expires_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
         """;
         try (var handle = ConnectionHandle.acquire(dataSource);
              PreparedStatement ps = handle.connection().prepareStatement(sql)) {
@@ -73,25 +79,162 @@ public class OrderRepositoryJdbc implements OrderRepository {
                    failure_reason = ?,
                    created_at = ?,
                    updated_at = ?,
-                   executed_at = ?
+                   executed_at = ?,
+                   time_in_force = ?,
+                   expires_at = ?
              WHERE id = ?
         """;
         try (var handle = ConnectionHandle.acquire(dataSource);
              PreparedStatement ps = handle.connection().prepareStatement(sql)) {
             bindAll(ps, order);
-            ps.setObject(16, order.id());
+            ps.setObject(18, order.id());
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new PersistenceException("Failed to update order", e);
         }
     }
 
+    @Override
+    public void updateAll(List<TradeOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        var sql = """
+            UPDATE orders
+               SET executed_price = ?,
+                   notional = ?,
+                   status = ?,
+                   failure_reason = ?,
+                   updated_at = ?,
+                   executed_at = ?
+             WHERE id = ?
+        """;
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (TradeOrder order : orders) {
+                if (order.executedPrice() != null) {
+                    ps.setBigDecimal(1, order.executedPrice());
+                } else {
+                    ps.setNull(1, java.sql.Types.NUMERIC);
+                }
+                if (order.notional() != null) {
+                    ps.setBigDecimal(2, order.notional());
+                } else {
+                    ps.setNull(2, java.sql.Types.NUMERIC);
+                }
+                ps.setString(3, order.status().name());
+                if (order.failureReason() != null) {
+                    ps.setString(4, order.failureReason());
+                } else {
+                    ps.setNull(4, java.sql.Types.VARCHAR);
+                }
+                ps.setTimestamp(5, Timestamp.from(order.updatedAt()));
+                if (order.executedAt() != null) {
+                    ps.setTimestamp(6, Timestamp.from(order.executedAt()));
+                } else {
+                    ps.setNull(6, java.sql.Types.TIMESTAMP_WITH_TIMEZONE);
+                }
+                ps.setObject(7, order.id());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to batch update orders", e);
+        }
+    }
+
+    @Override
+    public List<TradeOrder> claimCrossing(UUID stockId, BigDecimal price) {
+        var sql = """
+            SELECT id, account_id, stock_id, symbol, side, type, quantity,
+                   limit_price, executed_price, notional, client_order_id,
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
+              FROM orders
+             WHERE stock_id = ? AND status = 'PENDING' AND type = 'LIMIT' AND limit_price <= ?
+             ORDER BY limit_price DESC, created_at ASC
+             FOR UPDATE
+        """;
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            ps.setObject(1, stockId);
+            ps.setBigDecimal(2, price);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TradeOrder> orders = new ArrayList<>();
+                while (rs.next()) {
+                    orders.add(mapRow(rs));
+                }
+                return orders;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to claim crossing orders", e);
+        }
+    }
+
+    @Override
+    public List<TradeOrder> lockPending(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        var sorted = orderIds.stream().distinct().sorted().toList();
+        var sql = """
+            SELECT id, account_id, stock_id, symbol, side, type, quantity,
+                   limit_price, executed_price, notional, client_order_id,
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
+              FROM orders
+             WHERE id IN (%s) AND status = 'PENDING'
+             ORDER BY id
+             FOR UPDATE
+        """.formatted(String.join(", ", Collections.nCopies(sorted.size(), "?")));
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (int i = 0; i < sorted.size(); i++) {
+                ps.setObject(i + 1, sorted.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TradeOrder> orders = new ArrayList<>();
+                while (rs.next()) {
+                    orders.add(mapRow(rs));
+                }
+                return orders;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to lock pending orders", e);
+        }
+    }
+
+    @Override
+    public List<TradeOrder> findPendingWithExpiry() {
+        var sql = """
+            SELECT id, account_id, stock_id, symbol, side, type, quantity,
+                   limit_price, executed_price, notional, client_order_id,
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
+              FROM orders
+             WHERE status = 'PENDING' AND expires_at IS NOT NULL
+        """;
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                List<TradeOrder> orders = new ArrayList<>();
+                while (rs.next()) {
+                    orders.add(mapRow(rs));
+                }
+                return orders;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to list expiring orders", e);
+        }
+    }
+
     @Override
     public Optional<TradeOrder> findById(UUID orderId) {
         var sql = """
             SELECT id, account_id, stock_id, symbol, side, type, quantity,
                    limit_price, executed_price, notional, client_order_id,
-                   status, failure_reason, created_at, updated_at, executed_at
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
               FROM orders
              WHERE id = ?
         """;
@@ -117,7 +260,8 @@ public class OrderRepositoryJdbc implements OrderRepository {
         var sql = """
             SELECT id, account_id, stock_id, symbol, side, type, quantity,
                    limit_price, executed_price, notional, client_order_id,
-                   status, failure_reason, created_at, updated_at, executed_at
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
               FROM orders
              WHERE account_id = ? AND client_order_id = ?
         """;
@@ -141,7 +285,8 @@ public class OrderRepositoryJdbc implements OrderRepository {
         var sql = """
             SELECT id, account_id, stock_id, symbol, side, type, quantity,
                    limit_price, executed_price, notional, client_order_id,
-                   status, failure_reason, created_at, updated_at, executed_at
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
               FROM orders
              WHERE stock_id = ? AND status = 'PENDING'
              ORDER BY created_at ASC
@@ -166,7 +311,8 @@ public class OrderRepositoryJdbc implements OrderRepository {
         var sql = """
             SELECT id, account_id, stock_id, symbol, side, type, quantity,
                    limit_price, executed_price, notional, client_order_id,
-                   status, failure_reason, created_at, updated_at, executed_at
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
               FROM orders
              WHERE account_id = ?
              ORDER BY created_at DESC
@@ -191,7 +337,8 @@ public class OrderRepositoryJdbc implements OrderRepository {
         var sql = """
             SELECT id, account_id, stock_id, symbol, side, type, quantity,
                    limit_price, executed_price, notional, client_order_id,
-                   status, failure_reason, created_at, updated_at, executed_at
+                   status, failure_reason, created_at, updated_at, executed_at,
+                   time_in_force, expires_at
               FROM orders
              ORDER BY created_at DESC
         """;
@@ -250,6 +397,12 @@ public class OrderRepositoryJdbc implements OrderRepository {
         } else {
             ps.setNull(16, java.sql.Types.TIMESTAMP_WITH_TIMEZONE);
         }
+        ps.setString(17, order.timeInForce().name());
+        if (order.expiresAt() != null) {
+            ps.setTimestamp(18, Timestamp.from(order.expiresAt()));
+        } else {
+            ps.setNull(18, java.sql.Types.TIMESTAMP_WITH_TIMEZONE);
+        }
     }
 
     private TradeOrder mapRow(ResultSet rs) throws SQLException {
@@ -270,6 +423,9 @@ public class OrderRepositoryJdbc implements OrderRepository {
         Instant updatedAt = rs.getTimestamp("updated_at").toInstant();
         Timestamp execTs = rs.getTimestamp("executed_at");
         Instant executedAt = execTs != null ? execTs.toInstant() : null;
+        TimeInForce timeInForce = TimeInForce.valueOf(rs.getString("time_in_force"));
+        Timestamp expiresTs = rs.getTimestamp("expires_at");
+        Instant expiresAt = expiresTs != null ? expiresTs.toInstant() : null;
         return new TradeOrder(
                 id,
                 accountId,
@@ -286,7 +442,9 @@ public class OrderRepositoryJdbc implements OrderRepository {
                 createdAt,
                 updatedAt,
                 executedAt,
-                failureReason
+                failureReason,
+                timeInForce,
+                expiresAt
         );
     }
 }
@@ -10,6 +10,10 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,6 +47,36 @@ public class PositionRepositoryJdbc implements PositionRepository {
         }
     }
 
+    @Override
+    public Map<UUID, Position> findByStock(UUID stockId, Collection<UUID> accountIds) {
+        Map<UUID, Position> positions = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return positions;
+        }
+        var ids = accountIds.stream().distinct().toList();
+        var sql = """
+            SELECT account_id, stock_id, quantity, average_price, updated_at
+              FROM positions
+             WHERE stock_id = ? AND account_id IN (%s)
+        """.formatted(String.join(", ", Collections.nCopies(ids.size(), "?")));
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            ps.setObject(1, stockId);
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setObject(i + 2, ids.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Position position = mapRow(rs);
+                    positions.put(position.accountId(), position);
+                }
+                return positions;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to load positions by stock", e);
+        }
+    }
+
     @Override
     public void upsert(Position position) {
         var sql = """
@@ -66,6 +100,59 @@ public class PositionRepositoryJdbc implements PositionRepository {
         }
     }
 
+    @Override
+    public void upsertAll(Collection<Position> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        // update batch first, then insert the rows it did not find: two round trips whatever the size
+        var updateSql = """
+            UPDATE positions
+               SET quantity = ?, average_price = ?, updated_at = ?
+             WHERE account_id = ? AND stock_id = ?
+        """;
+        var insertSql = """
+            INSERT INTO positions (account_id, stock_id, quantity, average_price, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+        List<Position> ordered = new ArrayList<>(positions);
+        try (var handle = ConnectionHandle.acquire(dataSource)) {
+            int[] updated;
+            try (PreparedStatement ps = handle.connection().prepareStatement(updateSql)) {
+                for (Position position : ordered) {
+                    ps.setBigDecimal(1, position.quantity());
+                    ps.setBigDecimal(2, position.averagePrice());
+                    ps.setTimestamp(3, Timestamp.from(position.updatedAt()));
+                    ps.setObject(4, position.accountId());
+                    ps.setObject(5, position.stockId());
+                    ps.addBatch();
+                }
+                updated = ps.executeBatch();
+            }
+            try (PreparedStatement ps = handle.connection().prepareStatement(insertSql)) {
+                boolean pending = false;
+                for (int i = 0; i < ordered.size(); i++) {
+                    if (updated[i] != 0) {
+                        continue;
+                    }
+                    Position position = ordered.get(i);
+                    ps.setObject(1, position.accountId());
+                    ps.setObject(2, position.stockId());
+                    ps.setBigDecimal(3, position.quantity());
+                    ps.setBigDecimal(4, position.averagePrice());
+                    ps.setTimestamp(5, Timestamp.from(position.updatedAt()));
+                    ps.addBatch();
+                    pending = true;
+                }
+                if (pending) {
+                    ps.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to batch upsert positions", e);
+        }
+    }
+
     @Override
     public List<Position> listByAccount(UUID accountId) {
         var sql = """
@@ -7,6 +7,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -98,6 +99,26 @@ public class StockRepositoryJdbc implements StockRepository {
         }
     }
 
+    @Override
+    public void updatePrices(Collection<Stock> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        var sql = "UPDATE stocks SET last_price = ?, updated_at = ? WHERE id = ?";
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (Stock stock : stocks) {
+                ps.setBigDecimal(1, stock.getLastPrice());
+                ps.setTimestamp(2, Timestamp.from(stock.getUpdatedAt()));
+                ps.setObject(3, stock.getId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to batch update stock prices", e);
+        }
+    }
+
     @Override
     public List<Stock> findFollowedByAccount(UUID accountId) {
         var sql = """
@@ -4,10 +4,15 @@ import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import javax.sql.DataSource;
 
+import com.brokerx.domain.money.Money;
 import com.brokerx.domain.wallet.Wallet;
 import com.brokerx.ports.WalletRepository;
 
@@ -39,6 +44,86 @@ public class WalletRepositoryJdbc implements WalletRepository {
         }
     }
 
+    @Override
+    public Map<UUID, Wallet> lockByOwnerIds(Collection<UUID> ownerIds) {
+        Map<UUID, Wallet> wallets = new HashMap<>();
+        if (ownerIds.isEmpty()) {
+            return wallets;
+        }
+        // sorted so concurrent batches always lock wallets in the same order
+        var sorted = ownerIds.stream().distinct().sorted().toList();
+        var sql = """
+            SELECT id, owner_id, balance
+            FROM wallets
+            WHERE owner_id IN (%s)
+            ORDER BY owner_id
+            FOR UPDATE
+        """.formatted(String.join(", ", Collections.nCopies(sorted.size(), "?")));
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (int i = 0; i < sorted.size(); i++) {
+                ps.setObject(i + 1, sorted.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Wallet wallet = mapRow(rs);
+                    wallets.put(wallet.getOwnerId(), wallet);
+                }
+                return wallets;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to lock wallets", e);
+        }
+    }
+
+    @Override
+    public boolean reserve(UUID ownerId, long cents) {
+        // the balance check and the write are one statement, so concurrent reservations cannot overdraw
+        var sql = "UPDATE wallets SET balance = balance - ? WHERE owner_id = ? AND balance >= ?";
+        BigDecimal amount = Money.toDecimal(cents);
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            ps.setBigDecimal(1, amount);
+            ps.setObject(2, ownerId);
+            ps.setBigDecimal(3, amount);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to reserve wallet funds", e);
+        }
+    }
+
+    @Override
+    public boolean release(UUID ownerId, long cents) {
+        var sql = "UPDATE wallets SET balance = balance + ? WHERE owner_id = ?";
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            ps.setBigDecimal(1, Money.toDecimal(cents));
+            ps.setObject(2, ownerId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to release wallet funds", e);
+        }
+    }
+
+    @Override
+    public void releaseAll(Map<UUID, Long> centsByOwner) {
+        if (centsByOwner.isEmpty()) {
+            return;
+        }
+        var sql = "UPDATE wallets SET balance = balance + ? WHERE owner_id = ?";
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (var entry : centsByOwner.entrySet()) {
+                ps.setBigDecimal(1, Money.toDecimal(entry.getValue()));
+                ps.setObject(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to batch release wallet funds", e);
+        }
+    }
+
     @Override
     public Wallet create(UUID ownerId) {
         var walletId = UUID.randomUUID();
@@ -68,6 +153,25 @@ public class WalletRepositoryJdbc implements WalletRepository {
         }
     }
 
+    @Override
+    public void updateAll(Collection<Wallet> wallets) {
+        if (wallets.isEmpty()) {
+            return;
+        }
+        var sql = "UPDATE wallets SET balance = ? WHERE id = ?";
+        try (var handle = ConnectionHandle.acquire(dataSource);
+             PreparedStatement ps = handle.connection().prepareStatement(sql)) {
+            for (Wallet wallet : wallets) {
+                ps.setBigDecimal(1, wallet.getBalance());
+                ps.setObject(2, wallet.getId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Failed to batch update wallet balances", e);
+        }
+    }
+
     private Wallet mapRow(ResultSet rs) throws SQLException {
         UUID walletId = rs.getObject("id", UUID.class);
         UUID ownerId = rs.getObject("owner_id", UUID.class);
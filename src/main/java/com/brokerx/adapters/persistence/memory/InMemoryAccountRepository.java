@@ -5,11 +5,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.brokerx.domain.account.AccountStatus;
 import com.brokerx.domain.account.UserAccount;
 import com.brokerx.ports.AccountRepository;
 
 public class InMemoryAccountRepository implements AccountRepository {
     private final Map<UUID, UserAccount> store = new HashMap<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
 
     @Override
     public Optional<UserAccount> findByEmail(String email) {
@@ -30,13 +32,24 @@ public class InMemoryAccountRepository implements AccountRepository {
         return Optional.ofNullable(store.get(accountId));
     }
 
+    @Override
+    public Optional<AccountStatus> findStatus(UUID accountId) {
+        UserAccount account = store.get(accountId);
+        if (account == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AccountStatus(accountId, account.getState(), versions.getOrDefault(accountId, 0L)));
+    }
+
     @Override
     public void save(UserAccount account) {
         store.put(account.getId(), account);
+        versions.put(account.getId(), 0L);
     }
 
     @Override
     public void update(UserAccount account) {
         store.put(account.getId(), account);
+        versions.merge(account.getId(), 1L, Long::sum);
     }
 }
@@ -15,6 +15,11 @@ public class InMemoryOrderAuditRepository implements OrderAuditRepository {
         entries.add(entry);
     }
 
+    @Override
+    public void appendAll(List<OrderAuditEntry> batch) {
+        entries.addAll(batch);
+    }
+
     public List<OrderAuditEntry> entries() {
         return List.copyOf(entries);
     }
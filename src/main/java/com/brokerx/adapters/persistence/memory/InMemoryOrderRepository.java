@@ -1,12 +1,16 @@
 package com.brokerx.adapters.persistence.memory;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.brokerx.domain.order.OrderType;
 import com.brokerx.domain.order.TradeOrder;
 import com.brokerx.ports.OrderRepository;
 
@@ -27,6 +31,53 @@ public class InMemoryOrderRepository implements OrderRepository {
         save(order);
     }
 
+    @Override
+    public void updateAll(List<TradeOrder> orders) {
+        for (TradeOrder order : orders) {
+            save(order);
+        }
+    }
+
+    @Override
+    public List<TradeOrder> claimCrossing(UUID stockId, BigDecimal price) {
+        List<TradeOrder> result = new ArrayList<>();
+        for (TradeOrder order : ordersById.values()) {
+            if (stockId.equals(order.stockId())
+                    && order.isPending()
+                    && order.type() == OrderType.LIMIT
+                    && order.limitPrice() != null
+                    && order.limitPrice().compareTo(price) <= 0) {
+                result.add(order);
+            }
+        }
+        result.sort(Comparator.comparing(TradeOrder::limitPrice).reversed()
+                .thenComparing(TradeOrder::createdAt));
+        return result;
+    }
+
+    @Override
+    public List<TradeOrder> lockPending(Collection<UUID> orderIds) {
+        List<TradeOrder> result = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            TradeOrder order = ordersById.get(orderId);
+            if (order != null && order.isPending()) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<TradeOrder> findPendingWithExpiry() {
+        List<TradeOrder> result = new ArrayList<>();
+        for (TradeOrder order : ordersById.values()) {
+            if (order.isPending() && order.expiresAt() != null) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Optional<TradeOrder> findById(UUID orderId) {
         return Optional.ofNullable(ordersById.get(orderId));
@@ -4,6 +4,8 @@ import com.brokerx.domain.position.Position;
 import com.brokerx.ports.PositionRepository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,11 +20,30 @@ public class InMemoryPositionRepository implements PositionRepository {
         return Optional.ofNullable(store.get(key(accountId, stockId)));
     }
 
+    @Override
+    public Map<UUID, Position> findByStock(UUID stockId, Collection<UUID> accountIds) {
+        Map<UUID, Position> result = new HashMap<>();
+        for (UUID accountId : accountIds) {
+            Position position = store.get(key(accountId, stockId));
+            if (position != null) {
+                result.put(accountId, position);
+            }
+        }
+        return result;
+    }
+
     @Override
     public void upsert(Position position) {
         store.put(key(position.accountId(), position.stockId()), position);
     }
 
+    @Override
+    public void upsertAll(Collection<Position> positions) {
+        for (Position position : positions) {
+            upsert(position);
+        }
+    }
+
     @Override
     public List<Position> listByAccount(UUID accountId) {
         List<Position> results = new ArrayList<>();
@@ -3,6 +3,7 @@ package com.brokerx.adapters.persistence.memory;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -92,6 +93,13 @@ public class InMemoryStockRepository implements StockRepository {
         stockBySymbol.put(updated.getSymbol(), stockId);
     }
 
+    @Override
+    public void updatePrices(Collection<Stock> updated) {
+        for (Stock stock : updated) {
+            updatePrice(stock.getId(), stock);
+        }
+    }
+
     @Override
     public List<Stock> findFollowedByAccount(UUID accountId) {
         return followsByAccount.getOrDefault(accountId, List.of()).stream()
@@ -1,32 +1,119 @@
 package com.brokerx.adapters.persistence.memory;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.brokerx.domain.money.Money;
 import com.brokerx.domain.wallet.Wallet;
 import com.brokerx.ports.WalletRepository;
 
+/**
+ * Stored wallets are never handed out nor mutated: readers get a {@link Snapshot} copy and every write
+ * installs a new instance, so the identity compare of {@code replace} is a real compare-and-set. A
+ * snapshot written back through {@link #update} applies the change made to it since it was read, the
+ * way an update under a row lock would, instead of overwriting concurrent reservations.
+ */
 public class InMemoryWalletRepository implements WalletRepository {
-    private final Map<UUID, Wallet> wallets = new HashMap<>();
+    private final ConcurrentMap<UUID, Wallet> walletsByOwner = new ConcurrentHashMap<>();
 
     @Override
     public Optional<Wallet> findByOwnerId(UUID ownerId) {
-        return wallets.values().stream()
-                .filter(w -> w.getOwnerId().equals(ownerId))
-                .findFirst();
+        return Optional.ofNullable(walletsByOwner.get(ownerId)).map(Snapshot::new);
+    }
+
+    @Override
+    public Map<UUID, Wallet> lockByOwnerIds(Collection<UUID> ownerIds) {
+        Map<UUID, Wallet> result = new HashMap<>();
+        for (UUID ownerId : ownerIds) {
+            Wallet wallet = walletsByOwner.get(ownerId);
+            if (wallet != null) {
+                result.put(ownerId, new Snapshot(wallet));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean reserve(UUID ownerId, long cents) {
+        while (true) {
+            Wallet current = walletsByOwner.get(ownerId);
+            if (current == null || current.getBalanceCents() < cents) {
+                return false;
+            }
+            Wallet next = new Wallet(current.getId(), ownerId, Money.subtract(current.getBalanceCents(), cents));
+            if (walletsByOwner.replace(ownerId, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean release(UUID ownerId, long cents) {
+        while (true) {
+            Wallet current = walletsByOwner.get(ownerId);
+            if (current == null) {
+                return false;
+            }
+            Wallet next = new Wallet(current.getId(), ownerId, Money.add(current.getBalanceCents(), cents));
+            if (walletsByOwner.replace(ownerId, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void releaseAll(Map<UUID, Long> centsByOwner) {
+        centsByOwner.forEach(this::release);
     }
 
     @Override
     public Wallet create(UUID ownerId) {
         var wallet = new Wallet(UUID.randomUUID(), ownerId);
-        wallets.put(wallet.getId(), wallet);
-        return wallet;
+        walletsByOwner.put(ownerId, wallet);
+        return new Snapshot(wallet);
     }
 
     @Override
     public void update(Wallet wallet) {
-        wallets.put(wallet.getId(), wallet);
+        UUID ownerId = wallet.getOwnerId();
+        if (!(wallet instanceof Snapshot snapshot)) {
+            walletsByOwner.put(ownerId, new Wallet(wallet.getId(), ownerId, wallet.getBalanceCents()));
+            return;
+        }
+        long delta = Money.subtract(snapshot.getBalanceCents(), snapshot.readCents);
+        walletsByOwner.compute(ownerId, (id, current) -> {
+            if (current == null) {
+                return new Wallet(snapshot.getId(), ownerId, snapshot.getBalanceCents());
+            }
+            long balance = Money.add(current.getBalanceCents(), delta);
+            if (balance < 0) {
+                throw new IllegalArgumentException("Insufficient funds");
+            }
+            return new Wallet(current.getId(), ownerId, balance);
+        });
+        // written back once: a second update of the same snapshot must not apply the change again
+        snapshot.readCents = snapshot.getBalanceCents();
+    }
+
+    @Override
+    public void updateAll(Collection<Wallet> updated) {
+        for (Wallet wallet : updated) {
+            update(wallet);
+        }
+    }
+
+    /** Copy handed to callers, remembering the balance it was read with. */
+    private static final class Snapshot extends Wallet {
+        private long readCents;
+
+        private Snapshot(Wallet stored) {
+            super(stored.getId(), stored.getOwnerId(), stored.getBalanceCents());
+            this.readCents = stored.getBalanceCents();
+        }
     }
 }
@@ -1,23 +1,71 @@
 package com.brokerx.adapters.persistence.memory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.brokerx.ports.TransactionCallback;
 import com.brokerx.ports.TransactionManager;
 import com.brokerx.ports.TransactionRunnable;
 
 public class NoopTransactionManager implements TransactionManager {
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+
     @Override
     public <T> T inTransaction(TransactionCallback<T> callback) {
+        if (afterCommit.get() != null) {
+            // nested call: joins the outer unit of work and its post-commit actions
+            return invoke(callback);
+        }
+        List<Runnable> actions = new ArrayList<>();
+        afterCommit.set(actions);
+        T result;
         try {
-            return callback.doInTransaction();
+            result = invoke(callback);
+        } finally {
+            afterCommit.remove();
+        }
+        actions.forEach(Runnable::run);
+        return result;
+    }
+
+    @Override
+    public <T> T inSavepoint(TransactionCallback<T> callback) {
+        List<Runnable> actions = afterCommit.get();
+        if (actions == null) {
+            return inTransaction(callback);
+        }
+        // in-memory stores have nothing to roll back to; only the deferred actions are discarded
+        int registered = actions.size();
+        try {
+            return invoke(callback);
         } catch (RuntimeException ex) {
+            actions.subList(registered, actions.size()).clear();
             throw ex;
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
         }
     }
 
+    @Override
+    public void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommit.get();
+        if (actions == null) {
+            action.run();
+            return;
+        }
+        actions.add(action);
+    }
+
     @Override
     public void inTransaction(TransactionRunnable runnable) {
         TransactionManager.super.inTransaction(runnable);
     }
+
+    private <T> T invoke(TransactionCallback<T> callback) {
+        try {
+            return callback.doInTransaction();
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 }
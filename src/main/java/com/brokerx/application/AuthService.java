@@ -3,6 +3,7 @@ package com.brokerx.application;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HexFormat;
@@ -11,7 +12,9 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+import com.brokerx.cache.TimedCache;
 import com.brokerx.domain.account.AccountState;
+import com.brokerx.domain.account.AccountStatus;
 import com.brokerx.domain.account.UserAccount;
 import com.brokerx.ports.AccountAuditRepository;
 import com.brokerx.ports.AccountRepository;
@@ -21,16 +24,27 @@ public class AuthService {
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@]+@[^@]+\\.[^@]+$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^[+0-9][0-9\\- ]{6,}$");
     private static final long VERIFICATION_TTL_SECONDS = 3600;
+    private static final Duration STATUS_TTL = Duration.ofSeconds(30);
+    private static final long STATUS_CACHE_SIZE = 100_000;
 
     private final AccountRepository accountRepository;
     private final WalletRepository walletRepository;
     private final AccountAuditRepository auditRepository;
     private final SecureRandom random = new SecureRandom();
+    private final TimedCache<UUID, AccountStatus> statusCache;
 
     public AuthService(AccountRepository accountRepository, WalletRepository walletRepository, AccountAuditRepository auditRepository) {
+        this(accountRepository, walletRepository, auditRepository, STATUS_TTL);
+    }
+
+    public AuthService(AccountRepository accountRepository,
+                       WalletRepository walletRepository,
+                       AccountAuditRepository auditRepository,
+                       Duration statusTtl) {
         this.accountRepository = accountRepository;
         this.walletRepository = walletRepository;
         this.auditRepository = auditRepository;
+        this.statusCache = new TimedCache<>("account_status", statusTtl, STATUS_CACHE_SIZE);
     }
 
     public SignupResult register(SignupCommand command) {
@@ -80,7 +94,7 @@ public class AuthService {
         UserAccount account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Compte introuvable"));
         account.activate(Objects.requireNonNull(verificationCode, "verificationCode"), Instant.now());
-        accountRepository.update(account);
+        updateAccount(account);
         auditRepository.record(accountId, "ACCOUNT_ACTIVATED", """
             {"method":"self-service"}
             """);
@@ -97,6 +111,33 @@ public class AuthService {
         return accountRepository.findById(accountId);
     }
 
+    /**
+     * Cached (id, state, version) of the account, for the authorization checks of order entry and the
+     * account routes; misses read the narrow projection only. Only an active status is kept: a missing or
+     * non-active account is evicted right after its load, so an activation is visible at once even on a
+     * node that did not perform it. Every state transition goes through {@link #updateAccount}, which
+     * evicts the entry.
+     */
+    public Optional<AccountStatus> findAccountStatus(UUID accountId) {
+        if (accountId == null) {
+            return Optional.empty();
+        }
+        AccountStatus status = statusCache.getOrCompute(accountId,
+                () -> accountRepository.findStatus(accountId).orElse(null));
+        if (status == null || !status.isActive()) {
+            statusCache.invalidate(accountId);
+        }
+        return Optional.ofNullable(status);
+    }
+
+    private void updateAccount(UserAccount account) {
+        try {
+            accountRepository.update(account);
+        } finally {
+            statusCache.invalidate(account.getId());
+        }
+    }
+
     public boolean emailExists(String email) {
         if (email == null) return false;
         return accountRepository.findByEmail(email.trim().toLowerCase()).isPresent();
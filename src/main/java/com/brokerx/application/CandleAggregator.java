@@ -0,0 +1,217 @@
+package com.brokerx.application;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+import com.brokerx.application.MarketDataService.MarketDataSnapshot;
+import com.brokerx.domain.money.Money;
+
+/**
+ * OHLC bars and tick counts built incrementally from market data snapshots. Each symbol keeps one ring of
+ * parallel primitive arrays per {@link CandleInterval}: a tick either updates the current bar or
+ * overwrites the oldest slot, so ingestion is O(1) and allocates nothing. Readers use an optimistic
+ * {@link StampedLock} read and retry when a tick raced them; they never take the lock, so a chart poll
+ * cannot delay the feed.
+ */
+public final class CandleAggregator {
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final int capacity;
+    private final Map<String, SymbolCandles> symbols = new ConcurrentHashMap<>();
+
+    public CandleAggregator(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.capacity = capacity;
+    }
+
+    public void record(MarketDataSnapshot snapshot) {
+        SymbolCandles candles = symbols.get(snapshot.symbol());
+        if (candles == null) {
+            candles = symbols.computeIfAbsent(snapshot.symbol(), symbol -> new SymbolCandles(capacity));
+        }
+        candles.record(snapshot.sequence(), snapshot.timestamp().toEpochMilli(), snapshot.priceCents());
+    }
+
+    /** The latest {@code limit} bars of {@code symbol}, oldest first. */
+    public List<Candle> read(String symbol, CandleInterval interval, int limit) {
+        SymbolCandles candles = symbols.get(symbol);
+        if (candles == null || limit <= 0) {
+            return List.of();
+        }
+        return candles.read(interval, Math.min(limit, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        symbols.clear();
+    }
+
+    public enum CandleInterval {
+        ONE_SECOND("1s", 1_000),
+        ONE_MINUTE("1m", 60_000),
+        FIVE_MINUTES("5m", 300_000);
+
+        private final String label;
+        private final long millis;
+
+        CandleInterval(String label, long millis) {
+            this.label = label;
+            this.millis = millis;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public static CandleInterval fromLabel(String label) {
+            for (CandleInterval interval : values()) {
+                if (interval.label.equals(label)) {
+                    return interval;
+                }
+            }
+            throw new IllegalArgumentException("Intervalle invalide (1s, 1m ou 5m): " + label);
+        }
+    }
+
+    public record Candle(Instant start, long openCents, long highCents, long lowCents, long closeCents, int ticks) {
+        public BigDecimal open() {
+            return Money.toDecimal(openCents);
+        }
+
+        public BigDecimal high() {
+            return Money.toDecimal(highCents);
+        }
+
+        public BigDecimal low() {
+            return Money.toDecimal(lowCents);
+        }
+
+        public BigDecimal close() {
+            return Money.toDecimal(closeCents);
+        }
+    }
+
+    private static final class SymbolCandles {
+        private final StampedLock lock = new StampedLock();
+        private final Ring[] rings;
+        private long lastSequence = -1;
+
+        private SymbolCandles(int capacity) {
+            CandleInterval[] intervals = CandleInterval.values();
+            this.rings = new Ring[intervals.length];
+            for (CandleInterval interval : intervals) {
+                rings[interval.ordinal()] = new Ring(interval.millis, capacity);
+            }
+        }
+
+        private void record(long sequence, long epochMillis, long priceCents) {
+            long stamp = lock.writeLock();
+            try {
+                // read-driven prices can be recorded out of order by concurrent readers; keep the newest
+                if (sequence <= lastSequence) {
+                    return;
+                }
+                lastSequence = sequence;
+                for (Ring ring : rings) {
+                    ring.add(epochMillis, priceCents);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private List<Candle> read(CandleInterval interval, int limit) {
+            Ring ring = rings[interval.ordinal()];
+            long[] copy = new long[limit * 5];
+            int[] ticks = new int[limit];
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                int count = ring.copyLatest(limit, copy, ticks);
+                if (stamp != 0 && lock.validate(stamp)) {
+                    List<Candle> candles = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        int base = i * 5;
+                        candles.add(new Candle(Instant.ofEpochMilli(copy[base]), copy[base + 1], copy[base + 2],
+                                copy[base + 3], copy[base + 4], ticks[i]));
+                    }
+                    return candles;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static final class Ring {
+        private final long width;
+        private final int mask;
+        private final long[] start;
+        private final long[] open;
+        private final long[] high;
+        private final long[] low;
+        private final long[] close;
+        private final int[] ticks;
+        private int head;
+        private int size;
+
+        private Ring(long width, int capacity) {
+            this.width = width;
+            this.mask = capacity - 1;
+            this.start = new long[capacity];
+            this.open = new long[capacity];
+            this.high = new long[capacity];
+            this.low = new long[capacity];
+            this.close = new long[capacity];
+            this.ticks = new int[capacity];
+        }
+
+        private void add(long epochMillis, long priceCents) {
+            long bucket = epochMillis - Math.floorMod(epochMillis, width);
+            if (size > 0) {
+                if (bucket == start[head]) {
+                    high[head] = Math.max(high[head], priceCents);
+                    low[head] = Math.min(low[head], priceCents);
+                    close[head] = priceCents;
+                    ticks[head]++;
+                    return;
+                }
+                if (bucket < start[head]) {
+                    return; // older than the current bar
+                }
+                head = (head + 1) & mask;
+            }
+            start[head] = bucket;
+            open[head] = priceCents;
+            high[head] = priceCents;
+            low[head] = priceCents;
+            close[head] = priceCents;
+            ticks[head] = 1;
+            size = Math.min(size + 1, mask + 1);
+        }
+
+        /** Copies the latest bars oldest first; the values may be torn until the caller validates its stamp. */
+        private int copyLatest(int limit, long[] values, int[] tickCounts) {
+            int count = Math.min(limit, size);
+            for (int i = 0; i < count; i++) {
+                int slot = (head - count + 1 + i) & mask;
+                int base = i * 5;
+                values[base] = start[slot];
+                values[base + 1] = open[slot];
+                values[base + 2] = high[slot];
+                values[base + 3] = low[slot];
+                values[base + 4] = close[slot];
+                tickCounts[i] = ticks[slot];
+            }
+            return count;
+        }
+    }
+}
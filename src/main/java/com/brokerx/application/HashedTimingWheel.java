@@ -0,0 +1,118 @@
+package com.brokerx.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: deadlines are rounded up to a tick and hashed into a fixed ring of slots, each
+ * slot holding an intrusive doubly-linked list. Scheduling and cancelling are O(1); advancing visits
+ * only the slots of the elapsed ticks, and entries whose deadline is more than one revolution away
+ * simply stay in their slot until a later pass. Time is passed in by the caller so the wheel itself
+ * owns no thread.
+ */
+public final class HashedTimingWheel<K, V> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Entry<K, V>[] slots;
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(Duration tick, int wheelSize, Instant start) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("tick must be at least one millisecond");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tick.toMillis();
+        this.startMillis = start.toEpochMilli();
+        this.mask = wheelSize - 1;
+        this.slots = (Entry<K, V>[]) new Entry<?, ?>[wheelSize];
+    }
+
+    /** Schedules (or reschedules) {@code key}; a deadline already in the past fires on the next advance. */
+    public synchronized void schedule(K key, V value, Instant deadline) {
+        cancel(key);
+        long elapsed = deadline.toEpochMilli() - startMillis;
+        long deadlineTick = Math.max(Math.floorDiv(elapsed + tickMillis - 1, tickMillis), nextTick);
+        Entry<K, V> entry = new Entry<>(key, value, deadlineTick);
+        int index = (int) (deadlineTick & mask);
+        entry.next = slots[index];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[index] = entry;
+        entries.put(key, entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /** Removes and returns every value whose deadline is at or before {@code now}. */
+    public synchronized List<V> advance(Instant now) {
+        long target = Math.floorDiv(now.toEpochMilli() - startMillis, tickMillis);
+        if (target < nextTick) {
+            return List.of();
+        }
+        List<V> due = new ArrayList<>();
+        // after a long pause one full revolution is enough: every slot gets visited once
+        long from = Math.max(nextTick, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            Entry<K, V> entry = slots[(int) (tick & mask)];
+            while (entry != null) {
+                Entry<K, V> next = entry.next;
+                if (entry.deadlineTick <= target) {
+                    unlink(entry);
+                    entries.remove(entry.key);
+                    due.add(entry.value);
+                }
+                entry = next;
+            }
+        }
+        nextTick = target + 1;
+        return due;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void unlink(Entry<K, V> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[(int) (entry.deadlineTick & mask)] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineTick;
+        private Entry<K, V> prev;
+        private Entry<K, V> next;
+
+        private Entry(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.brokerx.application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.brokerx.domain.order.TradeOrder;
+
+/**
+ * Resting LIMIT orders of a single stock, indexed by limit price in cents with FIFO time priority per level.
+ * A pending order fills once the market trades at or above its limit (see {@link OrderService#placeOrder}),
+ * so a tick only has to visit the levels at or below the traded price.
+ */
+public final class LimitOrderBook {
+    private final UUID stockId;
+    private final NavigableMap<Long, Deque<TradeOrder>> levels = new TreeMap<>();
+    private final Map<UUID, Long> levelByOrder = new HashMap<>();
+
+    public LimitOrderBook(UUID stockId) {
+        this.stockId = Objects.requireNonNull(stockId, "stockId");
+    }
+
+    public UUID stockId() {
+        return stockId;
+    }
+
+    public synchronized boolean add(TradeOrder order) {
+        if (order == null || !order.isPending() || order.limitPrice() == null) {
+            return false;
+        }
+        if (!stockId.equals(order.stockId()) || levelByOrder.containsKey(order.id())) {
+            return false;
+        }
+        long level = order.limitPriceCents();
+        levels.computeIfAbsent(level, price -> new ArrayDeque<>()).addLast(order);
+        levelByOrder.put(order.id(), level);
+        return true;
+    }
+
+    public synchronized boolean remove(UUID orderId) {
+        Long level = levelByOrder.remove(orderId);
+        if (level == null) {
+            return false;
+        }
+        Deque<TradeOrder> queue = levels.get(level);
+        if (queue != null) {
+            queue.removeIf(order -> order.id().equals(orderId));
+            if (queue.isEmpty()) {
+                levels.remove(level);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns every order whose limit is crossed by {@code priceCents}, best level first
+     * and oldest first within a level. Callers own the returned orders and must re-add the ones
+     * they could not process.
+     */
+    public synchronized List<TradeOrder> drainCrossing(long priceCents) {
+        if (levels.isEmpty() || levels.firstKey() > priceCents) {
+            return List.of();
+        }
+        NavigableMap<Long, Deque<TradeOrder>> crossing = levels.headMap(priceCents, true);
+        List<TradeOrder> drained = new ArrayList<>();
+        for (Deque<TradeOrder> queue : crossing.descendingMap().values()) {
+            for (TradeOrder order : queue) {
+                drained.add(order);
+                levelByOrder.remove(order.id());
+            }
+        }
+        crossing.clear();
+        return drained;
+    }
+
+    public synchronized boolean contains(UUID orderId) {
+        return levelByOrder.containsKey(orderId);
+    }
+
+    public synchronized int size() {
+        return levelByOrder.size();
+    }
+
+    public synchronized int depth() {
+        return levels.size();
+    }
+}
@@ -3,45 +3,271 @@ package com.brokerx.application;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import com.brokerx.domain.money.Money;
+import com.brokerx.observability.AppMetrics;
+import com.brokerx.observability.StructuredLogger;
+import com.brokerx.ports.TickSource;
+import com.brokerx.ports.TickSource.RecordedTick;
+
+/**
+ * Synthetic +/-1% random-walk prices. By default a price moves each time it is read through
+ * {@link #tickFor}. Once {@link #startFeed} runs, a scheduled generator moves the seeded symbols at a
+ * fixed rate and pushes every snapshot to the subscribers, and readers only see the latest snapshot.
+ * {@link #startReplay} drives the same path from a recorded session instead of the random walk.
+ *
+ * <p>Each symbol owns an atomic snapshot reference: reads are a plain volatile load and a step is a
+ * compare-and-set, so symbols never contend with each other. The step drawn for a symbol is a SplitMix64
+ * hash of the symbol's seed and the snapshot sequence, which keeps the generator stateless across CAS
+ * retries and makes the price path of a seeded instance reproducible whatever the thread interleaving.
+ */
 public class MarketDataService implements AutoCloseable {
-    private final Random random = new Random();
-    private final Map<String, MarketDataSnapshot> symbolState = new ConcurrentHashMap<>();
+    /** Replay speed that publishes recorded ticks back to back, without waiting for their timestamps. */
+    public static final double AS_FAST_AS_POSSIBLE = 0;
+
+    private static final long PPM = 1_000_000;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final StructuredLogger LOGGER = StructuredLogger.get(MarketDataService.class);
+
+    private final long seed;
+    private final Map<String, SymbolState> symbolState = new ConcurrentHashMap<>();
+    private final List<Consumer<MarketDataSnapshot>> subscribers = new CopyOnWriteArrayList<>();
+    private final CandleAggregator candles = new CandleAggregator(CandleAggregator.DEFAULT_CAPACITY);
+    private volatile ScheduledExecutorService feed;
+
+    public MarketDataService() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /** Deterministic mode: two instances built with the same seed walk every symbol along the same path. */
+    public MarketDataService(long seed) {
+        this.seed = seed;
+    }
 
     public MarketDataSnapshot tickFor(String symbol, BigDecimal referencePrice) {
-        return symbolState.compute(symbol, (sym, snapshot) -> advance(sym, snapshot, referencePrice));
+        SymbolState state = symbolState.get(symbol);
+        if (state == null) {
+            SymbolState created = new SymbolState(symbol, symbolSeed(symbol), referencePrice);
+            state = symbolState.putIfAbsent(symbol, created);
+            if (state == null) {
+                // the first read only registers the reference price, as before
+                return created.current.get();
+            }
+        }
+        if (feed != null) {
+            return state.current.get();
+        }
+        MarketDataSnapshot next = state.advance();
+        candles.record(next);
+        return next;
     }
 
     public BigDecimal latestPrice(String symbol) {
-        return symbolState.compute(symbol, (sym, snapshot) -> snapshot == null ? initial(sym) : snapshot).price();
+        SymbolState state = symbolState.get(symbol);
+        if (state == null) {
+            state = symbolState.computeIfAbsent(symbol, sym -> new SymbolState(sym, symbolSeed(sym), null));
+        }
+        return state.current.get().price();
+    }
+
+    /** Registers a symbol at its last known price; the feed only moves seeded symbols. */
+    public void seed(String symbol, BigDecimal referencePrice) {
+        symbolState.computeIfAbsent(symbol, sym -> new SymbolState(sym, symbolSeed(sym), referencePrice));
+    }
+
+    /** OHLC bars of every price move, whether it came from a read, the feed or a replay. */
+    public CandleAggregator candles() {
+        return candles;
+    }
+
+    public void subscribe(Consumer<MarketDataSnapshot> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public boolean isFeedRunning() {
+        return feed != null;
+    }
+
+    /**
+     * Starts the tick generator: every {@code 1 / ticksPerSecond} second each of the first
+     * {@code symbolCount} seeded symbols (alphabetically; all of them when {@code symbolCount <= 0})
+     * takes one random-walk step, and the new snapshot is handed to every subscriber on the feed thread.
+     */
+    public synchronized void startFeed(int ticksPerSecond, int symbolCount) {
+        if (feed != null) {
+            return;
+        }
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive");
+        }
+        List<String> symbols = new ArrayList<>(symbolState.keySet());
+        symbols.sort(null);
+        if (symbolCount > 0 && symbolCount < symbols.size()) {
+            symbols = symbols.subList(0, symbolCount);
+        }
+        List<String> feedSymbols = List.copyOf(symbols);
+        ScheduledExecutorService executor = newFeedExecutor();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        executor.scheduleAtFixedRate(() -> publishTicks(feedSymbols), periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        feed = executor;
+        LOGGER.info("market_data_feed_started", Map.of(
+                "ticksPerSecond", ticksPerSecond,
+                "symbols", feedSymbols.size()
+        ));
+    }
+
+    /**
+     * Replays recorded ticks instead of the random walk: each tick replaces the symbol's snapshot (keeping
+     * its recorded timestamp) and reaches the subscribers exactly like a generated one. Ticks are spaced
+     * by their recorded gaps divided by {@code speed}, so bursts in the recording stay bursts;
+     * {@link #AS_FAST_AS_POSSIBLE} ignores the gaps. Prices stay at their last replayed value once the
+     * source is exhausted. The returned future completes with the number of ticks published.
+     */
+    public synchronized Future<Long> startReplay(TickSource source, double speed) {
+        if (feed != null) {
+            throw new IllegalStateException("market data feed already running");
+        }
+        ScheduledExecutorService executor = newFeedExecutor();
+        Future<Long> replay = executor.submit(() -> replay(source, speed));
+        feed = executor;
+        LOGGER.info("market_data_replay_started", Map.of("speed", speed));
+        return replay;
+    }
+
+    private long replay(TickSource source, double speed) throws InterruptedException {
+        long published = 0;
+        long startNanos = System.nanoTime();
+        long firstMillis = 0;
+        try (source) {
+            for (RecordedTick tick = source.next(); tick != null; tick = source.next()) {
+                if (published == 0) {
+                    firstMillis = tick.epochMillis();
+                } else if (speed > 0) {
+                    long dueNanos = startNanos
+                            + (long) ((tick.epochMillis() - firstMillis) * 1_000_000L / speed);
+                    TimeUnit.NANOSECONDS.sleep(dueNanos - System.nanoTime());
+                }
+                SymbolState state = symbolState.computeIfAbsent(
+                        tick.symbol(), sym -> new SymbolState(sym, symbolSeed(sym), null));
+                publish(state.set(tick.priceCents(), Instant.ofEpochMilli(tick.epochMillis())));
+                published++;
+            }
+        }
+        LOGGER.info("market_data_replay_finished", Map.of(
+                "ticks", published,
+                "elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+        ));
+        return published;
+    }
+
+    private void publishTicks(List<String> symbols) {
+        for (String symbol : symbols) {
+            publish(symbolState.get(symbol).advance());
+        }
+    }
+
+    private void publish(MarketDataSnapshot snapshot) {
+        AppMetrics.recordMarketTick();
+        candles.record(snapshot);
+        for (Consumer<MarketDataSnapshot> subscriber : subscribers) {
+            try {
+                subscriber.accept(snapshot);
+            } catch (RuntimeException ex) {
+                // a failing subscriber must not stop the feed
+                LOGGER.error("market_data_subscriber_failed", ex, Map.of("symbol", snapshot.symbol()));
+            }
+        }
+    }
+
+    private static ScheduledExecutorService newFeedExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "market-data-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private long symbolSeed(String symbol) {
+        return mix64(seed ^ mix64(symbol.hashCode() * GOLDEN_GAMMA));
     }
 
-    private MarketDataSnapshot initial(String symbol) {
-        BigDecimal base = BigDecimal.valueOf(100 + random.nextInt(200)).setScale(2, RoundingMode.HALF_UP);
-        return new MarketDataSnapshot(symbol, base, Instant.now());
+    /** SplitMix64 finaliser, the mixing function behind {@link SplittableRandom}. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 
-    private MarketDataSnapshot advance(String symbol, MarketDataSnapshot snapshot, BigDecimal referencePrice) {
-        if (snapshot == null) {
-            BigDecimal base = referencePrice != null ? referencePrice.setScale(2, RoundingMode.HALF_UP) : null;
-            if (base == null) {
-                return initial(symbol);
+    private static final class SymbolState {
+        private final String symbol;
+        private final long seed;
+        private final AtomicReference<MarketDataSnapshot> current;
+
+        private SymbolState(String symbol, long seed, BigDecimal referencePrice) {
+            this.symbol = symbol;
+            this.seed = seed;
+            long cents = referencePrice != null
+                    ? Money.fromDecimal(referencePrice)
+                    : Money.ofUnits(100 + Math.floorMod(seed, 200));
+            this.current = new AtomicReference<>(new MarketDataSnapshot(symbol, cents, Instant.now(), 0));
+        }
+
+        private MarketDataSnapshot set(long priceCents, Instant timestamp) {
+            while (true) {
+                MarketDataSnapshot snapshot = current.get();
+                MarketDataSnapshot next = new MarketDataSnapshot(symbol, priceCents, timestamp, snapshot.sequence() + 1);
+                if (current.compareAndSet(snapshot, next)) {
+                    return next;
+                }
+            }
+        }
+
+        private MarketDataSnapshot advance() {
+            while (true) {
+                MarketDataSnapshot snapshot = current.get();
+                long sequence = snapshot.sequence() + 1;
+                double draw = (mix64(seed + sequence * GOLDEN_GAMMA) >>> 11) * 0x1.0p-53;
+                long factorPpm = PPM + Math.round((draw - 0.5) * 0.02 * PPM); // +/-1%
+                long updated = Money.scale(snapshot.priceCents(), factorPpm, PPM, RoundingMode.HALF_UP);
+                MarketDataSnapshot next = new MarketDataSnapshot(
+                        symbol, Math.max(updated, Money.ONE), Instant.now(), sequence);
+                if (current.compareAndSet(snapshot, next)) {
+                    return next;
+                }
             }
-            return new MarketDataSnapshot(symbol, base, Instant.now());
         }
-        double basisPoints = (random.nextDouble() - 0.5) * 0.02; // +/-1%
-        BigDecimal factor = BigDecimal.valueOf(1 + basisPoints);
-        BigDecimal updated = snapshot.price().multiply(factor).max(BigDecimal.valueOf(1)).setScale(2, RoundingMode.HALF_UP);
-        return new MarketDataSnapshot(symbol, updated, Instant.now());
     }
 
     @Override
     public void close() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = feed;
+            feed = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
         symbolState.clear();
+        candles.clear();
     }
 
-    public record MarketDataSnapshot(String symbol, BigDecimal price, Instant timestamp) { }
+    /** {@code sequence} counts the steps taken by the symbol since it was registered. */
+    public record MarketDataSnapshot(String symbol, long priceCents, Instant timestamp, long sequence) {
+        public BigDecimal price() {
+            return Money.toDecimal(priceCents);
+        }
+    }
 }
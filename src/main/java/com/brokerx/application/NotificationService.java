@@ -2,15 +2,23 @@ package com.brokerx.application;
 
 import java.time.Instant;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Per-account ring of the latest {@code capacity} notifications. Each account numbers its notifications
+ * with a sequence that only grows, even across {@link #clear}, so a client that saw sequence {@code n}
+ * resumes with {@link #since} as long as the ring still holds what followed.
+ */
 public class NotificationService {
-    private final Map<UUID, Deque<Notification>> store = new ConcurrentHashMap<>();
+    private final Map<UUID, Feed> store = new ConcurrentHashMap<>();
     private final int capacity;
 
     public NotificationService(int capacity) {
@@ -28,47 +36,126 @@ public class NotificationService {
         Objects.requireNonNull(accountId, "accountId");
         Objects.requireNonNull(category, "category");
         Objects.requireNonNull(message, "message");
-        Notification notification = new Notification(
-                UUID.randomUUID(),
-                accountId,
-                category,
-                message,
-                referenceId,
-                Instant.now(),
-                payload
-        );
-        Deque<Notification> deque = store.computeIfAbsent(accountId, id -> new ArrayDeque<>());
-        synchronized (deque) {
-            deque.addFirst(notification);
-            while (deque.size() > capacity) {
-                deque.removeLast();
+        Feed feed = feed(accountId);
+        Notification notification;
+        synchronized (feed) {
+            notification = new Notification(
+                    UUID.randomUUID(),
+                    ++feed.sequence,
+                    accountId,
+                    category,
+                    message,
+                    referenceId,
+                    Instant.now(),
+                    payload
+            );
+            feed.entries.addFirst(notification);
+            feed.version++;
+            while (feed.entries.size() > capacity) {
+                feed.entries.removeLast();
             }
         }
+        for (Runnable listener : feed.listeners) {
+            listener.run();
+        }
         return notification;
     }
 
+    /** Newest first. */
     public List<Notification> list(UUID accountId) {
-        Deque<Notification> deque = store.get(accountId);
-        if (deque == null) {
+        Feed feed = store.get(accountId);
+        if (feed == null) {
             return List.of();
         }
-        synchronized (deque) {
-            return List.copyOf(deque);
+        synchronized (feed) {
+            return List.copyOf(feed.entries);
+        }
+    }
+
+    /**
+     * Notifications with a sequence above {@code afterSequence}, oldest first. Entries already pushed out
+     * of the ring are lost: the result then starts after a gap.
+     */
+    public List<Notification> since(UUID accountId, long afterSequence) {
+        Feed feed = store.get(accountId);
+        if (feed == null) {
+            return List.of();
+        }
+        synchronized (feed) {
+            if (feed.sequence <= afterSequence) {
+                return List.of();
+            }
+            List<Notification> newer = new ArrayList<>();
+            for (Notification notification : feed.entries) {
+                if (notification.sequence() <= afterSequence) {
+                    break;
+                }
+                newer.add(notification);
+            }
+            Collections.reverse(newer);
+            return newer;
+        }
+    }
+
+    /** Sequence of the last notification published for the account, 0 if none. */
+    public long latestSequence(UUID accountId) {
+        Feed feed = store.get(accountId);
+        if (feed == null) {
+            return 0;
+        }
+        synchronized (feed) {
+            return feed.sequence;
+        }
+    }
+
+    /** Changes whenever {@link #list} would return something else: on every publish and clear. */
+    public long version(UUID accountId) {
+        Feed feed = store.get(accountId);
+        if (feed == null) {
+            return 0;
+        }
+        synchronized (feed) {
+            return feed.version;
+        }
+    }
+
+    /** Runs {@code listener} on the publishing thread after each notification of the account; keep it short. */
+    public void addListener(UUID accountId, Runnable listener) {
+        feed(accountId).listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(UUID accountId, Runnable listener) {
+        Feed feed = store.get(accountId);
+        if (feed != null) {
+            feed.listeners.remove(listener);
         }
     }
 
     public void clear(UUID accountId) {
-        Deque<Notification> deque = store.get(accountId);
-        if (deque == null) {
+        Feed feed = store.get(accountId);
+        if (feed == null) {
             return;
         }
-        synchronized (deque) {
-            deque.clear();
+        synchronized (feed) {
+            feed.entries.clear();
+            feed.version++;
         }
     }
 
+    private Feed feed(UUID accountId) {
+        return store.computeIfAbsent(accountId, id -> new Feed());
+    }
+
+    private static final class Feed {
+        private final Deque<Notification> entries = new ArrayDeque<>();
+        private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+        private long sequence;
+        private long version;
+    }
+
     public record Notification(
             UUID id,
+            long sequence,
             UUID accountId,
             String category,
             String message,
@@ -0,0 +1,152 @@
+package com.brokerx.application;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.brokerx.application.NotificationService.Notification;
+import com.brokerx.observability.AppMetrics;
+
+/**
+ * Streaming subscriptions to the notifications of one account. A subscription is only a cursor on the
+ * account's sequence plus a callback fired on publish: it holds no thread and buffers nothing, the
+ * consumer pulls what follows its cursor from the {@link NotificationService} ring when told to. Every
+ * notification is delivered, there is no conflation; a cursor that fell behind the ring resumes at the
+ * oldest entry still held.
+ */
+public final class NotificationStreamHub implements AutoCloseable {
+    private static final String STREAM = "notifications";
+
+    private final NotificationService notificationService;
+    private final int maxConnections;
+    private final Duration heartbeat;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Set<Subscription> open = ConcurrentHashMap.newKeySet();
+
+    public NotificationStreamHub(NotificationService notificationService, int maxConnections, Duration heartbeat) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        if (heartbeat == null || heartbeat.isNegative() || heartbeat.isZero()) {
+            throw new IllegalArgumentException("heartbeat must be positive");
+        }
+        this.notificationService = Objects.requireNonNull(notificationService, "notificationService");
+        this.maxConnections = maxConnections;
+        this.heartbeat = heartbeat;
+        AppMetrics.trackStreamConnections(STREAM, connections::get);
+    }
+
+    /** Interval after which an idle stream should send a heartbeat frame. */
+    public Duration heartbeat() {
+        return heartbeat;
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * @param lastSequence last sequence the client received, or null to receive only what is published
+     *                     from now on; a value ahead of the account's sequence (the ring was rebuilt by a
+     *                     restart) replays the whole ring
+     * @param onAvailable  called on the publishing thread when notifications follow the cursor, and once
+     *                     more on close; must only schedule the actual {@link Subscription#drain()}
+     * @throws IllegalStateException when {@code maxConnections} streams are already open
+     */
+    public Subscription subscribe(UUID accountId, Long lastSequence, Runnable onAvailable) {
+        Objects.requireNonNull(accountId, "accountId");
+        Objects.requireNonNull(onAvailable, "onAvailable");
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            AppMetrics.recordStreamRejection(STREAM);
+            throw new IllegalStateException("Trop de flux ouverts");
+        }
+        Subscription subscription = new Subscription(accountId, onAvailable);
+        open.add(subscription);
+        // listen before reading the sequence: a concurrent publish is then either below the cursor or signalled
+        notificationService.addListener(accountId, subscription.listener);
+        long latest = notificationService.latestSequence(accountId);
+        if (lastSequence == null) {
+            subscription.cursor = latest;
+        } else {
+            subscription.cursor = lastSequence > latest ? 0 : Math.max(0, lastSequence);
+        }
+        return subscription;
+    }
+
+    /** Closes every open subscription; their consumers see {@link Subscription#isClosed()}. */
+    @Override
+    public void close() {
+        for (Subscription subscription : open) {
+            subscription.close();
+        }
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final UUID accountId;
+        private final Runnable onAvailable;
+        private final Runnable listener;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscription(UUID accountId, Runnable onAvailable) {
+            this.accountId = accountId;
+            this.onAvailable = onAvailable;
+            this.listener = () -> {
+                if (!closed.get()) {
+                    onAvailable.run();
+                }
+            };
+        }
+
+        public UUID accountId() {
+            return accountId;
+        }
+
+        /** Sequence of the last notification handed out by {@link #drain()}. */
+        public long cursor() {
+            return cursor;
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        /**
+         * Notifications published after the cursor, oldest first, and moves the cursor past them. Not
+         * thread-safe: one consumer drains a subscription at a time.
+         */
+        public List<Notification> drain() {
+            if (closed.get()) {
+                return List.of();
+            }
+            long from = cursor;
+            List<Notification> batch = notificationService.since(accountId, from);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            long missed = batch.get(0).sequence() - from - 1;
+            if (missed > 0) {
+                AppMetrics.recordStreamReplayMissed(STREAM, missed);
+            }
+            cursor = batch.get(batch.size() - 1).sequence();
+            return batch;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            notificationService.removeListener(accountId, listener);
+            open.remove(this);
+            connections.decrementAndGet();
+            onAvailable.run();
+        }
+    }
+}
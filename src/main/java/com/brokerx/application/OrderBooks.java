@@ -0,0 +1,103 @@
+package com.brokerx.application;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.brokerx.cache.StockReferenceCache;
+import com.brokerx.domain.order.TradeOrder;
+import com.brokerx.ports.OrderRepository;
+
+/**
+ * Resting limit orders per stock. Books of listed stocks sit in an array addressed by the dense stock
+ * index of {@link StockReferenceCache}; only ids the listing does not know fall back to a map.
+ */
+public final class OrderBooks {
+    private final OrderRepository orderRepository;
+    private final StockReferenceCache stocks;
+    private final Map<UUID, LimitOrderBook> unlisted = new ConcurrentHashMap<>();
+    private volatile LimitOrderBook[] books = new LimitOrderBook[0];
+
+    public OrderBooks(OrderRepository orderRepository, StockReferenceCache stocks) {
+        this.orderRepository = orderRepository;
+        this.stocks = stocks;
+    }
+
+    public LimitOrderBook bookFor(UUID stockId) {
+        int index = stocks.indexOf(stockId);
+        if (index == StockReferenceCache.NOT_FOUND) {
+            return unlisted.computeIfAbsent(stockId, this::load);
+        }
+        return bookAt(index);
+    }
+
+    public LimitOrderBook bookAt(int index) {
+        LimitOrderBook[] current = books;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = books;
+            if (index < current.length && current[index] != null) {
+                return current[index];
+            }
+            LimitOrderBook book = load(stocks.reference(index).id());
+            install(index, book);
+            return book;
+        }
+    }
+
+    public int rebuild(Collection<UUID> stockIds) {
+        int resting = 0;
+        for (UUID stockId : stockIds) {
+            LimitOrderBook book = load(stockId);
+            int index = stocks.indexOf(stockId);
+            if (index == StockReferenceCache.NOT_FOUND) {
+                unlisted.put(stockId, book);
+            } else {
+                synchronized (this) {
+                    install(index, book);
+                }
+            }
+            resting += book.size();
+        }
+        return resting;
+    }
+
+    public void add(TradeOrder order) {
+        bookFor(order.stockId()).add(order);
+    }
+
+    public void remove(UUID stockId, UUID orderId) {
+        LimitOrderBook book = existing(stockId);
+        if (book != null) {
+            book.remove(orderId);
+        }
+    }
+
+    private LimitOrderBook existing(UUID stockId) {
+        int index = stocks.indexOf(stockId);
+        if (index == StockReferenceCache.NOT_FOUND) {
+            return unlisted.get(stockId);
+        }
+        LimitOrderBook[] current = books;
+        return index < current.length ? current[index] : null;
+    }
+
+    /** Copy-on-write: readers see either the old array or the new one, never a half-filled slot. */
+    private void install(int index, LimitOrderBook book) {
+        LimitOrderBook[] next = Arrays.copyOf(books, Math.max(books.length, Math.max(index + 1, stocks.size())));
+        next[index] = book;
+        books = next;
+    }
+
+    private LimitOrderBook load(UUID stockId) {
+        LimitOrderBook book = new LimitOrderBook(stockId);
+        for (TradeOrder pending : orderRepository.findPendingByStock(stockId)) {
+            book.add(pending);
+        }
+        return book;
+    }
+}
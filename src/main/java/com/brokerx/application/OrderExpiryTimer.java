@@ -0,0 +1,50 @@
+package com.brokerx.application;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.brokerx.observability.StructuredLogger;
+
+/**
+ * Drives the order expiry wheel: one daemon thread advancing {@link OrderService#expireDueOrders}
+ * once per {@link OrderService#EXPIRY_TICK}. The per-tick cost is proportional to the orders that
+ * actually expire, not to the number of resting orders.
+ */
+public final class OrderExpiryTimer implements AutoCloseable {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(OrderExpiryTimer.class);
+
+    private final OrderService orderService;
+    private final ScheduledExecutorService executor;
+
+    public OrderExpiryTimer(OrderService orderService) {
+        this.orderService = orderService;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public OrderExpiryTimer start() {
+        long tickMillis = OrderService.EXPIRY_TICK.toMillis();
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private void tick() {
+        try {
+            orderService.expireDueOrders(Instant.now());
+        } catch (RuntimeException ex) {
+            // an exception would cancel the periodic task; log and keep ticking
+            LOGGER.error("order_expiry_tick_failed", ex, Map.of());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,216 @@
+package com.brokerx.application;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.brokerx.observability.AppMetrics;
+import com.brokerx.observability.StructuredLogger;
+
+/**
+ * Single-writer event loops partitioned by symbol. Every command for a given symbol runs on the
+ * thread owning its partition, in arrival order, so order placement, cancellations and tick matching
+ * for one symbol never interleave. Each partition drains a bounded array ring buffer; producers block
+ * when it is full. {@link #submit} waits a bounded time for its command: a command that has not started
+ * by then is dropped, so the caller's error means it never ran.
+ */
+public final class OrderSequencer implements AutoCloseable {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(OrderSequencer.class);
+    private static final Duration DEFAULT_SUBMIT_TIMEOUT = Duration.ofSeconds(30);
+    /** Queued by {@link #close()} behind the accepted commands; a partition stops when it takes it. */
+    private static final Runnable STOP = () -> { };
+
+    private final Partition[] partitions;
+    private final long submitTimeoutNanos;
+
+    public OrderSequencer(int partitionCount, int capacity) {
+        this(partitionCount, capacity, DEFAULT_SUBMIT_TIMEOUT);
+    }
+
+    public OrderSequencer(int partitionCount, int capacity, Duration submitTimeout) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (submitTimeout.isNegative() || submitTimeout.isZero()) {
+            throw new IllegalArgumentException("submitTimeout must be positive");
+        }
+        this.submitTimeoutNanos = submitTimeout.toNanos();
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            Partition partition = new Partition(i, capacity);
+            partitions[i] = partition;
+            AppMetrics.trackQueueDepth("order_sequencer_" + i, partition.ring::size);
+            partition.thread.start();
+        }
+        LOGGER.info("order_sequencer_started", Map.of(
+                "partitions", partitionCount,
+                "capacity", capacity,
+                "submitTimeoutMs", submitTimeout.toMillis()
+        ));
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    public int partitionOf(String symbol) {
+        int hash = symbol.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitions.length);
+    }
+
+    /**
+     * Runs {@code command} on the partition owning {@code symbol} and waits for its result.
+     * Exceptions thrown by the command are rethrown to the caller unchanged.
+     */
+    public <T> T submit(String symbol, Supplier<T> command) {
+        Partition partition = partitions[partitionOf(symbol)];
+        if (Thread.currentThread() == partition.thread) {
+            return command.get();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        partition.enqueue(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return; // the caller gave up waiting
+            }
+            try {
+                future.complete(command.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        try {
+            return future.get(submitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            throw abandoned(partition, claimed, "Order command timed out on the sequencer");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw abandoned(partition, claimed, "Interrupted while waiting for order command");
+        }
+    }
+
+    private static IllegalStateException abandoned(Partition partition, AtomicBoolean claimed, String message) {
+        boolean started = !claimed.compareAndSet(false, true);
+        LOGGER.warn("order_sequencer_submit_abandoned", Map.of(
+                "partition", partition.index,
+                "started", started,
+                "queued", partition.ring.size()
+        ));
+        // not started: it never will, the caller can safely retry; started: its outcome is unknown
+        return new IllegalStateException(started ? message + " (still running)" : message + " (not executed)");
+    }
+
+    /**
+     * Queues {@code command} on the partition owning {@code symbol} without waiting for it.
+     */
+    public void execute(String symbol, Runnable command) {
+        Partition partition = partitions[partitionOf(symbol)];
+        if (Thread.currentThread() == partition.thread) {
+            command.run();
+            return;
+        }
+        partition.enqueue(() -> {
+            try {
+                command.run();
+            } catch (RuntimeException ex) {
+                LOGGER.error("order_sequencer_task_failed", ex, Map.of(
+                        "symbol", symbol,
+                        "partition", partition.index
+                ));
+            }
+        });
+    }
+
+    /**
+     * Stops accepting commands, lets every partition run what it already accepted and waits for it.
+     * Partition threads are not interrupted: one may be inside an order transaction.
+     */
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+        try {
+            for (Partition partition : partitions) {
+                partition.ring.put(STOP);
+            }
+            for (Partition partition : partitions) {
+                partition.thread.join(1_000);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Partition implements Runnable {
+        private final int index;
+        private final BlockingQueue<Runnable> ring;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.ring = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "order-sequencer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void enqueue(Runnable task) {
+            if (!running) {
+                throw new IllegalStateException("Order sequencer is stopped");
+            }
+            try {
+                ring.put(task);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queuing order command", ex);
+            }
+            // close() may have run since the check above and this partition may already be gone: if the
+            // task is still queued, take it back and fail instead of leaving the caller waiting
+            if (!running && ring.remove(task)) {
+                throw new IllegalStateException("Order sequencer is stopped");
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                try {
+                    task = ring.take();
+                } catch (InterruptedException ex) {
+                    // only close() stops a partition, through STOP
+                    continue;
+                }
+                if (task == STOP) {
+                    break;
+                }
+                task.run();
+            }
+            // commands that raced close() and were not taken back by their producer
+            Runnable remaining;
+            while ((remaining = ring.poll()) != null) {
+                remaining.run();
+            }
+        }
+    }
+}
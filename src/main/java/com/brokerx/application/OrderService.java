@@ -2,22 +2,33 @@ package com.brokerx.application;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import com.brokerx.application.MarketDataService.MarketDataSnapshot;
-import com.brokerx.domain.account.AccountState;
+import com.brokerx.cache.StockReferenceCache;
+import com.brokerx.cache.VersionedOrderRepository;
+import com.brokerx.domain.money.Money;
 import com.brokerx.domain.order.OrderAuditEntry;
 import com.brokerx.domain.order.OrderSide;
 import com.brokerx.domain.order.OrderStatus;
 import com.brokerx.domain.order.OrderType;
+import com.brokerx.domain.order.TimeInForce;
 import com.brokerx.domain.order.TradeOrder;
 import com.brokerx.domain.position.Position;
 import com.brokerx.domain.stock.Stock;
+import com.brokerx.domain.stock.StockReference;
+import com.brokerx.domain.wallet.Wallet;
 import com.brokerx.observability.AppMetrics;
 import com.brokerx.observability.StructuredLogger;
 import com.brokerx.ports.OrderAuditRepository;
@@ -27,15 +38,24 @@ import com.brokerx.ports.StockRepository;
 import com.brokerx.ports.TransactionManager;
 
 public class OrderService {
+    /** Resolution of the expiry wheel; DAY and GTD orders expire at most one tick late. */
+    public static final Duration EXPIRY_TICK = Duration.ofSeconds(1);
+    private static final int EXPIRY_WHEEL_SLOTS = 4096;
+    private static final int EXPIRY_BATCH = 500;
+
     private final AuthService authService;
     private final WalletService walletService;
     private final MarketDataService marketDataService;
     private final OrderRepository orderRepository;
-    private final StockRepository stockRepository;
+    private final StockReferenceCache stocks;
     private final PositionRepository positionRepository;
-    private final OrderAuditRepository orderAuditRepository;
-    private final NotificationService notificationService;
     private final TransactionManager transactionManager;
+    private final PostTradePipeline postTrade;
+    private final OrderBooks orderBooks;
+    private final OrderSequencer sequencer;
+    private final TradingSession tradingSession;
+    private final boolean batchFill;
+    private final HashedTimingWheel<UUID, TradeOrder> expiryWheel;
     private final StructuredLogger logger;
 
     public OrderService(
@@ -48,19 +68,75 @@ public class OrderService {
             OrderAuditRepository orderAuditRepository,
             NotificationService notificationService,
             TransactionManager transactionManager
+    ) {
+        this(authService, walletService, marketDataService, orderRepository, stockRepository, positionRepository,
+                orderAuditRepository, notificationService, transactionManager, null, false, null);
+    }
+
+    public OrderService(
+            AuthService authService,
+            WalletService walletService,
+            MarketDataService marketDataService,
+            OrderRepository orderRepository,
+            StockRepository stockRepository,
+            PositionRepository positionRepository,
+            OrderAuditRepository orderAuditRepository,
+            NotificationService notificationService,
+            TransactionManager transactionManager,
+            OrderSequencer sequencer,
+            boolean batchFill,
+            PostTradePipeline postTrade
+    ) {
+        this(authService, walletService, marketDataService, orderRepository, stockRepository, positionRepository,
+                orderAuditRepository, notificationService, transactionManager, sequencer, batchFill, postTrade,
+                TradingSession.DEFAULT);
+    }
+
+    public OrderService(
+            AuthService authService,
+            WalletService walletService,
+            MarketDataService marketDataService,
+            OrderRepository orderRepository,
+            StockRepository stockRepository,
+            PositionRepository positionRepository,
+            OrderAuditRepository orderAuditRepository,
+            NotificationService notificationService,
+            TransactionManager transactionManager,
+            OrderSequencer sequencer,
+            boolean batchFill,
+            PostTradePipeline postTrade,
+            TradingSession tradingSession
     ) {
         this.authService = authService;
         this.walletService = walletService;
         this.marketDataService = marketDataService;
         this.orderRepository = orderRepository;
-        this.stockRepository = stockRepository;
+        this.stocks = StockReferenceCache.wrap(stockRepository);
         this.positionRepository = positionRepository;
-        this.orderAuditRepository = orderAuditRepository;
-        this.notificationService = notificationService;
         this.transactionManager = transactionManager;
+        this.postTrade = postTrade != null ? postTrade : new PostTradePipeline(orderAuditRepository, notificationService);
+        this.orderBooks = new OrderBooks(orderRepository, stocks);
+        this.sequencer = sequencer;
+        this.batchFill = batchFill;
+        this.tradingSession = Objects.requireNonNull(tradingSession, "tradingSession");
+        this.expiryWheel = new HashedTimingWheel<>(EXPIRY_TICK, EXPIRY_WHEEL_SLOTS, Instant.now());
         this.logger = StructuredLogger.get(OrderService.class);
     }
 
+    public void warmUpOrderBooks() {
+        List<UUID> stockIds = stocks.findAll().stream()
+                .map(Stock::getId)
+                .toList();
+        int resting = orderBooks.rebuild(stockIds);
+        List<TradeOrder> expiring = orderRepository.findPendingWithExpiry();
+        expiring.forEach(this::scheduleExpiry);
+        logger.info("order_books_loaded", Map.of(
+                "stocks", stockIds.size(),
+                "restingOrders", resting,
+                "expiringOrders", expiring.size()
+        ));
+    }
+
     public OrderResult placeOrder(UUID accountId, OrderCommand command) {
         Objects.requireNonNull(accountId, "accountId");
         Objects.requireNonNull(command, "command");
@@ -72,15 +148,30 @@ public class OrderService {
         }
         OrderType type = parseType(command.type());
         int quantity = parseQuantity(command.quantity());
-        BigDecimal limitPrice = type == OrderType.LIMIT ? parseLimitPrice(command.limitPrice()) : null;
+        long limitCents = type == OrderType.LIMIT ? parseLimitPrice(command.limitPrice()) : Money.ZERO;
+        TimeInForce timeInForce = type == OrderType.LIMIT ? parseTimeInForce(command.timeInForce()) : TimeInForce.GTC;
+        Instant expiresAt = resolveExpiry(timeInForce, command.expiresAt(), Instant.now());
+        OrderTerms terms = new OrderTerms(side, type, quantity, limitCents, timeInForce, expiresAt);
+
+        if (sequencer != null) {
+            return sequencer.submit(symbol, () -> executePlacement(accountId, command, symbol, terms));
+        }
+        return executePlacement(accountId, command, symbol, terms);
+    }
 
-        Stock[] stockRef = new Stock[1];
+    private OrderResult executePlacement(UUID accountId, OrderCommand command, String symbol, OrderTerms terms) {
+        OrderSide side = terms.side();
+        OrderType type = terms.type();
+        int quantity = terms.quantity();
+        long limitCents = terms.limitCents();
+        StockReference[] stockRef = new StockReference[1];
         MarketDataSnapshot[] snapshotRef = new MarketDataSnapshot[1];
+        TradeOrder[] restingRef = new TradeOrder[1];
 
         OrderResult result = transactionManager.inTransaction(() -> {
-            var account = authService.findAccount(accountId)
+            var account = authService.findAccountStatus(accountId)
                     .orElseThrow(() -> new IllegalArgumentException("Account not found"));
-            if (account.getState() != AccountState.ACTIVE) {
+            if (!account.isActive()) {
                 throw new IllegalStateException("Account is not active");
             }
 
@@ -91,39 +182,57 @@ public class OrderService {
                 }
             }
 
-            Stock stock = stockRepository.findBySymbol(symbol)
+            StockReference stock = stocks.resolve(symbol)
                     .orElseThrow(() -> new IllegalArgumentException("Symbole inconnu: " + symbol));
             stockRef[0] = stock;
 
-            MarketDataSnapshot snapshot = marketDataService.tickFor(stock.getSymbol(), stock.getLastPrice());
+            // the market data service holds the authoritative price; the stocks row is only written by the
+            // price write-behind, so concurrent orders on one symbol share no row lock
+            MarketDataSnapshot snapshot = marketDataService.tickFor(stock.symbol(), stock.listedPrice());
             snapshotRef[0] = snapshot;
-            stock.updatePrice(snapshot.price(), snapshot.timestamp());
-            stockRepository.updatePrice(stock.getId(), stock);
 
-            runPreTradeChecks(accountId, type, quantity, limitPrice, snapshot.price());
+            long reserved = runPreTradeChecks(accountId, type, quantity, limitCents, snapshot.priceCents());
 
             if (type == OrderType.MARKET) {
-                return placeImmediateExecution(accountId, stock, side, type, quantity, command.clientOrderId(), null, snapshot);
+                return placeImmediateExecution(accountId, stock, side, type, quantity, command.clientOrderId(), null, snapshot, reserved);
             }
 
-            BigDecimal reservedNotional = limitPrice
-                    .multiply(BigDecimal.valueOf(quantity))
-                    .setScale(2, RoundingMode.HALF_UP);
-            BigDecimal lastPrice = scale(snapshot.price());
-            if (lastPrice.compareTo(limitPrice) >= 0) {
-                return placeImmediateExecution(accountId, stock, side, type, quantity, command.clientOrderId(), limitPrice, snapshot);
+            BigDecimal limitPrice = Money.toDecimal(limitCents);
+            if (snapshot.priceCents() >= limitCents) {
+                return placeImmediateExecution(accountId, stock, side, type, quantity, command.clientOrderId(), limitPrice, snapshot, reserved);
             }
 
-            return placePendingLimit(accountId, stock, side, quantity, command.clientOrderId(), limitPrice, reservedNotional);
+            if (terms.timeInForce() == TimeInForce.IOC) {
+                return cancelUnfilledIoc(accountId, stock, command.clientOrderId(), terms, reserved);
+            }
+
+            TradeOrder pending = placePendingLimit(accountId, stock, command.clientOrderId(), terms, reserved);
+            restingRef[0] = pending;
+            return toResult(pending);
         });
 
+        if (restingRef[0] != null) {
+            orderBooks.add(restingRef[0]);
+            scheduleExpiry(restingRef[0]);
+        }
         if (stockRef[0] != null && snapshotRef[0] != null) {
-            onMarketTick(stockRef[0].getId(), stockRef[0].getSymbol(), snapshotRef[0].price(), snapshotRef[0].timestamp());
+            onMarketTick(stockRef[0].id(), stockRef[0].symbol(), snapshotRef[0].price(), snapshotRef[0].timestamp());
         }
 
         return result;
     }
 
+    /**
+     * Version of the account's order list, changed by every order write of this process; empty when the
+     * repository is not a {@link VersionedOrderRepository}, or orders are written elsewhere too.
+     */
+    public OptionalLong ordersVersion(UUID accountId) {
+        if (orderRepository instanceof VersionedOrderRepository versioned) {
+            return OptionalLong.of(versioned.version(accountId));
+        }
+        return OptionalLong.empty();
+    }
+
     public List<OrderResult> listOrders(UUID accountId) {
         return orderRepository.findByAccount(accountId).stream()
                 .map(this::toResult)
@@ -134,7 +243,17 @@ public class OrderService {
         Objects.requireNonNull(accountId, "accountId");
         Objects.requireNonNull(orderId, "orderId");
 
-        return transactionManager.inTransaction(() -> {
+        if (sequencer != null) {
+            String symbol = orderRepository.findById(orderId)
+                    .map(TradeOrder::symbol)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+            return sequencer.submit(symbol, () -> executeCancel(accountId, orderId));
+        }
+        return executeCancel(accountId, orderId);
+    }
+
+    private OrderResult executeCancel(UUID accountId, UUID orderId) {
+        OrderResult result = transactionManager.inTransaction(() -> {
             TradeOrder order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new IllegalArgumentException("Order not found"));
             if (!order.accountId().equals(accountId)) {
@@ -143,72 +262,216 @@ public class OrderService {
             if (!order.isPending()) {
                 throw new IllegalStateException("Only pending orders can be cancelled");
             }
-            if (order.notional() != null && order.notional().signum() > 0) {
-                walletService.refund(accountId, order.notional());
+            if (order.notionalCents() > 0) {
+                walletService.release(accountId, order.notionalCents());
             }
             TradeOrder cancelled = order.cancel(Instant.now(), "Annule par le client");
             orderRepository.update(cancelled);
-            audit(cancelled, "ORDER_CANCELLED", "\"reason\":\"CLIENT_REQUEST\"");
             AppMetrics.recordOrder(cancelled.type().name(), cancelled.status().name());
-            notifyOrder(cancelled, "ORDER_CANCELLED",
+            publishPostTrade(cancelled, "ORDER_CANCELLED", "\"reason\":\"CLIENT_REQUEST\"",
                     "Ordre %s annule".formatted(cancelled.symbol()),
                     "{\"status\":\"CANCELLED\"}");
             return toResult(cancelled);
         });
+        orderBooks.remove(result.stockId(), result.orderId());
+        expiryWheel.cancel(result.orderId());
+        return result;
     }
 
     public void onMarketTick(UUID stockId, String symbol, BigDecimal price, Instant timestamp) {
-        List<TradeOrder> pendingOrders = orderRepository.findPendingByStock(stockId);
-        if (pendingOrders.isEmpty()) {
+        if (sequencer != null && symbol != null) {
+            sequencer.execute(symbol, () -> matchCrossingOrders(stockId, price, timestamp));
             return;
         }
-        BigDecimal scaledPrice = scale(price);
+        matchCrossingOrders(stockId, price, timestamp);
+    }
+
+    private void matchCrossingOrders(UUID stockId, BigDecimal price, Instant timestamp) {
+        long priceCents = Money.fromDecimal(price);
+        LimitOrderBook book = orderBooks.bookFor(stockId);
+        List<TradeOrder> crossing = book.drainCrossing(priceCents);
+        if (crossing.isEmpty()) {
+            return;
+        }
+        for (TradeOrder order : crossing) {
+            expiryWheel.cancel(order.id());
+        }
         Instant effectiveTimestamp = timestamp != null ? timestamp : Instant.now();
+        if (batchFill) {
+            fillCrossingInBatch(book, stockId, crossing, priceCents, effectiveTimestamp);
+            return;
+        }
 
-        for (TradeOrder pending : pendingOrders) {
-            BigDecimal limit = pending.limitPrice();
-            if (limit == null) {
-                continue;
+        for (TradeOrder pending : crossing) {
+            try {
+                transactionManager.inTransaction(() -> {
+                    processPendingOrder(pending.id(), priceCents, effectiveTimestamp);
+                    return null;
+                });
+            } catch (RuntimeException ex) {
+                // business failures are handled inside processPendingOrder (audit + wallet refunds);
+                // reaching this point means the transaction rolled back and the order is still resting
+                returnToBook(book, pending);
             }
-            if (scaledPrice.compareTo(limit) >= 0) {
+        }
+    }
+
+    /**
+     * Fills every crossing order of a stock in one transaction: a single claim query, then wallet,
+     * order, position and audit writes as JDBC batches. If the batch fails it is rolled back to its
+     * savepoint and the orders are replayed one by one, each behind its own savepoint, so a bad order
+     * cannot sink the others.
+     */
+    private void fillCrossingInBatch(LimitOrderBook book,
+                                     UUID stockId,
+                                     List<TradeOrder> drained,
+                                     long executionPrice,
+                                     Instant executedAt) {
+        try {
+            transactionManager.inTransaction(() -> {
+                List<TradeOrder> claimed = orderRepository.claimCrossing(stockId, Money.toDecimal(executionPrice));
+                if (claimed.isEmpty()) {
+                    return null;
+                }
                 try {
-                    transactionManager.inTransaction(() -> {
-                        processPendingOrder(pending.id(), scaledPrice, effectiveTimestamp);
-                        return null;
-                    });
-                } catch (RuntimeException ignored) {
-                    // any failure is handled inside processPendingOrder (audit + wallet refunds)
+                    List<TradeOrder> filled = transactionManager.inSavepoint(
+                            () -> applyBatchFill(claimed, executionPrice, executedAt));
+                    for (TradeOrder order : filled) {
+                        AppMetrics.recordOrder(order.type().name(), order.status().name());
+                    }
+                } catch (RuntimeException ex) {
+                    logger.warn("order_batch_fill_fallback", Map.of(
+                            "stockId", stockId.toString(),
+                            "orders", claimed.size(),
+                            "error", String.valueOf(ex.getMessage())
+                    ));
+                    for (TradeOrder pending : claimed) {
+                        try {
+                            transactionManager.inSavepoint(() -> {
+                                processPendingOrder(pending.id(), executionPrice, executedAt);
+                                return null;
+                            });
+                        } catch (RuntimeException orderEx) {
+                            returnToBook(book, pending);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.error("order_batch_fill_failed", ex, Map.of(
+                    "stockId", stockId.toString(),
+                    "orders", drained.size()
+            ));
+            drained.forEach(order -> returnToBook(book, order));
+        }
+    }
+
+    /**
+     * Applies the same rules as {@link #processPendingOrder} to a set of claimed orders, in priority
+     * order, and writes the outcome with one batch per table. Returns the updated orders.
+     */
+    private List<TradeOrder> applyBatchFill(List<TradeOrder> claimed, long executionPrice, Instant executedAt) {
+        List<UUID> owners = claimed.stream().map(TradeOrder::accountId).distinct().toList();
+        Map<UUID, Wallet> wallets = walletService.lockWallets(owners);
+        Map<UUID, Position> positions = new HashMap<>(positionRepository.findByStock(claimed.get(0).stockId(), owners));
+        Map<UUID, Wallet> touchedWallets = new LinkedHashMap<>();
+        Map<UUID, Position> touchedPositions = new LinkedHashMap<>();
+        List<TradeOrder> updates = new ArrayList<>(claimed.size());
+
+        for (TradeOrder current : claimed) {
+            long reserved = current.notionalCents();
+            long actual = Money.times(executionPrice, current.quantity());
+            long difference = Money.subtract(actual, reserved);
+            Wallet wallet = wallets.get(current.accountId());
+            boolean settled = false;
+            try {
+                if (wallet == null) {
+                    throw new IllegalArgumentException("Wallet not found for account " + current.accountId());
+                }
+                TradeOrder completed = current.complete(executionPrice, executedAt);
+                Position position = positions.getOrDefault(completed.accountId(),
+                                Position.empty(completed.accountId(), completed.stockId()))
+                        .withFill(executionPrice, completed.quantity(), completed.executedAt());
+                if (difference > 0) {
+                    wallet.debit(difference);
+                } else if (difference < 0) {
+                    wallet.credit(-difference);
                 }
+                settled = true;
+                String attributes = buildFillAuditAttributes(actual, executionPrice, current.limitPrice());
+                publishPostTrade(completed, "ORDER_COMPLETED", attributes,
+                        "Ordre %s rempli (%d)".formatted(completed.symbol(), completed.quantity()),
+                        "{" + attributes + "}");
+                touchedWallets.put(wallet.getOwnerId(), wallet);
+                updates.add(completed);
+                positions.put(completed.accountId(), position);
+                touchedPositions.put(completed.accountId(), position);
+            } catch (RuntimeException ex) {
+                // same outcome as processPendingOrder: the whole reservation goes back, plus any difference
+                // already settled on the wallet
+                long refund = reserved + (settled ? difference : 0);
+                if (wallet != null && refund > 0) {
+                    wallet.credit(refund);
+                    touchedWallets.put(wallet.getOwnerId(), wallet);
+                }
+                TradeOrder failed = current.fail(ex.getMessage(), executionPrice, executedAt);
+                updates.add(failed);
+                String reason = "\"reason\":\"" + escape(ex.getMessage()) + "\"";
+                publishPostTrade(failed, "ORDER_FAILED", reason,
+                        "Ordre %s echoue".formatted(failed.symbol()),
+                        "{" + reason + "}");
             }
         }
+
+        // the wallets are copies until here; they are written last so that a batch failing on the orders
+        // or positions leaves the balances untouched even where the savepoint cannot roll back (in memory)
+        orderRepository.updateAll(updates);
+        positionRepository.upsertAll(touchedPositions.values());
+        walletService.saveAll(touchedWallets.values());
+        logger.info("order_batch_filled", Map.of(
+                "stockId", claimed.get(0).stockId().toString(),
+                "orders", claimed.size(),
+                "fillPrice", Money.format(executionPrice)
+        ));
+        return updates;
     }
 
     private OrderResult placeImmediateExecution(
             UUID accountId,
-            Stock stock,
+            StockReference stock,
             OrderSide side,
             OrderType type,
             int quantity,
             String clientOrderId,
             BigDecimal limitPrice,
-            MarketDataSnapshot snapshot
+            MarketDataSnapshot snapshot,
+            long reservedCents
     ) {
-        BigDecimal executionPrice = scale(snapshot.price());
-        BigDecimal notional = executionPrice
-                .multiply(BigDecimal.valueOf(quantity))
-                .setScale(2, RoundingMode.HALF_UP);
+        long executionCents = snapshot.priceCents();
+        long notionalCents = Money.times(executionCents, quantity);
+        BigDecimal executionPrice = Money.toDecimal(executionCents);
+        BigDecimal notional = Money.toDecimal(notionalCents);
         Instant now = Instant.now();
         Instant executedAt = snapshot.timestamp() != null ? snapshot.timestamp() : now;
         UUID orderId = UUID.randomUUID();
 
         TradeOrder order;
+        long held = reservedCents;
         try {
-            walletService.debit(accountId, notional);
+            // a LIMIT that crosses on arrival reserved its limit notional; settle the gap to the fill price
+            long difference = Money.subtract(notionalCents, reservedCents);
+            if (difference > 0) {
+                walletService.reserve(accountId, difference);
+            } else if (difference < 0) {
+                walletService.release(accountId, -difference);
+            }
+            held = notionalCents;
             order = new TradeOrder(
                     orderId,
                     accountId,
-                    stock.getId(),
-                    stock.getSymbol(),
+                    stock.id(),
+                    stock.symbol(),
                     side,
                     type,
                     quantity,
@@ -224,18 +487,18 @@ public class OrderService {
             );
             orderRepository.save(order);
             AppMetrics.recordOrder(order.type().name(), order.status().name());
-            applyPositionFill(order);
-            String attributes = buildFillAuditAttributes(notional, executionPrice, limitPrice);
-            audit(order, "ORDER_COMPLETED", attributes);
-            notifyOrder(order, "ORDER_COMPLETED",
+            applyPositionFill(order, executionCents);
+            String attributes = buildFillAuditAttributes(notionalCents, executionCents, limitPrice);
+            publishPostTrade(order, "ORDER_COMPLETED", attributes,
                     "Ordre %s rempli (%d)".formatted(order.symbol(), order.quantity()),
                     "{" + attributes + "}");
         } catch (IllegalArgumentException ex) {
+            walletService.release(accountId, held);
             order = new TradeOrder(
                     orderId,
                     accountId,
-                    stock.getId(),
-                    stock.getSymbol(),
+                    stock.id(),
+                    stock.symbol(),
                     side,
                     type,
                     quantity,
@@ -252,45 +515,131 @@ public class OrderService {
             orderRepository.save(order);
             AppMetrics.recordOrder(order.type().name(), order.status().name());
             String reason = "\"reason\":\"" + escape(ex.getMessage()) + "\"";
-            audit(order, "ORDER_FAILED", reason);
-            notifyOrder(order, "ORDER_FAILED",
+            publishPostTrade(order, "ORDER_FAILED", reason,
                     "Ordre %s echoue".formatted(order.symbol()),
                     "{" + reason + "}");
         }
         return toResult(order);
     }
 
-    private OrderResult placePendingLimit(
+    private TradeOrder placePendingLimit(
             UUID accountId,
-            Stock stock,
-            OrderSide side,
-            int quantity,
+            StockReference stock,
             String clientOrderId,
-            BigDecimal limitPrice,
-            BigDecimal reservedNotional
+            OrderTerms terms,
+            long reservedNotional
     ) {
-        walletService.debit(accountId, reservedNotional);
-        TradeOrder pending = createPendingLimit(
-                accountId,
-                stock,
-                side,
-                quantity,
-                clientOrderId,
-                limitPrice,
-                reservedNotional
-        );
+        TradeOrder pending = createPendingLimit(accountId, stock, clientOrderId, terms, reservedNotional);
         orderRepository.save(pending);
-        String auditPayload = "\"limitPrice\":%s,\"reservedNotional\":%s"
-                .formatted(limitPrice.toPlainString(), reservedNotional.toPlainString());
+        String auditPayload = "\"limitPrice\":%s,\"reservedNotional\":%s,\"timeInForce\":\"%s\""
+                .formatted(Money.format(terms.limitCents()), Money.format(reservedNotional), terms.timeInForce());
         AppMetrics.recordOrder(pending.type().name(), pending.status().name());
-        audit(pending, "ORDER_PENDING", auditPayload);
-        notifyOrder(pending, "ORDER_PENDING",
+        publishPostTrade(pending, "ORDER_PENDING", auditPayload,
                 "Ordre %s en attente".formatted(pending.symbol()),
                 "{" + auditPayload + "}");
-        return toResult(pending);
+        return pending;
+    }
+
+    /**
+     * An IOC limit that does not cross on arrival never rests: its reservation is released and the
+     * order is recorded as cancelled.
+     */
+    private OrderResult cancelUnfilledIoc(UUID accountId,
+                                          StockReference stock,
+                                          String clientOrderId,
+                                          OrderTerms terms,
+                                          long reservedNotional) {
+        walletService.release(accountId, reservedNotional);
+        TradeOrder cancelled = createPendingLimit(accountId, stock, clientOrderId, terms, reservedNotional)
+                .cancel(Instant.now(), "IOC non execute au prix limite");
+        orderRepository.save(cancelled);
+        AppMetrics.recordOrder(cancelled.type().name(), cancelled.status().name());
+        publishPostTrade(cancelled, "ORDER_CANCELLED", "\"reason\":\"IOC_NOT_FILLED\"",
+                "Ordre %s annule (IOC)".formatted(cancelled.symbol()),
+                "{\"status\":\"CANCELLED\"}");
+        return toResult(cancelled);
+    }
+
+    /**
+     * Expires the DAY and GTD orders whose deadline has passed, as reported by the expiry wheel.
+     * Orders are grouped by symbol so each group runs on its sequencer partition, and each chunk of
+     * {@value #EXPIRY_BATCH} orders is expired in one transaction with a single batched refund.
+     * Returns the number of orders taken off the wheel.
+     */
+    public int expireDueOrders(Instant now) {
+        List<TradeOrder> due = expiryWheel.advance(now);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<TradeOrder>> bySymbol = new LinkedHashMap<>();
+        for (TradeOrder order : due) {
+            bySymbol.computeIfAbsent(order.symbol(), symbol -> new ArrayList<>()).add(order);
+        }
+        bySymbol.forEach((symbol, orders) -> {
+            for (int from = 0; from < orders.size(); from += EXPIRY_BATCH) {
+                List<TradeOrder> chunk = orders.subList(from, Math.min(orders.size(), from + EXPIRY_BATCH));
+                if (sequencer != null) {
+                    sequencer.execute(symbol, () -> expireOrders(chunk, now));
+                } else {
+                    expireOrders(chunk, now);
+                }
+            }
+        });
+        return due.size();
     }
 
-    private void processPendingOrder(UUID orderId, BigDecimal executionPrice, Instant executedAt) {
+    private void expireOrders(List<TradeOrder> due, Instant now) {
+        List<UUID> ids = due.stream().map(TradeOrder::id).toList();
+        List<TradeOrder> expired;
+        try {
+            expired = transactionManager.inTransaction(() -> {
+                List<TradeOrder> pending = orderRepository.lockPending(ids);
+                List<TradeOrder> updates = new ArrayList<>(pending.size());
+                Map<UUID, Long> refunds = new HashMap<>();
+                for (TradeOrder order : pending) {
+                    TradeOrder expiredOrder = order.expire(now);
+                    updates.add(expiredOrder);
+                    if (order.notionalCents() > 0) {
+                        refunds.merge(order.accountId(), order.notionalCents(), Money::add);
+                    }
+                    String attributes = "\"timeInForce\":\"%s\",\"released\":%s"
+                            .formatted(order.timeInForce(), Money.format(order.notionalCents()));
+                    publishPostTrade(expiredOrder, "ORDER_EXPIRED", attributes,
+                            "Ordre %s expire".formatted(expiredOrder.symbol()),
+                            "{\"status\":\"EXPIRED\"}");
+                }
+                orderRepository.updateAll(updates);
+                walletService.releaseAll(refunds);
+                return updates;
+            });
+        } catch (RuntimeException ex) {
+            logger.error("order_expiry_failed", ex, Map.of("orders", due.size()));
+            // retried on the next tick
+            due.forEach(order -> expiryWheel.schedule(order.id(), order, now));
+            return;
+        }
+        for (TradeOrder order : expired) {
+            orderBooks.remove(order.stockId(), order.id());
+            AppMetrics.recordOrder(order.type().name(), order.status().name());
+        }
+        logger.info("orders_expired", Map.of(
+                "due", due.size(),
+                "expired", expired.size()
+        ));
+    }
+
+    private void scheduleExpiry(TradeOrder order) {
+        if (order.expiresAt() != null) {
+            expiryWheel.schedule(order.id(), order, order.expiresAt());
+        }
+    }
+
+    private void returnToBook(LimitOrderBook book, TradeOrder order) {
+        book.add(order);
+        scheduleExpiry(order);
+    }
+
+    private void processPendingOrder(UUID orderId, long executionPrice, Instant executedAt) {
         Optional<TradeOrder> currentOpt = orderRepository.findById(orderId);
         if (currentOpt.isEmpty()) {
             return;
@@ -299,70 +648,82 @@ public class OrderService {
         if (!current.isPending()) {
             return;
         }
-        BigDecimal reserved = current.notional() != null ? current.notional() : BigDecimal.ZERO;
-        BigDecimal actual = executionPrice.multiply(BigDecimal.valueOf(current.quantity())).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal difference = actual.subtract(reserved).setScale(2, RoundingMode.HALF_UP);
+        long reserved = current.notionalCents();
+        long actual = Money.times(executionPrice, current.quantity());
+        long difference = Money.subtract(actual, reserved);
         boolean extraDebited = false;
         try {
-            if (difference.signum() > 0) {
-                walletService.debit(current.accountId(), difference);
+            if (difference > 0) {
+                walletService.reserve(current.accountId(), difference);
                 extraDebited = true;
             }
             TradeOrder completed = current.complete(executionPrice, executedAt);
             orderRepository.update(completed);
-            if (difference.signum() < 0) {
-                walletService.refund(completed.accountId(), difference.abs());
+            if (difference < 0) {
+                walletService.release(completed.accountId(), -difference);
             }
             AppMetrics.recordOrder(completed.type().name(), completed.status().name());
             String attributes = buildFillAuditAttributes(actual, executionPrice, current.limitPrice());
-            applyPositionFill(completed);
-            audit(completed, "ORDER_COMPLETED", attributes);
-            notifyOrder(completed, "ORDER_COMPLETED",
+            applyPositionFill(completed, executionPrice);
+            publishPostTrade(completed, "ORDER_COMPLETED", attributes,
                     "Ordre %s rempli (%d)".formatted(completed.symbol(), completed.quantity()),
                     "{" + attributes + "}");
         } catch (RuntimeException ex) {
-            if (extraDebited && difference.signum() > 0) {
-                walletService.refund(current.accountId(), difference.abs());
-            }
-            if (reserved.signum() > 0) {
-                walletService.refund(current.accountId(), reserved);
+            if (extraDebited) {
+                walletService.release(current.accountId(), difference);
             }
+            walletService.release(current.accountId(), reserved);
             TradeOrder failed = current.fail(ex.getMessage(), executionPrice, executedAt);
             orderRepository.update(failed);
             AppMetrics.recordOrder(failed.type().name(), failed.status().name());
             String reason = "\"reason\":\"" + escape(ex.getMessage()) + "\"";
-            audit(failed, "ORDER_FAILED", reason);
-            notifyOrder(failed, "ORDER_FAILED",
+            publishPostTrade(failed, "ORDER_FAILED", reason,
                     "Ordre %s echoue".formatted(failed.symbol()),
                     "{" + reason + "}");
         }
     }
 
-    private String buildFillAuditAttributes(BigDecimal notional, BigDecimal executionPrice, BigDecimal limitPrice) {
+    private String buildFillAuditAttributes(long notional, long executionPrice, BigDecimal limitPrice) {
         StringBuilder builder = new StringBuilder();
-        builder.append("\"notional\":").append(notional.toPlainString())
-                .append(",\"fillPrice\":").append(executionPrice.toPlainString());
+        builder.append("\"notional\":").append(Money.format(notional))
+                .append(",\"fillPrice\":").append(Money.format(executionPrice));
         if (limitPrice != null) {
             builder.append(",\"limitPrice\":").append(limitPrice.toPlainString());
         }
         return builder.toString();
     }
 
-    private void applyPositionFill(TradeOrder order) {
-        if (order.status() != OrderStatus.COMPLETED || order.executedPrice() == null) {
+    private void applyPositionFill(TradeOrder order, long executedPriceCents) {
+        if (order.status() != OrderStatus.COMPLETED) {
             return;
         }
         Position updated = positionRepository.find(order.accountId(), order.stockId())
-                .map(position -> position.withFill(order.executedPrice(), order.quantity(), order.executedAt()))
-                .orElseGet(() -> Position.empty(order.accountId(), order.stockId())
-                        .withFill(order.executedPrice(), order.quantity(), order.executedAt()));
+                .orElseGet(() -> Position.empty(order.accountId(), order.stockId()))
+                .withFill(executedPriceCents, order.quantity(), order.executedAt());
         positionRepository.upsert(updated);
     }
 
-    private void audit(TradeOrder order, String eventType, String extraAttributes) {
-        if (orderAuditRepository == null) {
-            return;
-        }
+    /**
+     * Audit, notification and order_event log for a state change are handed to the post-trade pipeline
+     * once the surrounding transaction commits, so the transaction itself only writes orders, wallets
+     * and positions.
+     */
+    private void publishPostTrade(TradeOrder order,
+                                  String eventType,
+                                  String auditAttributes,
+                                  String message,
+                                  String notificationPayload) {
+        PostTradePipeline.PostTradeEvent event = new PostTradePipeline.PostTradeEvent(
+                order,
+                auditEntry(order, eventType, auditAttributes),
+                eventType,
+                message,
+                notificationPayload
+        );
+        transactionManager.afterCommit(() -> postTrade.publish(event));
+    }
+
+    private OrderAuditEntry auditEntry(TradeOrder order, String eventType, String extraAttributes) {
         StringBuilder payload = new StringBuilder();
         payload.append("{\"accountId\":\"").append(order.accountId()).append("\"")
                 .append(",\"symbol\":\"").append(order.symbol()).append("\"")
@@ -371,32 +732,7 @@ public class OrderService {
             payload.append(",").append(extraAttributes);
         }
         payload.append("}");
-        orderAuditRepository.append(new OrderAuditEntry(order.id(), eventType, payload.toString(), Instant.now()));
-    }
-
-    private void notifyOrder(TradeOrder order, String category, String message, String payload) {
-        Map<String, Object> fields = Map.of(
-                "orderId", order.id().toString(),
-                "accountId", order.accountId().toString(),
-                "category", category,
-                "status", order.status().name(),
-                "symbol", order.symbol()
-        );
-        logger.info("order_event", fields);
-        if (notificationService == null) {
-            return;
-        }
-        try {
-            notificationService.publish(
-                    order.accountId(),
-                    category,
-                    message,
-                    order.id().toString(),
-                    payload
-            );
-        } catch (RuntimeException ex) {
-            logger.error("order_notification_failed", ex, fields);
-        }
+        return new OrderAuditEntry(order.id(), eventType, payload.toString(), Instant.now());
     }
 
     private String validateSymbol(String symbol) {
@@ -434,21 +770,55 @@ public class OrderService {
         }
     }
 
-    private BigDecimal parseLimitPrice(String raw) {
+    private long parseLimitPrice(String raw) {
         if (raw == null || raw.isBlank()) {
             throw new IllegalArgumentException("Limit price is required for LIMIT orders");
         }
         try {
-            BigDecimal price = new BigDecimal(raw);
-            if (price.signum() <= 0) {
+            long price = Money.parse(raw);
+            if (price <= 0) {
                 throw new NumberFormatException();
             }
-            return scale(price);
-        } catch (NumberFormatException ex) {
+            return price;
+        } catch (NumberFormatException | ArithmeticException ex) {
             throw new IllegalArgumentException("Invalid limit price: " + raw);
         }
     }
 
+    private TimeInForce parseTimeInForce(String value) {
+        if (value == null || value.isBlank()) {
+            return TimeInForce.GTC;
+        }
+        try {
+            return TimeInForce.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported time in force: " + value);
+        }
+    }
+
+    private Instant resolveExpiry(TimeInForce timeInForce, String rawExpiresAt, Instant now) {
+        switch (timeInForce) {
+            case DAY:
+                return tradingSession.closeAfter(now);
+            case GTD:
+                if (rawExpiresAt == null || rawExpiresAt.isBlank()) {
+                    throw new IllegalArgumentException("expiresAt est requis pour un ordre GTD");
+                }
+                Instant expiresAt;
+                try {
+                    expiresAt = Instant.parse(rawExpiresAt.trim());
+                } catch (DateTimeParseException ex) {
+                    throw new IllegalArgumentException("Invalid expiresAt: " + rawExpiresAt);
+                }
+                if (!expiresAt.isAfter(now)) {
+                    throw new IllegalArgumentException("expiresAt doit etre dans le futur");
+                }
+                return expiresAt;
+            default:
+                return null;
+        }
+    }
+
     private OrderResult toResult(TradeOrder order) {
         return new OrderResult(
                 order.id(),
@@ -464,36 +834,38 @@ public class OrderService {
                 order.createdAt(),
                 order.updatedAt(),
                 order.executedAt(),
-                order.failureReason()
+                order.failureReason(),
+                order.timeInForce(),
+                order.expiresAt()
         );
     }
 
-    private BigDecimal scale(BigDecimal value) {
-        return value.setScale(2, RoundingMode.HALF_UP);
-    }
-
-    private void runPreTradeChecks(UUID accountId,
+    /**
+     * Validates the order against the risk limits, then reserves its notional at the reference price
+     * (limit price for LIMIT orders, market price otherwise). Returns the reserved amount in cents.
+     */
+    private long runPreTradeChecks(UUID accountId,
                                    OrderType type,
                                    int quantity,
-                                   BigDecimal limitPrice,
-                                   BigDecimal marketPrice) {
+                                   long limitPrice,
+                                   long marketPrice) {
         if (quantity > 1_000) {
             throw new IllegalArgumentException("Quantite maximale autorisee: 1000 actions");
         }
-        BigDecimal referencePrice = type == OrderType.LIMIT ? limitPrice : scale(marketPrice);
-        if (referencePrice == null || referencePrice.signum() <= 0) {
+        long referencePrice = type == OrderType.LIMIT ? limitPrice : marketPrice;
+        if (referencePrice <= 0) {
             throw new IllegalArgumentException("Prix de reference indisponible");
         }
-        BigDecimal notional = referencePrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
-        walletService.ensureBalance(accountId, notional);
-        if (type == OrderType.LIMIT && marketPrice != null) {
-            BigDecimal scaledMarket = scale(marketPrice);
-            BigDecimal upper = scaledMarket.multiply(BigDecimal.valueOf(1.5)).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal lower = scaledMarket.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
-            if (referencePrice.compareTo(lower) < 0 || referencePrice.compareTo(upper) > 0) {
+        if (type == OrderType.LIMIT && marketPrice > 0) {
+            long upper = Money.scale(marketPrice, 150, 100, RoundingMode.HALF_UP);
+            long lower = Money.scale(marketPrice, 50, 100, RoundingMode.HALF_UP);
+            if (referencePrice < lower || referencePrice > upper) {
                 throw new IllegalArgumentException("Limit price doit rester dans une bande de +/-50% du marché");
             }
         }
+        long notional = Money.times(referencePrice, quantity);
+        walletService.reserve(accountId, notional);
+        return notional;
     }
 
     private String escape(String value) {
@@ -505,31 +877,31 @@ public class OrderService {
 
     private TradeOrder createPendingLimit(
             UUID accountId,
-            Stock stock,
-            OrderSide side,
-            int quantity,
+            StockReference stock,
             String clientOrderId,
-            BigDecimal limitPrice,
-            BigDecimal reservedNotional
+            OrderTerms terms,
+            long reservedNotional
     ) {
         Instant now = Instant.now();
         return new TradeOrder(
                 UUID.randomUUID(),
                 accountId,
-                stock.getId(),
-                stock.getSymbol(),
-                side,
+                stock.id(),
+                stock.symbol(),
+                terms.side(),
                 OrderType.LIMIT,
-                quantity,
-                limitPrice,
+                terms.quantity(),
+                Money.toDecimal(terms.limitCents()),
                 null,
-                reservedNotional,
+                Money.toDecimal(reservedNotional),
                 clientOrderId,
                 OrderStatus.PENDING,
                 now,
                 now,
                 null,
-                null
+                null,
+                terms.timeInForce(),
+                terms.expiresAt()
         );
     }
 
@@ -539,8 +911,19 @@ public class OrderService {
             String type,
             String quantity,
             String limitPrice,
-            String clientOrderId
-    ) { }
+            String clientOrderId,
+            String timeInForce,
+            String expiresAt
+    ) {
+        public OrderCommand(String symbol,
+                            String side,
+                            String type,
+                            String quantity,
+                            String limitPrice,
+                            String clientOrderId) {
+            this(symbol, side, type, quantity, limitPrice, clientOrderId, null, null);
+        }
+    }
 
     public record OrderResult(
             UUID orderId,
@@ -556,6 +939,17 @@ public class OrderService {
             Instant createdAt,
             Instant updatedAt,
             Instant executedAt,
-            String failureReason
+            String failureReason,
+            TimeInForce timeInForce,
+            Instant expiresAt
+    ) { }
+
+    private record OrderTerms(
+            OrderSide side,
+            OrderType type,
+            int quantity,
+            long limitCents,
+            TimeInForce timeInForce,
+            Instant expiresAt
     ) { }
 }
@@ -0,0 +1,219 @@
+package com.brokerx.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.brokerx.domain.order.OrderAuditEntry;
+import com.brokerx.domain.order.TradeOrder;
+import com.brokerx.observability.AppMetrics;
+import com.brokerx.observability.StructuredLogger;
+import com.brokerx.ports.OrderAuditRepository;
+
+/**
+ * Post-trade side effects of order state changes: order_audit rows, client notifications and the
+ * {@code order_event} log line. Events are published once the order transaction has committed and,
+ * when the pipeline is started, handled by a consumer thread that writes audits in batches. Producers
+ * block when the bounded queue is full. A pipeline that was never started handles events inline.
+ */
+public final class PostTradePipeline implements AutoCloseable {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(PostTradePipeline.class);
+    /** Queued by {@link #close()} behind the last accepted events; the consumer stops when it takes it. */
+    private static final PostTradeEvent STOP = new PostTradeEvent(null, null, null, null, null);
+
+    private final OrderAuditRepository auditRepository;
+    private final NotificationService notificationService;
+    private final BlockingQueue<PostTradeEvent> queue;
+    private final int batchSize;
+    private volatile Thread consumer;
+    private volatile boolean running;
+
+    public PostTradePipeline(OrderAuditRepository auditRepository, NotificationService notificationService) {
+        this(auditRepository, notificationService, 1, 1);
+    }
+
+    public PostTradePipeline(OrderAuditRepository auditRepository,
+                             NotificationService notificationService,
+                             int capacity,
+                             int batchSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.auditRepository = auditRepository;
+        this.notificationService = notificationService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    public synchronized PostTradePipeline start() {
+        if (running) {
+            return this;
+        }
+        running = true;
+        AppMetrics.trackQueueDepth("post_trade", queue::size);
+        Thread thread = new Thread(this::drainLoop, "post-trade-pipeline");
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+        LOGGER.info("post_trade_pipeline_started", Map.of(
+                "capacity", queue.remainingCapacity(),
+                "batchSize", batchSize
+        ));
+        return this;
+    }
+
+    public void publish(PostTradeEvent event) {
+        if (!running) {
+            handle(List.of(event));
+            return;
+        }
+        if (!queue.offer(event)) {
+            AppMetrics.recordPostTradeBackpressure();
+            try {
+                queue.put(event);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("post_trade_event_handled_inline", Map.of("orderId", event.order().id().toString()));
+                handle(List.of(event));
+                return;
+            }
+        }
+        // close() may have run between the check above and the enqueue, and the consumer may already be
+        // gone: whoever removes the event from the queue handles it, so it is never left behind
+        if (!running && queue.remove(event)) {
+            handle(List.of(event));
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting events, lets the consumer finish what is queued and waits for it. The consumer is
+     * never interrupted: it may be in the middle of an audit write, which an interrupt would abort.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = consumer;
+        }
+        try {
+            queue.put(STOP);
+            thread.join(5_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            LOGGER.warn("post_trade_pipeline_close_timeout", Map.of("pending", queue.size()));
+        }
+    }
+
+    private void drainLoop() {
+        List<PostTradeEvent> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                // only close() stops the consumer, through STOP
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            stopping = batch.remove(STOP);
+            handle(batch);
+            batch.clear();
+        }
+        // events that publishers enqueued while close() was queuing STOP
+        while (queue.drainTo(batch, batchSize) > 0) {
+            handle(batch);
+            batch.clear();
+        }
+    }
+
+    private void handle(List<PostTradeEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        writeAudits(batch);
+        for (PostTradeEvent event : batch) {
+            notifyOrder(event);
+        }
+    }
+
+    private void writeAudits(List<PostTradeEvent> batch) {
+        if (auditRepository == null) {
+            return;
+        }
+        List<OrderAuditEntry> entries = new ArrayList<>(batch.size());
+        for (PostTradeEvent event : batch) {
+            entries.add(event.audit());
+        }
+        try {
+            if (entries.size() == 1) {
+                auditRepository.append(entries.get(0));
+            } else {
+                auditRepository.appendAll(entries);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.error("order_audit_batch_failed", ex, Map.of("entries", entries.size()));
+            if (entries.size() > 1) {
+                // keep whatever can be kept: retry the rows one at a time
+                for (OrderAuditEntry entry : entries) {
+                    try {
+                        auditRepository.append(entry);
+                    } catch (RuntimeException single) {
+                        LOGGER.error("order_audit_failed", single, Map.of(
+                                "orderId", entry.orderId().toString(),
+                                "eventType", entry.eventType()
+                        ));
+                    }
+                }
+            }
+        }
+    }
+
+    private void notifyOrder(PostTradeEvent event) {
+        TradeOrder order = event.order();
+        Map<String, Object> fields = Map.of(
+                "orderId", order.id().toString(),
+                "accountId", order.accountId().toString(),
+                "category", event.category(),
+                "status", order.status().name(),
+                "symbol", order.symbol()
+        );
+        LOGGER.info("order_event", fields);
+        if (notificationService == null) {
+            return;
+        }
+        try {
+            notificationService.publish(
+                    order.accountId(),
+                    event.category(),
+                    event.message(),
+                    order.id().toString(),
+                    event.notificationPayload()
+            );
+        } catch (RuntimeException ex) {
+            LOGGER.error("order_notification_failed", ex, fields);
+        }
+    }
+
+    public record PostTradeEvent(
+            TradeOrder order,
+            OrderAuditEntry audit,
+            String category,
+            String message,
+            String notificationPayload
+    ) { }
+}
@@ -0,0 +1,180 @@
+package com.brokerx.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.brokerx.application.StockService.Quote;
+import com.brokerx.observability.AppMetrics;
+
+/**
+ * Fan-out of quote updates to streaming clients. A reverse index maps each symbol to the subscriptions
+ * that asked for it, so a tick only touches its own subscribers. Each subscription is a conflating
+ * mailbox holding at most the latest quote per symbol: a slow consumer skips intermediate prices instead
+ * of building a backlog, and publishing never blocks the feed thread.
+ */
+public final class QuoteStreamHub implements Consumer<Quote>, AutoCloseable {
+    private static final String STREAM = "quotes";
+
+    private final int maxConnections;
+    private final Duration heartbeat;
+    private final Map<String, Set<Subscription>> subscribersBySymbol = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Set<Subscription> open = ConcurrentHashMap.newKeySet();
+
+    public QuoteStreamHub(int maxConnections, Duration heartbeat) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        if (heartbeat == null || heartbeat.isNegative() || heartbeat.isZero()) {
+            throw new IllegalArgumentException("heartbeat must be positive");
+        }
+        this.maxConnections = maxConnections;
+        this.heartbeat = heartbeat;
+        AppMetrics.trackStreamConnections(STREAM, connections::get);
+    }
+
+    /** Interval after which an idle stream should send a heartbeat frame. */
+    public Duration heartbeat() {
+        return heartbeat;
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    /** @throws IllegalStateException when {@code maxConnections} streams are already open */
+    public Subscription subscribe(Collection<String> symbols) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            AppMetrics.recordStreamRejection(STREAM);
+            throw new IllegalStateException("Trop de flux ouverts");
+        }
+        Subscription subscription = new Subscription(symbols);
+        open.add(subscription);
+        for (String symbol : subscription.symbols) {
+            // add inside compute so a concurrent close cannot drop the set this subscription joins
+            subscribersBySymbol.compute(symbol, (key, subscribers) -> {
+                Set<Subscription> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                target.add(subscription);
+                return target;
+            });
+        }
+        return subscription;
+    }
+
+    @Override
+    public void accept(Quote quote) {
+        Set<Subscription> subscribers = subscribersBySymbol.get(normalize(quote.symbol()));
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            subscription.offer(quote);
+        }
+    }
+
+    /** Closes every open subscription; their consumers see {@link Subscription#isClosed()}. */
+    @Override
+    public void close() {
+        for (Subscription subscription : open) {
+            subscription.close();
+        }
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final Set<String> symbols;
+        private final Map<String, Quote> pending = new ConcurrentHashMap<>();
+        private final Semaphore signal = new Semaphore(0);
+        private final AtomicBoolean signalled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Collection<String> symbols) {
+            Set<String> normalized = new HashSet<>();
+            for (String symbol : symbols) {
+                normalized.add(normalize(symbol));
+            }
+            this.symbols = Set.copyOf(normalized);
+        }
+
+        public Set<String> symbols() {
+            return symbols;
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        /** Replaces any undelivered quote of the same symbol, then wakes the consumer. */
+        public void offer(Quote quote) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.put(normalize(quote.symbol()), quote) != null) {
+                AppMetrics.recordStreamConflated(STREAM);
+            }
+            wake();
+        }
+
+        /**
+         * Waits up to {@code timeout} for updates and returns the latest quote of every symbol that moved
+         * since the previous call; empty on timeout or once closed.
+         */
+        public List<Quote> poll(Duration timeout) throws InterruptedException {
+            if (pending.isEmpty() && !closed.get()) {
+                signal.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            signal.drainPermits();
+            signalled.set(false);
+            if (closed.get()) {
+                return List.of();
+            }
+            List<Quote> updates = new ArrayList<>(pending.size());
+            for (String symbol : pending.keySet()) {
+                Quote latest = pending.remove(symbol);
+                if (latest != null) {
+                    updates.add(latest);
+                }
+            }
+            return updates;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            for (String symbol : symbols) {
+                subscribersBySymbol.computeIfPresent(symbol, (key, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+            open.remove(this);
+            pending.clear();
+            connections.decrementAndGet();
+            wake();
+        }
+
+        private void wake() {
+            if (signalled.compareAndSet(false, true)) {
+                signal.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.brokerx.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.brokerx.domain.stock.Stock;
+import com.brokerx.observability.AppMetrics;
+import com.brokerx.observability.StructuredLogger;
+import com.brokerx.ports.StockRepository;
+import com.brokerx.ports.TransactionManager;
+
+/**
+ * Write-behind persistence of stock prices. Only the latest dirty price of each stock is kept; every
+ * {@code flushInterval}, or as soon as {@code flushThreshold} stocks are dirty, they are written in one
+ * batched UPDATE inside one transaction, in id order. A hot symbol therefore costs one row write per
+ * flush instead of one per tick. Closing performs a final flush. A writer that was never started
+ * writes through, as the repository used to be called directly.
+ */
+public final class StockPriceWriteBehind implements AutoCloseable {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(StockPriceWriteBehind.class);
+
+    private final StockRepository stockRepository;
+    private final TransactionManager transactionManager;
+    private final Duration flushInterval;
+    private final int flushThreshold;
+    private final Map<UUID, Stock> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile ScheduledExecutorService flusher;
+
+    public StockPriceWriteBehind(StockRepository stockRepository) {
+        this(stockRepository, null, Duration.ofMillis(500), 256);
+    }
+
+    public StockPriceWriteBehind(StockRepository stockRepository,
+                                 TransactionManager transactionManager,
+                                 Duration flushInterval,
+                                 int flushThreshold) {
+        if (flushInterval.toMillis() <= 0) {
+            throw new IllegalArgumentException("flushInterval must be at least one millisecond");
+        }
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("flushThreshold must be positive");
+        }
+        this.stockRepository = stockRepository;
+        this.transactionManager = transactionManager;
+        this.flushInterval = flushInterval;
+        this.flushThreshold = flushThreshold;
+    }
+
+    public synchronized StockPriceWriteBehind start() {
+        if (flusher != null) {
+            return this;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        AppMetrics.trackQueueDepth("price_write_behind", dirty::size);
+        flusher = executor;
+        LOGGER.info("price_write_behind_started", Map.of(
+                "flushIntervalMs", millis,
+                "flushThreshold", flushThreshold
+        ));
+        return this;
+    }
+
+    /** Records the stock's current price; a newer submission for the same stock replaces this one. */
+    public void submit(Stock stock) {
+        ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            stockRepository.updatePrice(stock.getId(), stock);
+            AppMetrics.recordPriceWrites(1, 1);
+            return;
+        }
+        dirty.put(stock.getId(), new Stock(stock.getId(), stock.getSymbol(), stock.getName(),
+                stock.getDescription(), stock.getLastPrice(), stock.getUpdatedAt()));
+        AppMetrics.recordPriceSubmitted();
+        if (dirty.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushQuietly);
+            } catch (RejectedExecutionException ex) {
+                // closing: the final flush picks the price up
+            }
+        }
+    }
+
+    public int pending() {
+        return dirty.size();
+    }
+
+    /** Writes every dirty price now; returns the number of rows written. */
+    public synchronized int flush() {
+        flushRequested.set(false);
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        List<Stock> batch = new ArrayList<>(dirty.size());
+        for (UUID stockId : dirty.keySet()) {
+            Stock latest = dirty.remove(stockId);
+            if (latest != null) {
+                batch.add(latest);
+            }
+        }
+        // a stable lock order keeps concurrent writers of the same rows from deadlocking
+        batch.sort(Comparator.comparing(Stock::getId));
+        long start = System.nanoTime();
+        try {
+            if (transactionManager != null) {
+                transactionManager.inTransaction(() -> {
+                    stockRepository.updatePrices(batch);
+                    return null;
+                });
+            } else {
+                stockRepository.updatePrices(batch);
+            }
+        } catch (RuntimeException ex) {
+            // keep the prices for the next flush unless a newer one arrived meanwhile
+            for (Stock stock : batch) {
+                dirty.putIfAbsent(stock.getId(), stock);
+            }
+            throw ex;
+        }
+        AppMetrics.recordPriceFlush(batch.size(), Duration.ofNanos(System.nanoTime() - start));
+        return batch.size();
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = flusher;
+            flusher = null;
+        }
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            // an exception would cancel the periodic task; the prices stay dirty for the next round
+            LOGGER.error("price_flush_failed", ex, Map.of("pending", dirty.size()));
+        }
+    }
+}
@@ -3,10 +3,17 @@ package com.brokerx.application;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import com.brokerx.application.CandleAggregator.Candle;
+import com.brokerx.application.CandleAggregator.CandleInterval;
 import com.brokerx.application.MarketDataService.MarketDataSnapshot;
 import com.brokerx.cache.TimedCache;
 import com.brokerx.domain.stock.Stock;
@@ -16,13 +23,20 @@ import com.brokerx.ports.StockRepository;
 public class StockService {
     private static final Duration DEFAULT_CACHE_TTL = Duration.ofSeconds(1);
     private static final String ALL_CACHE_KEY = "ALL";
+    private static final long QUOTE_CACHE_MAX_STOCKS = 10_000;
+    private static final long FOLLOWED_CACHE_MAX_QUOTES = 100_000;
 
     private final StockRepository stockRepository;
     private final MarketDataService marketDataService;
     private final OrderService orderService;
-    private final TimedCache<String, List<Quote>> allQuotesCache;
+    private final StockPriceWriteBehind priceWriter;
+    private final TimedCache<String, QuoteList> allQuotesCache;
     private final TimedCache<UUID, List<Quote>> followedQuotesCache;
     private final TimedCache<UUID, Quote> quoteCache;
+    private final Map<String, Stock> feedStocks = new ConcurrentHashMap<>();
+    private final List<Consumer<Quote>> quoteListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> listingListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong quoteVersion = new AtomicLong();
     private final StructuredLogger logger;
 
     public StockService(StockRepository stockRepository, MarketDataService marketDataService, OrderService orderService) {
@@ -33,20 +47,45 @@ public class StockService {
                         MarketDataService marketDataService,
                         OrderService orderService,
                         Duration cacheTtl) {
+        this(stockRepository, marketDataService, orderService, cacheTtl, new StockPriceWriteBehind(stockRepository));
+    }
+
+    public StockService(StockRepository stockRepository,
+                        MarketDataService marketDataService,
+                        OrderService orderService,
+                        Duration cacheTtl,
+                        StockPriceWriteBehind priceWriter) {
         this.stockRepository = stockRepository;
         this.marketDataService = marketDataService;
         this.orderService = orderService;
+        this.priceWriter = priceWriter;
         this.logger = StructuredLogger.get(StockService.class);
         Duration ttl = cacheTtl != null ? cacheTtl : DEFAULT_CACHE_TTL;
-        this.allQuotesCache = new TimedCache<>(ttl);
-        this.followedQuotesCache = new TimedCache<>(ttl);
-        this.quoteCache = new TimedCache<>(ttl);
+        this.allQuotesCache = new TimedCache<>("quotes_all", ttl);
+        // one entry per account or stock ever read: bounded so idle ones are evicted, followed lists by size
+        this.followedQuotesCache = new TimedCache<>("quotes_followed", ttl, FOLLOWED_CACHE_MAX_QUOTES,
+                (accountId, quotes) -> 1 + quotes.size());
+        this.quoteCache = new TimedCache<>("quote", ttl, QUOTE_CACHE_MAX_STOCKS);
     }
 
     public List<Quote> listAll() {
+        return allQuotes().quotes();
+    }
+
+    /** The cached listing with its version: two lists with the same version hold the same quotes. */
+    public QuoteList allQuotes() {
         return allQuotesCache.getOrCompute(ALL_CACHE_KEY, this::loadAllQuotes);
     }
 
+    /**
+     * Current quote version, without loading anything: a listing served with this version is still what
+     * {@link #allQuotes()} would return. Moves with every feed tick, or with every price an on-read load
+     * changes when the feed is off.
+     */
+    public long quoteVersion() {
+        return quoteVersion.get();
+    }
+
     public List<Quote> listFollowed(UUID accountId) {
         return followedQuotesCache.getOrCompute(accountId, () -> loadFollowedQuotes(accountId));
     }
@@ -55,6 +94,58 @@ public class StockService {
         return quoteCache.getOrCompute(stockId, () -> loadQuote(stockId));
     }
 
+    /** Receives every quote the market data feed produces, on the feed thread. */
+    public void subscribeQuotes(Consumer<Quote> listener) {
+        quoteListeners.add(listener);
+    }
+
+    /**
+     * Called each time {@link #allQuotes()} loads a listing under a new version, on the loading thread;
+     * lets copies derived from the previous listing be dropped.
+     */
+    public void subscribeListings(Runnable listener) {
+        listingListeners.add(listener);
+    }
+
+    /**
+     * Seeds the market data feed with every listed stock at its stored price and subscribes to it:
+     * each published tick is persisted, refreshes the cached quote and is matched against resting orders.
+     */
+    public void attachToFeed() {
+        for (Stock stock : stockRepository.findAll()) {
+            feedStocks.put(stock.getSymbol(), stock);
+            marketDataService.seed(stock.getSymbol(), stock.getLastPrice());
+        }
+        marketDataService.subscribe(this::onMarketData);
+    }
+
+    private void onMarketData(MarketDataSnapshot snapshot) {
+        Stock stock = feedStocks.get(snapshot.symbol());
+        if (stock == null) {
+            return;
+        }
+        stock.updatePrice(snapshot.price(), snapshot.timestamp());
+        priceWriter.submit(stock);
+        Quote quote = toQuote(stock, snapshot);
+        quoteCache.put(stock.getId(), quote);
+        quoteVersion.incrementAndGet();
+        for (Consumer<Quote> listener : quoteListeners) {
+            listener.accept(quote);
+        }
+        if (orderService != null) {
+            orderService.onMarketTick(stock.getId(), stock.getSymbol(), snapshot.price(), snapshot.timestamp());
+        }
+    }
+
+    /** The latest {@code limit} bars of {@code symbol}, oldest first. */
+    public List<Candle> candles(String symbol, CandleInterval interval, int limit) {
+        CandleAggregator candles = marketDataService.candles();
+        if (limit <= 0 || limit > candles.capacity()) {
+            throw new IllegalArgumentException("limit doit etre compris entre 1 et " + candles.capacity());
+        }
+        return candles.read(symbol, interval, limit);
+    }
+
     public Stock requireBySymbol(String symbol) {
         return stockRepository.findBySymbol(symbol)
                 .orElseThrow(() -> new IllegalArgumentException("Symbole inconnu: " + symbol));
@@ -79,15 +170,34 @@ public class StockService {
         ));
     }
 
-    private List<Quote> loadAllQuotes() {
-        List<Quote> quotes = stockRepository.findAll().stream()
-                .map(this::refreshQuote)
-                .toList();
+    private QuoteList loadAllQuotes() {
+        long before = quoteVersion.get();
+        List<Stock> stocks = stockRepository.findAll();
+        List<Quote> quotes = new ArrayList<>(stocks.size());
+        int moved = 0;
+        for (Stock stock : stocks) {
+            BigDecimal previous = stock.getLastPrice();
+            Quote quote = refreshQuote(stock);
+            if (previous == null || quote.price().compareTo(previous) != 0) {
+                moved++;
+            }
+            quotes.add(quote);
+        }
+        // with the feed running a listing holds at least the ticks counted before it was loaded. Without it,
+        // the load itself moved the prices: the version after the load fits the listing, unless some other
+        // load moved prices meanwhile, in which case the version before it keeps the ETag conservative
+        long version = before;
+        if (!marketDataService.isFeedRunning() && quoteVersion.get() == before + moved) {
+            version = before + moved;
+        }
         logger.info("stocks_cache_refresh", Map.of(
                 "scope", "ALL",
                 "count", quotes.size()
         ));
-        return quotes;
+        for (Runnable listener : listingListeners) {
+            listener.run();
+        }
+        return new QuoteList(version, List.copyOf(quotes));
     }
 
     private List<Quote> loadFollowedQuotes(UUID accountId) {
@@ -119,12 +229,25 @@ public class StockService {
                 stock.getSymbol(),
                 stock.getLastPrice()
         );
-        stock.updatePrice(snapshot.price(), snapshot.timestamp());
-        stockRepository.updatePrice(stock.getId(), stock);
-        if (orderService != null) {
-            orderService.onMarketTick(stock.getId(), stock.getSymbol(), snapshot.price(), snapshot.timestamp());
+        // with the feed running reads only observe the latest tick; the feed persists and matches it
+        if (!marketDataService.isFeedRunning()) {
+            BigDecimal previous = stock.getLastPrice();
+            stock.updatePrice(snapshot.price(), snapshot.timestamp());
+            if (previous == null || snapshot.price().compareTo(previous) != 0) {
+                quoteVersion.incrementAndGet();
+            }
+            priceWriter.submit(stock);
+            if (orderService != null) {
+                orderService.onMarketTick(stock.getId(), stock.getSymbol(), snapshot.price(), snapshot.timestamp());
+            }
         }
-        Quote quote = new Quote(
+        Quote quote = toQuote(stock, snapshot);
+        quoteCache.put(quote.id(), quote);
+        return quote;
+    }
+
+    private Quote toQuote(Stock stock, MarketDataSnapshot snapshot) {
+        return new Quote(
                 stock.getId(),
                 stock.getSymbol(),
                 stock.getName(),
@@ -132,10 +255,10 @@ public class StockService {
                 snapshot.price(),
                 snapshot.timestamp()
         );
-        quoteCache.put(quote.id(), quote);
-        return quote;
     }
 
+    public record QuoteList(long version, List<Quote> quotes) { }
+
     public record Quote(
             UUID id,
             String symbol,
@@ -0,0 +1,41 @@
+package com.brokerx.application;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Regular trading session, used to expire DAY orders at the close. Sessions run on weekdays; exchange
+ * holidays are not modelled.
+ */
+public record TradingSession(ZoneId zone, LocalTime close) {
+    /** TSX regular session: closes at 16:00, Toronto time. */
+    public static final TradingSession DEFAULT = new TradingSession(ZoneId.of("America/Toronto"), LocalTime.of(16, 0));
+
+    public TradingSession {
+        Objects.requireNonNull(zone, "zone");
+        Objects.requireNonNull(close, "close");
+    }
+
+    /** Close of the session in progress at {@code now}, or of the next one when the market is closed. */
+    public Instant closeAfter(Instant now) {
+        LocalDate day = now.atZone(zone).toLocalDate();
+        while (true) {
+            if (isTradingDay(day)) {
+                Instant closeAt = day.atTime(close).atZone(zone).toInstant();
+                if (closeAt.isAfter(now)) {
+                    return closeAt;
+                }
+            }
+            day = day.plusDays(1);
+        }
+    }
+
+    private static boolean isTradingDay(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+    }
+}
@@ -1,10 +1,13 @@
 package com.brokerx.application;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.brokerx.domain.money.Money;
 import com.brokerx.domain.wallet.Transaction;
 import com.brokerx.domain.wallet.Wallet;
 import com.brokerx.observability.AppMetrics;
@@ -44,7 +47,9 @@ public class WalletService {
                     return existing.get();
                 }
 
-                var wallet = walletRepository.findByOwnerId(ownerId).orElseGet(() -> walletRepository.create(ownerId));
+                // locked, not just read: the balance written back must not overwrite a concurrent reservation
+                var wallet = Optional.ofNullable(walletRepository.lockByOwnerIds(List.of(ownerId)).get(ownerId))
+                        .orElseGet(() -> walletRepository.create(ownerId));
 
                 var pending = Transaction.pending(wallet.getId(), depositAmount, idempotencyKey);
                 txRepository.append(pending);
@@ -85,52 +90,64 @@ public class WalletService {
         return walletRepository.findByOwnerId(ownerId);
     }
 
-    public Wallet debit(UUID ownerId, BigDecimal amount) {
-        var wallet = walletRepository.findByOwnerId(ownerId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for account " + ownerId));
-        wallet.debit(amount);
-        walletRepository.update(wallet);
-        LOGGER.info("wallet_debit", Map.of(
-                "accountId", ownerId.toString(),
-                "amount", amount.toPlainString()
-        ));
-        return wallet;
+    /**
+     * Loads and locks the wallets of {@code ownerIds} for the current transaction, keyed by owner.
+     * The returned wallets are working copies: callers mutate them and nothing reaches the store before
+     * {@link #saveAll(Collection)}.
+     */
+    public Map<UUID, Wallet> lockWallets(Collection<UUID> ownerIds) {
+        return walletRepository.lockByOwnerIds(ownerIds);
     }
 
-    public Wallet refund(UUID ownerId, BigDecimal amount) {
-        if (amount == null || amount.signum() <= 0) {
-            return walletRepository.findByOwnerId(ownerId)
-                    .orElseThrow(() -> new IllegalArgumentException("Wallet not found for account " + ownerId));
+    public void saveAll(Collection<Wallet> wallets) {
+        walletRepository.updateAll(wallets);
+    }
+
+    /**
+     * Takes {@code cents} from the owner's wallet in one conditional write, replacing the former
+     * balance check followed by a debit. Throws when the wallet is missing or cannot cover the amount.
+     */
+    public void reserve(UUID ownerId, long cents) {
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Required amount must be positive");
+        }
+        if (walletRepository.reserve(ownerId, cents)) {
+            LOGGER.info("wallet_reserve", Map.of(
+                    "accountId", ownerId.toString(),
+                    "amount", Money.format(cents)
+            ));
+            return;
         }
+        // failure path only: one read to tell a missing wallet from a short balance
         var wallet = walletRepository.findByOwnerId(ownerId)
                 .orElseThrow(() -> new IllegalArgumentException("Wallet not found for account " + ownerId));
-        wallet.credit(amount);
-        walletRepository.update(wallet);
-        LOGGER.info("wallet_refund", Map.of(
+        LOGGER.warn("wallet_balance_insufficient", Map.of(
                 "accountId", ownerId.toString(),
-                "amount", amount.toPlainString()
+                "balance", Money.format(wallet.getBalanceCents()),
+                "required", Money.format(cents)
         ));
-        return wallet;
+        throw new IllegalArgumentException("Solde insuffisant pour couvrir l'ordre");
     }
 
-    public void ensureBalance(UUID ownerId, BigDecimal required) {
-        if (required == null || required.signum() <= 0) {
-            throw new IllegalArgumentException("Required amount must be positive");
+    public void release(UUID ownerId, long cents) {
+        if (cents <= 0) {
+            return;
         }
-        var wallet = walletRepository.findByOwnerId(ownerId)
-                .orElseThrow(() -> new IllegalArgumentException("Wallet not found for account " + ownerId));
-        if (wallet.getBalance().compareTo(required) < 0) {
-            LOGGER.warn("wallet_balance_insufficient", Map.of(
-                    "accountId", ownerId.toString(),
-                    "balance", wallet.getBalance().toPlainString(),
-                    "required", required.toPlainString()
-            ));
-            throw new IllegalArgumentException("Solde insuffisant pour couvrir l'ordre");
+        if (!walletRepository.release(ownerId, cents)) {
+            throw new IllegalArgumentException("Wallet not found for account " + ownerId);
         }
-        LOGGER.info("wallet_balance_ok", Map.of(
+        LOGGER.info("wallet_release", Map.of(
                 "accountId", ownerId.toString(),
-                "balance", wallet.getBalance().toPlainString(),
-                "required", required.toPlainString()
+                "amount", Money.format(cents)
         ));
     }
+
+    /** Gives reserved funds back to several owners at once, e.g. a batch of expired orders. */
+    public void releaseAll(Map<UUID, Long> centsByOwner) {
+        if (centsByOwner.isEmpty()) {
+            return;
+        }
+        walletRepository.releaseAll(centsByOwner);
+        LOGGER.info("wallet_release_batch", Map.of("accounts", centsByOwner.size()));
+    }
 }
@@ -4,12 +4,14 @@ import java.time.Duration;
 
 import com.brokerx.adapters.external.PaymentAdapterStub;
 import com.brokerx.application.AuthService;
-import com.brokerx.application.MarketDataService;
 import com.brokerx.application.NotificationService;
+import com.brokerx.application.NotificationStreamHub;
+import com.brokerx.application.OrderExpiryTimer;
 import com.brokerx.application.OrderService;
+import com.brokerx.application.QuoteStreamHub;
 import com.brokerx.application.StockService;
 import com.brokerx.application.WalletService;
-import com.brokerx.interfaces.rest.TokenService;
+import com.brokerx.cache.VersionedOrderRepository;
 import com.brokerx.ports.OrderRepository;
 import com.brokerx.ports.StockRepository;
 
@@ -20,11 +22,21 @@ public final class Application {
     public static void main(String[] args) {
         var persistence = PersistenceProvider.initialise();
         var payment = new PaymentAdapterStub();
-        var marketDataService = new MarketDataService();
+        var marketDataService = MarketDataFeedFactory.createFromEnvironment();
         var notificationService = new NotificationService(200);
-        var tokenService = new TokenService(Duration.ofHours(4));
+        var tokenService = TokenServiceFactory.createFromEnvironment();
+        var orderSequencer = OrderSequencerFactory.createFromEnvironment();
+        var postTrade = PostTradePipelineFactory.createFromEnvironment(
+                persistence.orderAuditRepository(),
+                notificationService
+        );
         StockRepository stockRepository = persistence.stockRepository();
         OrderRepository orderRepository = persistence.orderRepository();
+        // off by default: the versions only see this process's writes, and the shipped nginx setup runs
+        // several instances on one database
+        if (EnvironmentSettings.bool("BROKERX_ORDER_VERSIONS", false)) {
+            orderRepository = new VersionedOrderRepository(orderRepository, persistence.transactionManager());
+        }
 
         var authService = new AuthService(
                 persistence.accountRepository(),
@@ -46,9 +58,31 @@ public final class Application {
                 persistence.positionRepository(),
                 persistence.orderAuditRepository(),
                 notificationService,
+                persistence.transactionManager(),
+                orderSequencer,
+                EnvironmentSettings.bool("BROKERX_ORDER_BATCH_FILL", true),
+                postTrade,
+                TradingSessionFactory.createFromEnvironment()
+        );
+        orderService.warmUpOrderBooks();
+        var expiryTimer = new OrderExpiryTimer(orderService).start();
+        var priceWriter = StockPriceWriteBehindFactory.createFromEnvironment(
+                stockRepository,
                 persistence.transactionManager()
         );
-        var stockService = new StockService(stockRepository, marketDataService, orderService);
+        var stockService = new StockService(stockRepository, marketDataService, orderService, null, priceWriter);
+        var tickJournal = MarketDataFeedFactory.attachJournalFromEnvironment(marketDataService);
+        var quoteStream = new QuoteStreamHub(
+                EnvironmentSettings.integer("BROKERX_STREAM_MAX_CONNECTIONS", 512),
+                Duration.ofMillis(EnvironmentSettings.longValue("BROKERX_STREAM_HEARTBEAT_MS", 15_000L))
+        );
+        stockService.subscribeQuotes(quoteStream);
+        var notificationStream = new NotificationStreamHub(
+                notificationService,
+                EnvironmentSettings.integer("BROKERX_STREAM_MAX_CONNECTIONS", 512),
+                Duration.ofMillis(EnvironmentSettings.longValue("BROKERX_STREAM_HEARTBEAT_MS", 15_000L))
+        );
+        MarketDataFeedFactory.startFromEnvironment(marketDataService, stockService);
 
         int port = httpPortFromEnv();
         var uiServer = new UiHttpServer(
@@ -58,14 +92,29 @@ public final class Application {
                 stockService,
                 orderService,
                 tokenService,
-                notificationService
+                notificationService,
+                quoteStream,
+                notificationStream
         );
         uiServer.start();
 
+        // one hook, in dependency order: the feed stops first so nothing produces prices, orders or
+        // writes behind the components closed after it, and persistence closes last
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            marketDataService.close();
+            if (tickJournal != null) {
+                tickJournal.close();
+            }
+            quoteStream.close();
+            notificationStream.close();
             uiServer.close();
+            expiryTimer.close();
+            if (orderSequencer != null) {
+                orderSequencer.close();
+            }
+            postTrade.close();
+            priceWriter.close();
             persistence.close();
-            marketDataService.close();
         }));
 
         System.out.println("BrokerX ready on http://localhost:" + port);
@@ -12,7 +12,9 @@ import com.brokerx.adapters.persistence.jdbc.PersistenceException;
 
 public class DatabaseMigrator {
     private static final String[] MIGRATIONS = {
-        "db/migration/V1__init.sql"
+        "db/migration/V1__init.sql",
+        "db/migration/V2__order_time_in_force.sql",
+        "db/migration/V3__account_version.sql"
     };
 
     private final DataSource dataSource;
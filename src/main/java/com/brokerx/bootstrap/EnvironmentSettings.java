@@ -0,0 +1,46 @@
+package com.brokerx.bootstrap;
+
+import java.util.Optional;
+
+public final class EnvironmentSettings {
+    private EnvironmentSettings() {
+    }
+
+    public static String string(String key, String defaultValue) {
+        return Optional.ofNullable(System.getenv(key))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .orElse(defaultValue);
+    }
+
+    public static int integer(String key, int defaultValue) {
+        String raw = string(key, null);
+        if (raw == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException ex) {
+            System.err.println("Invalid " + key + " value, using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long longValue(String key, long defaultValue) {
+        String raw = string(key, null);
+        if (raw == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException ex) {
+            System.err.println("Invalid " + key + " value, using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean bool(String key, boolean defaultValue) {
+        String raw = string(key, null);
+        return raw == null ? defaultValue : Boolean.parseBoolean(raw);
+    }
+}
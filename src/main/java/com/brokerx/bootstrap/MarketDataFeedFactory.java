@@ -0,0 +1,77 @@
+package com.brokerx.bootstrap;
+
+import java.nio.file.Path;
+
+import com.brokerx.adapters.marketdata.MappedTickFile;
+import com.brokerx.adapters.marketdata.MappedTickJournal;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.StockService;
+import com.brokerx.ports.TickJournal;
+
+public final class MarketDataFeedFactory {
+    private MarketDataFeedFactory() {
+    }
+
+    /**
+     * Builds the market data service; {@code BROKERX_MARKET_SEED} pins the random walk so a load test or
+     * a demo replays the same price path on every run.
+     */
+    public static MarketDataService createFromEnvironment() {
+        String seed = EnvironmentSettings.string("BROKERX_MARKET_SEED", null);
+        return seed == null
+                ? new MarketDataService()
+                : new MarketDataService(EnvironmentSettings.longValue("BROKERX_MARKET_SEED", 0L));
+    }
+
+    /**
+     * Journals every published snapshot under {@code BROKERX_TICK_JOURNAL_DIR}; returns {@code null} when
+     * the variable is unset. Call it before the feed starts so the first ticks are recorded.
+     */
+    public static TickJournal attachJournalFromEnvironment(MarketDataService marketDataService) {
+        String directory = EnvironmentSettings.string("BROKERX_TICK_JOURNAL_DIR", null);
+        if (directory == null) {
+            return null;
+        }
+        TickJournal journal = MappedTickJournal.open(Path.of(directory), EnvironmentSettings.integer(
+                "BROKERX_TICK_JOURNAL_SEGMENT_RECORDS", MappedTickJournal.DEFAULT_RECORDS_PER_SEGMENT));
+        marketDataService.subscribe(snapshot ->
+                journal.append(snapshot.symbol(), snapshot.priceCents(), snapshot.timestamp()));
+        return journal;
+    }
+
+    /**
+     * Replays {@code BROKERX_MARKET_REPLAY_FILE} when it is set; otherwise starts the scheduled price feed
+     * unless {@code BROKERX_MARKET_TICK_RATE} is {@code 0}, in which case prices keep moving only when
+     * they are read. Returns whether a feed runs.
+     */
+    public static boolean startFromEnvironment(MarketDataService marketDataService, StockService stockService) {
+        String replayFile = EnvironmentSettings.string("BROKERX_MARKET_REPLAY_FILE", null);
+        if (replayFile != null) {
+            MappedTickFile ticks = MappedTickFile.open(Path.of(replayFile));
+            stockService.attachToFeed();
+            marketDataService.startReplay(ticks, replaySpeed());
+            return true;
+        }
+        int ticksPerSecond = EnvironmentSettings.integer("BROKERX_MARKET_TICK_RATE", 1);
+        if (ticksPerSecond <= 0) {
+            return false;
+        }
+        int symbols = EnvironmentSettings.integer("BROKERX_MARKET_SYMBOLS", 0);
+        stockService.attachToFeed();
+        marketDataService.startFeed(ticksPerSecond, symbols);
+        return true;
+    }
+
+    private static double replaySpeed() {
+        String raw = EnvironmentSettings.string("BROKERX_MARKET_REPLAY_SPEED", "1");
+        if (raw.equalsIgnoreCase("max")) {
+            return MarketDataService.AS_FAST_AS_POSSIBLE;
+        }
+        try {
+            return Double.parseDouble(raw.endsWith("x") ? raw.substring(0, raw.length() - 1) : raw);
+        } catch (NumberFormatException ex) {
+            System.err.println("Invalid BROKERX_MARKET_REPLAY_SPEED value, using default 1");
+            return 1;
+        }
+    }
+}
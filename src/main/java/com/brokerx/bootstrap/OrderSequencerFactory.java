@@ -0,0 +1,26 @@
+package com.brokerx.bootstrap;
+
+import java.time.Duration;
+
+import com.brokerx.application.OrderSequencer;
+
+public final class OrderSequencerFactory {
+    private OrderSequencerFactory() {
+    }
+
+    public static OrderSequencer createFromEnvironment() {
+        int partitions = EnvironmentSettings.integer(
+                "BROKERX_ORDER_PARTITIONS",
+                Runtime.getRuntime().availableProcessors()
+        );
+        if (partitions <= 0) {
+            return null;
+        }
+        int capacity = EnvironmentSettings.integer("BROKERX_ORDER_QUEUE_CAPACITY", 1024);
+        long submitTimeoutMs = EnvironmentSettings.longValue("BROKERX_ORDER_SUBMIT_TIMEOUT_MS", 30_000L);
+        if (submitTimeoutMs <= 0) {
+            submitTimeoutMs = 30_000L;
+        }
+        return new OrderSequencer(partitions, capacity, Duration.ofMillis(submitTimeoutMs));
+    }
+}
@@ -20,6 +20,7 @@ import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
 import com.brokerx.adapters.persistence.memory.InMemoryTransactionRepository;
 import com.brokerx.adapters.persistence.memory.InMemoryWalletRepository;
 import com.brokerx.adapters.persistence.memory.NoopTransactionManager;
+import com.brokerx.cache.StockReferenceCache;
 import com.brokerx.ports.AccountAuditRepository;
 import com.brokerx.ports.AccountRepository;
 import com.brokerx.ports.OrderAuditRepository;
@@ -51,7 +52,7 @@ public final class PersistenceProvider {
                     new AccountRepositoryJdbc(dataSource),
                     new WalletRepositoryJdbc(dataSource),
                     new TransactionRepositoryJdbc(dataSource),
-                    new StockRepositoryJdbc(dataSource),
+                    new StockReferenceCache(new StockRepositoryJdbc(dataSource)),
                     new AccountAuditRepositoryJdbc(dataSource),
                     new OrderRepositoryJdbc(dataSource),
                     new PositionRepositoryJdbc(dataSource),
@@ -73,7 +74,7 @@ public final class PersistenceProvider {
                 new InMemoryAccountRepository(),
                 new InMemoryWalletRepository(),
                 new InMemoryTransactionRepository(),
-                new InMemoryStockRepository(),
+                new StockReferenceCache(new InMemoryStockRepository()),
                 new InMemoryAccountAuditRepository(),
                 new InMemoryOrderRepository(),
                 new InMemoryPositionRepository(),
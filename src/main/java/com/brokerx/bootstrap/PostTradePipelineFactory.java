@@ -0,0 +1,21 @@
+package com.brokerx.bootstrap;
+
+import com.brokerx.application.NotificationService;
+import com.brokerx.application.PostTradePipeline;
+import com.brokerx.ports.OrderAuditRepository;
+
+public final class PostTradePipelineFactory {
+    private PostTradePipelineFactory() {
+    }
+
+    public static PostTradePipeline createFromEnvironment(OrderAuditRepository auditRepository,
+                                                          NotificationService notificationService) {
+        int capacity = EnvironmentSettings.integer("BROKERX_POST_TRADE_CAPACITY", 4096);
+        int batchSize = EnvironmentSettings.integer("BROKERX_POST_TRADE_BATCH", 256);
+        var pipeline = new PostTradePipeline(auditRepository, notificationService, capacity, batchSize);
+        if (EnvironmentSettings.bool("BROKERX_POST_TRADE_ASYNC", true)) {
+            pipeline.start();
+        }
+        return pipeline;
+    }
+}
@@ -0,0 +1,47 @@
+package com.brokerx.bootstrap;
+
+import java.util.Map;
+
+import com.brokerx.interfaces.rest.RequestExecutor;
+import com.brokerx.interfaces.rest.RequestExecutor.Mode;
+import com.brokerx.observability.StructuredLogger;
+
+public final class RequestExecutorFactory {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(RequestExecutorFactory.class);
+
+    private RequestExecutorFactory() {
+    }
+
+    public static RequestExecutor createFromEnvironment(String server) {
+        Mode mode = mode(EnvironmentSettings.string("BROKERX_HTTP_EXECUTOR", "bounded"));
+        int workers = EnvironmentSettings.integer("BROKERX_HTTP_WORKERS",
+                Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+        int queue = EnvironmentSettings.integer("BROKERX_HTTP_QUEUE", 256);
+        int maxInFlight = EnvironmentSettings.integer("BROKERX_HTTP_MAX_IN_FLIGHT", 1024);
+        RequestExecutor executor = switch (mode) {
+            case DISPATCHER -> RequestExecutor.dispatcher(server);
+            case BOUNDED -> RequestExecutor.bounded(server, workers, queue);
+            case VIRTUAL -> RequestExecutor.virtual(server, maxInFlight, workers, queue);
+        };
+        LOGGER.info("http_executor_configured", Map.of(
+                "server", server,
+                "mode", executor.mode().name(),
+                "workers", workers,
+                "queue", queue,
+                "maxInFlight", maxInFlight
+        ));
+        return executor;
+    }
+
+    private static Mode mode(String label) {
+        try {
+            return Mode.fromLabel(label);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("http_executor_invalid", Map.of(
+                    "value", label,
+                    "fallback", Mode.BOUNDED.name()
+            ));
+            return Mode.BOUNDED;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.brokerx.bootstrap;
+
+import java.time.Duration;
+
+import com.brokerx.application.StockPriceWriteBehind;
+import com.brokerx.ports.StockRepository;
+import com.brokerx.ports.TransactionManager;
+
+public final class StockPriceWriteBehindFactory {
+    private StockPriceWriteBehindFactory() {
+    }
+
+    public static StockPriceWriteBehind createFromEnvironment(StockRepository stockRepository,
+                                                              TransactionManager transactionManager) {
+        long flushMillis = EnvironmentSettings.longValue("BROKERX_PRICE_FLUSH_MS", 500L);
+        int threshold = EnvironmentSettings.integer("BROKERX_PRICE_FLUSH_THRESHOLD", 256);
+        var writer = new StockPriceWriteBehind(stockRepository, transactionManager,
+                Duration.ofMillis(flushMillis), threshold);
+        if (EnvironmentSettings.bool("BROKERX_PRICE_WRITE_BEHIND", true)) {
+            writer.start();
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,57 @@
+package com.brokerx.bootstrap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import com.brokerx.interfaces.rest.TokenService;
+import com.brokerx.interfaces.rest.TokenService.SigningKey;
+import com.brokerx.observability.StructuredLogger;
+
+public final class TokenServiceFactory {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(TokenServiceFactory.class);
+
+    private TokenServiceFactory() {
+    }
+
+    /**
+     * {@code BROKERX_TOKEN_KEYS} lists {@code keyId:base64Secret} pairs separated by commas; the first key
+     * signs, the others only verify tokens issued before a rotation. Every instance behind the gateway
+     * must share the list for their tokens to be interchangeable.
+     */
+    public static TokenService createFromEnvironment() {
+        Duration ttl = Duration.ofMinutes(EnvironmentSettings.longValue("BROKERX_TOKEN_TTL_MINUTES", 240L));
+        String configured = EnvironmentSettings.string("BROKERX_TOKEN_KEYS", null);
+        if (configured == null) {
+            LOGGER.warn("token_keys_generated", Map.of(
+                    "reason", "BROKERX_TOKEN_KEYS not set, tokens are only valid on this instance"
+            ));
+            return new TokenService(ttl);
+        }
+        List<SigningKey> keys = parseKeys(configured);
+        SigningKey current = keys.get(0);
+        return new TokenService(ttl, current, keys.subList(1, keys.size()).toArray(SigningKey[]::new));
+    }
+
+    static List<SigningKey> parseKeys(String configured) {
+        List<SigningKey> keys = new ArrayList<>();
+        for (String entry : configured.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("BROKERX_TOKEN_KEYS entries must be keyId:base64Secret");
+            }
+            keys.add(new SigningKey(trimmed.substring(0, separator),
+                    Base64.getDecoder().decode(trimmed.substring(separator + 1).trim())));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("BROKERX_TOKEN_KEYS is empty");
+        }
+        return keys;
+    }
+}
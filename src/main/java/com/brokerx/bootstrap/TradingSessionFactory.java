@@ -0,0 +1,25 @@
+package com.brokerx.bootstrap;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import com.brokerx.application.TradingSession;
+
+public final class TradingSessionFactory {
+    private TradingSessionFactory() {
+    }
+
+    public static TradingSession createFromEnvironment() {
+        TradingSession defaults = TradingSession.DEFAULT;
+        String raw = EnvironmentSettings.string("BROKERX_SESSION_CLOSE", null);
+        if (raw == null) {
+            return defaults;
+        }
+        try {
+            return new TradingSession(defaults.zone(), LocalTime.parse(raw));
+        } catch (DateTimeParseException ex) {
+            System.err.println("Invalid BROKERX_SESSION_CLOSE value, using default " + defaults.close());
+            return defaults;
+        }
+    }
+}
@@ -17,10 +17,13 @@ import com.brokerx.application.NotificationService;
 import com.brokerx.application.OrderService;
 import com.brokerx.application.OrderService.OrderCommand;
 import com.brokerx.application.OrderService.OrderResult;
+import com.brokerx.application.NotificationStreamHub;
+import com.brokerx.application.QuoteStreamHub;
 import com.brokerx.application.StockService;
 import com.brokerx.application.WalletService;
 import com.brokerx.interfaces.rest.ApiRouter;
 import com.brokerx.interfaces.rest.MetricsHandler;
+import com.brokerx.interfaces.rest.RequestExecutor;
 import com.brokerx.interfaces.rest.TokenService;
 import com.brokerx.domain.account.UserAccount;
 import com.brokerx.domain.wallet.Transaction;
@@ -33,12 +36,15 @@ public class UiHttpServer implements AutoCloseable {
     private static final String JSON_CONTENT = "application/json; charset=utf-8";
 
     private final HttpServer server;
+    private final RequestExecutor executor;
     private final AuthService authService;
     private final WalletService walletService;
     private final StockService stockService;
     private final OrderService orderService;
     private final TokenService tokenService;
     private final NotificationService notificationService;
+    private final QuoteStreamHub quoteStream;
+    private final NotificationStreamHub notificationStream;
 
     public UiHttpServer(int port,
                         AuthService authService,
@@ -46,15 +52,20 @@ public class UiHttpServer implements AutoCloseable {
                         StockService stockService,
                         OrderService orderService,
                         TokenService tokenService,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        QuoteStreamHub quoteStream,
+                        NotificationStreamHub notificationStream) {
         this.authService = authService;
         this.walletService = walletService;
         this.stockService = stockService;
         this.orderService = orderService;
         this.tokenService = tokenService;
         this.notificationService = notificationService;
+        this.quoteStream = quoteStream;
+        this.notificationStream = notificationStream;
+        this.executor = RequestExecutorFactory.createFromEnvironment("ui");
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = executor.createServer(new InetSocketAddress(port));
         } catch (IOException e) {
             throw new IllegalStateException("Unable to start HTTP server", e);
         }
@@ -80,7 +91,7 @@ public class UiHttpServer implements AutoCloseable {
         server.createContext("/api/stocks/followed", this::handleFollowedStocks);
         server.createContext("/api/stocks/details", this::handleStockDetails);
         server.createContext("/api/orders", this::handleOrders);
-        ApiRouter.register(server, authService, walletService, stockService, orderService, tokenService, notificationService);
+        ApiRouter.register(server, authService, walletService, stockService, orderService, tokenService, notificationService, quoteStream, notificationStream);
         server.createContext("/api/orders/cancel", this::handleOrderCancel);
         server.createContext("/metrics", new MetricsHandler());
     }
@@ -92,6 +103,7 @@ public class UiHttpServer implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.close();
     }
 
     private void handleSignup(HttpExchange exchange) throws IOException {
@@ -416,7 +428,9 @@ public class UiHttpServer implements AutoCloseable {
                 Optional.ofNullable(data.get("type")).orElse("MARKET"),
                 data.get("quantity"),
                 data.get("price"),
-                data.get("clientOrderId")
+                data.get("clientOrderId"),
+                data.get("timeInForce"),
+                data.get("expiresAt")
         );
         try {
             OrderResult result = orderService.placeOrder(accountId, command);
@@ -509,7 +523,13 @@ public class UiHttpServer implements AutoCloseable {
             builder.append("\"notional\":null,");
         }
         builder.append("\"status\":\"").append(result.status()).append("\",")
+                .append("\"timeInForce\":\"").append(result.timeInForce()).append("\",")
                 .append("\"createdAt\":\"").append(result.createdAt()).append("\",");
+        if (result.expiresAt() != null) {
+            builder.append("\"expiresAt\":\"").append(result.expiresAt()).append("\",");
+        } else {
+            builder.append("\"expiresAt\":null,");
+        }
         if (result.executedAt() != null) {
             builder.append("\"executedAt\":\"").append(result.executedAt()).append("\",");
         } else {
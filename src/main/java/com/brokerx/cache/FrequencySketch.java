@@ -0,0 +1,95 @@
+package com.brokerx.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of 4-bit counters used as the TinyLFU popularity estimate of {@link TimedCache}.
+ * Each key maps to one counter in four different slots; its frequency is the smallest of the four.
+ * After {@code 10 x slots} increments every counter is halved, so the estimate favours recent
+ * popularity. Updates are lock-free CAS on packed longs.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_SLOTS = 1 << 22;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    FrequencySketch(long expectedEntries) {
+        int slots = Integer.highestOneBit((int) Math.max(16, Math.min(expectedEntries, MAX_SLOTS)) - 1) << 1;
+        this.table = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.sampleSize = 10 * slots;
+    }
+
+    void increment(Object key) {
+        int item = spread(key.hashCode());
+        int start = (item & 3) << 2;
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            added |= incrementAt(indexOf(item, row), (start + row) << 2);
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int item = spread(key.hashCode());
+        int start = (item & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < 4; row++) {
+            long slot = table.get(indexOf(item, row));
+            frequency = Math.min(frequency, (int) ((slot >>> ((start + row) << 2)) & 15L));
+        }
+        return frequency;
+    }
+
+    private boolean incrementAt(int index, int shift) {
+        while (true) {
+            long slot = table.get(index);
+            if (((slot >>> shift) & 15L) == 15L) {
+                return false;
+            }
+            if (table.compareAndSet(index, slot, slot + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) {
+            return; // another thread already aged the table
+        }
+        for (int i = 0; i < table.length(); i++) {
+            while (true) {
+                long slot = table.get(i);
+                if (table.compareAndSet(i, slot, (slot >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+        additions.set(sampleSize >>> 1);
+    }
+
+    private int indexOf(int item, int row) {
+        long hash = (item + SEEDS[row]) * SEEDS[row];
+        hash += hash >>> 32;
+        return (int) hash & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        hash *= 0xac4c1b51;
+        hash ^= hash >>> 15;
+        return hash;
+    }
+}
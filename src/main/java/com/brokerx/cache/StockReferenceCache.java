@@ -0,0 +1,253 @@
+package com.brokerx.cache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.brokerx.domain.stock.Stock;
+import com.brokerx.domain.stock.StockReference;
+import com.brokerx.ports.StockRepository;
+
+/**
+ * {@link StockRepository} decorator serving stock reference data (id, symbol, name, description) from
+ * memory. The listing is loaded once and every stock gets a dense, stable int index; lookups by symbol
+ * (case-insensitive) or id go through open-addressed tables of primitives, so resolving
+ * symbol &rarr; index &rarr; {@link StockReference} neither allocates nor queries the database. Unknown
+ * keys fall through to the delegate once, and a stock listed later is appended at the next index.
+ * Prices, follows and writes always go to the delegate.
+ */
+public final class StockReferenceCache implements StockRepository {
+    public static final int NOT_FOUND = -1;
+
+    private final StockRepository delegate;
+    private volatile Directory directory;
+
+    public StockReferenceCache(StockRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    /** Returns {@code stockRepository} itself when it already is a reference cache. */
+    public static StockReferenceCache wrap(StockRepository stockRepository) {
+        if (stockRepository instanceof StockReferenceCache cache) {
+            return cache;
+        }
+        return new StockReferenceCache(stockRepository);
+    }
+
+    public int indexOf(CharSequence symbol) {
+        return directory().indexOf(symbol);
+    }
+
+    public int indexOf(UUID stockId) {
+        return directory().indexOf(stockId);
+    }
+
+    public StockReference reference(int index) {
+        return directory().references[index];
+    }
+
+    /** Number of indexed stocks; indexes are {@code 0..size()-1}. */
+    public int size() {
+        return directory().references.length;
+    }
+
+    public Optional<StockReference> resolve(String symbol) {
+        int index = indexOf(symbol);
+        if (index != NOT_FOUND) {
+            return Optional.of(reference(index));
+        }
+        return delegate.findBySymbol(symbol).map(this::register);
+    }
+
+    public Optional<StockReference> resolve(UUID stockId) {
+        int index = indexOf(stockId);
+        if (index != NOT_FOUND) {
+            return Optional.of(reference(index));
+        }
+        return delegate.findById(stockId).map(this::register);
+    }
+
+    @Override
+    public List<Stock> findAll() {
+        StockReference[] references = directory().references;
+        List<Stock> stocks = new ArrayList<>(references.length);
+        for (StockReference reference : references) {
+            stocks.add(reference.toStock());
+        }
+        return stocks;
+    }
+
+    @Override
+    public Optional<Stock> findById(UUID stockId) {
+        return resolve(stockId).map(StockReference::toStock);
+    }
+
+    @Override
+    public Optional<Stock> findBySymbol(String symbol) {
+        return resolve(symbol).map(StockReference::toStock);
+    }
+
+    @Override
+    public void updatePrice(UUID stockId, Stock stock) {
+        delegate.updatePrice(stockId, stock);
+    }
+
+    @Override
+    public void updatePrices(Collection<Stock> stocks) {
+        delegate.updatePrices(stocks);
+    }
+
+    @Override
+    public List<Stock> findFollowedByAccount(UUID accountId) {
+        return delegate.findFollowedByAccount(accountId);
+    }
+
+    @Override
+    public void follow(UUID accountId, UUID stockId) {
+        delegate.follow(accountId, stockId);
+    }
+
+    @Override
+    public void unfollow(UUID accountId, UUID stockId) {
+        delegate.unfollow(accountId, stockId);
+    }
+
+    private Directory directory() {
+        Directory current = directory;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (directory == null) {
+                List<Stock> listed = delegate.findAll();
+                StockReference[] references = new StockReference[listed.size()];
+                Instant now = Instant.now();
+                for (int i = 0; i < references.length; i++) {
+                    references[i] = reference(i, listed.get(i), now);
+                }
+                directory = new Directory(references);
+            }
+            return directory;
+        }
+    }
+
+    private synchronized StockReference register(Stock stock) {
+        Directory current = directory();
+        int existing = current.indexOf(stock.getId());
+        if (existing != NOT_FOUND) {
+            return current.references[existing];
+        }
+        StockReference[] references = Arrays.copyOf(current.references, current.references.length + 1);
+        StockReference added = reference(references.length - 1, stock, Instant.now());
+        references[added.index()] = added;
+        directory = new Directory(references);
+        return added;
+    }
+
+    private static StockReference reference(int index, Stock stock, Instant loadedAt) {
+        return new StockReference(index, stock.getId(), stock.getSymbol(), stock.getName(),
+                stock.getDescription(), stock.getLastPrice(), loadedAt);
+    }
+
+    /** Immutable snapshot of the listing; replaced as a whole when a stock is appended. */
+    private static final class Directory {
+        private final StockReference[] references;
+        private final int mask;
+        private final int[] bySymbol;
+        private final int[] byId;
+        private final long[] idBits;
+
+        private Directory(StockReference[] references) {
+            this.references = references;
+            int capacity = Integer.highestOneBit(Math.max(4, references.length * 2) - 1) << 1;
+            this.mask = capacity - 1;
+            this.bySymbol = new int[capacity];
+            this.byId = new int[capacity];
+            this.idBits = new long[references.length * 2];
+            // slots hold index + 1 so that 0 marks an empty slot
+            for (StockReference reference : references) {
+                int index = reference.index();
+                idBits[2 * index] = reference.id().getMostSignificantBits();
+                idBits[2 * index + 1] = reference.id().getLeastSignificantBits();
+                insert(bySymbol, symbolHash(reference.symbol()), index);
+                insert(byId, idHash(idBits[2 * index], idBits[2 * index + 1]), index);
+            }
+        }
+
+        private int indexOf(CharSequence symbol) {
+            if (symbol == null) {
+                return NOT_FOUND;
+            }
+            for (int slot = symbolHash(symbol) & mask; ; slot = (slot + 1) & mask) {
+                int entry = bySymbol[slot];
+                if (entry == 0) {
+                    return NOT_FOUND;
+                }
+                if (equalsIgnoreCase(references[entry - 1].symbol(), symbol)) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        private int indexOf(UUID stockId) {
+            if (stockId == null) {
+                return NOT_FOUND;
+            }
+            long most = stockId.getMostSignificantBits();
+            long least = stockId.getLeastSignificantBits();
+            for (int slot = idHash(most, least) & mask; ; slot = (slot + 1) & mask) {
+                int entry = byId[slot];
+                if (entry == 0) {
+                    return NOT_FOUND;
+                }
+                int index = entry - 1;
+                if (idBits[2 * index] == most && idBits[2 * index + 1] == least) {
+                    return index;
+                }
+            }
+        }
+
+        private void insert(int[] table, int hash, int index) {
+            int slot = hash & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+
+        private static int symbolHash(CharSequence symbol) {
+            int hash = 0;
+            for (int i = 0; i < symbol.length(); i++) {
+                hash = 31 * hash + Character.toUpperCase(symbol.charAt(i));
+            }
+            return spread(hash);
+        }
+
+        private static int idHash(long most, long least) {
+            return spread(Long.hashCode(most ^ least));
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x45d9f3b;
+            hash ^= hash >>> 16;
+            return hash;
+        }
+
+        private static boolean equalsIgnoreCase(String symbol, CharSequence candidate) {
+            if (symbol.length() != candidate.length()) {
+                return false;
+            }
+            for (int i = 0; i < symbol.length(); i++) {
+                if (Character.toUpperCase(symbol.charAt(i)) != Character.toUpperCase(candidate.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
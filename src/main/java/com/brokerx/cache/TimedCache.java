@@ -1,57 +1,343 @@
 package com.brokerx.cache;
 
+import java.lang.ref.WeakReference;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import com.brokerx.observability.AppMetrics;
+
+/**
+ * TTL cache with single-flight loading: concurrent callers that miss the same key wait on one in-flight
+ * load instead of each running the loader. Once an entry is older than {@code refreshAhead} of its TTL,
+ * the next read still returns it but starts an asynchronous reload, so hot keys are refreshed before they
+ * expire and readers rarely block. A load started before {@link #invalidate} or {@link #put} never
+ * overwrites the newer state.
+ *
+ * <p>A bounded cache keeps the total {@link Weigher weight} of its entries under {@code maximumWeight}.
+ * Entries are evicted oldest-inserted first, with TinyLFU admission: a new key only displaces the oldest
+ * entry when the {@link FrequencySketch} has seen it more often, so a scan of one-off keys cannot flush
+ * the popular ones. Expired entries are removed by a shared background sweeper.
+ */
 public final class TimedCache<K, V> {
+    public static final double DEFAULT_REFRESH_AHEAD = 0.75;
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private static final Duration MIN_SWEEP_INTERVAL = Duration.ofSeconds(1);
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final ConcurrentHashMap<K, CacheEntry<V>> store = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final String name;
     private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final FrequencySketch sketch;
+    private final ConcurrentLinkedQueue<K> evictionQueue;
+    private final AtomicLong weight = new AtomicLong();
+    private final Object evictionLock = new Object();
 
     public TimedCache(Duration ttl) {
+        this("default", ttl);
+    }
+
+    public TimedCache(String name, Duration ttl) {
+        this(name, ttl, UNBOUNDED);
+    }
+
+    public TimedCache(String name, Duration ttl, long maximumSize) {
+        this(name, ttl, maximumSize, Weigher.singleton());
+    }
+
+    public TimedCache(String name, Duration ttl, long maximumWeight, Weigher<? super K, ? super V> weigher) {
+        this(name, ttl, DEFAULT_REFRESH_AHEAD, REFRESH_EXECUTOR, maximumWeight, weigher);
+    }
+
+    /**
+     * @param refreshAhead fraction of the TTL after which a read triggers a background reload; 1 or more
+     *                     disables refresh-ahead
+     */
+    public TimedCache(String name,
+                      Duration ttl,
+                      double refreshAhead,
+                      Executor refreshExecutor,
+                      long maximumWeight,
+                      Weigher<? super K, ? super V> weigher) {
         if (ttl == null || ttl.isNegative() || ttl.isZero()) {
             throw new IllegalArgumentException("ttl must be positive");
         }
+        if (refreshAhead <= 0) {
+            throw new IllegalArgumentException("refreshAhead must be positive");
+        }
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.name = Objects.requireNonNull(name, "name");
         this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = refreshAhead >= 1 ? Long.MAX_VALUE : (long) (ttlNanos * refreshAhead);
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor, "refreshExecutor");
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+        boolean bounded = maximumWeight != UNBOUNDED;
+        this.sketch = bounded ? new FrequencySketch(maximumWeight) : null;
+        this.evictionQueue = bounded ? new ConcurrentLinkedQueue<>() : null;
+        AppMetrics.trackCache(name, store::size, weight::get);
+        scheduleSweep(this, ttl.compareTo(MIN_SWEEP_INTERVAL) < 0 ? MIN_SWEEP_INTERVAL : ttl);
     }
 
     public V getOrCompute(K key, Supplier<V> loader) {
         Objects.requireNonNull(loader, "loader");
-        long now = System.nanoTime();
+        recordAccess(key);
         CacheEntry<V> cached = store.get(key);
-        if (cached != null && now - cached.createdAtNanos <= ttlNanos) {
-            return cached.value;
+        if (cached != null) {
+            long age = System.nanoTime() - cached.createdAtNanos;
+            if (age <= ttlNanos) {
+                if (age > refreshAfterNanos) {
+                    AppMetrics.recordCacheRequest(name, "refresh");
+                    refreshAsync(key, loader);
+                } else {
+                    AppMetrics.recordCacheRequest(name, "hit");
+                }
+                return cached.value;
+            }
+        }
+        AppMetrics.recordCacheRequest(name, "miss");
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
         }
-        V value = loader.get();
-        store.put(key, new CacheEntry<>(value, now));
-        return value;
+        runLoad(key, loader, load);
+        return await(load);
     }
 
     public Optional<V> getIfPresent(K key) {
+        recordAccess(key);
         CacheEntry<V> cached = store.get(key);
         if (cached == null) {
             return Optional.empty();
         }
         if (System.nanoTime() - cached.createdAtNanos > ttlNanos) {
-            store.remove(key);
+            removeEntry(key, cached, "expired");
             return Optional.empty();
         }
         return Optional.ofNullable(cached.value);
     }
 
     public void put(K key, V value) {
-        store.put(key, new CacheEntry<>(value, System.nanoTime()));
+        inFlight.remove(key);
+        recordAccess(key);
+        storeEntry(key, value, System.nanoTime());
     }
 
     public void invalidate(K key) {
-        store.remove(key);
+        inFlight.remove(key);
+        CacheEntry<V> removed = store.remove(key);
+        if (removed != null) {
+            weight.addAndGet(-removed.weight);
+        }
     }
 
     public void clear() {
-        store.clear();
+        inFlight.clear();
+        for (K key : store.keySet()) {
+            invalidate(key);
+        }
+        if (evictionQueue != null) {
+            evictionQueue.clear();
+        }
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long weightedSize() {
+        return weight.get();
+    }
+
+    /** Removes the expired entries; the background sweeper calls this once per TTL. */
+    int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<K, CacheEntry<V>> entry : store.entrySet()) {
+            if (now - entry.getValue().createdAtNanos > ttlNanos
+                    && removeEntry(entry.getKey(), entry.getValue(), "expired")) {
+                removed++;
+            }
+        }
+        if (evictionQueue != null) {
+            evictionQueue.removeIf(key -> !store.containsKey(key));
+        }
+        return removed;
+    }
+
+    private void recordAccess(K key) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+    }
+
+    private void refreshAsync(K key, Supplier<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, load) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> runLoad(key, loader, load));
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, load);
+            load.completeExceptionally(ex);
+        }
+    }
+
+    private void runLoad(K key, Supplier<V> loader, CompletableFuture<V> load) {
+        long start = System.nanoTime();
+        try {
+            // the value only lands if no put/invalidate replaced this load meanwhile
+            V value = loader.get();
+            if (inFlight.remove(key, load)) {
+                storeEntry(key, value, start);
+            }
+            AppMetrics.recordCacheLoad(name, "success", Duration.ofNanos(System.nanoTime() - start));
+            load.complete(value);
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, load);
+            AppMetrics.recordCacheLoad(name, "failure", Duration.ofNanos(System.nanoTime() - start));
+            load.completeExceptionally(ex);
+        }
+    }
+
+    private void storeEntry(K key, V value, long createdAtNanos) {
+        int entryWeight = weigher.weigh(key, value);
+        if (entryWeight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        CacheEntry<V> previous = store.put(key, new CacheEntry<>(value, createdAtNanos, entryWeight));
+        weight.addAndGet(entryWeight - (previous != null ? previous.weight : 0));
+        if (evictionQueue == null) {
+            return;
+        }
+        if (previous == null) {
+            evictionQueue.offer(key);
+        }
+        if (weight.get() > maximumWeight) {
+            evict(key);
+        }
+    }
+
+    /**
+     * Brings the cache back under its maximum weight. The oldest-inserted entry is the victim unless it
+     * expired already; TinyLFU admission then keeps whichever of the victim and {@code candidate} the
+     * sketch has seen more often, the victim winning ties.
+     */
+    private void evict(K candidate) {
+        synchronized (evictionLock) {
+            long now = System.nanoTime();
+            int attempts = evictionQueue.size() + 1;
+            while (weight.get() > maximumWeight && attempts-- > 0) {
+                K victimKey = evictionQueue.poll();
+                if (victimKey == null) {
+                    return;
+                }
+                CacheEntry<V> victim = store.get(victimKey);
+                if (victim == null) {
+                    continue;
+                }
+                if (now - victim.createdAtNanos > ttlNanos) {
+                    removeEntry(victimKey, victim, "expired");
+                    continue;
+                }
+                if (victimKey.equals(candidate)) {
+                    evictionQueue.offer(victimKey);
+                    continue;
+                }
+                CacheEntry<V> incoming = store.get(candidate);
+                if (incoming != null && sketch.frequency(candidate) <= sketch.frequency(victimKey)) {
+                    removeEntry(candidate, incoming, "rejected");
+                    evictionQueue.offer(victimKey);
+                    continue;
+                }
+                removeEntry(victimKey, victim, "size");
+            }
+        }
+    }
+
+    private boolean removeEntry(K key, CacheEntry<V> entry, String reason) {
+        if (!store.remove(key, entry)) {
+            return false;
+        }
+        weight.addAndGet(-entry.weight);
+        AppMetrics.recordCacheEviction(name, reason);
+        return true;
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    /** The sweep task only holds the cache weakly, and cancels itself once the cache is collected. */
+    private static void scheduleSweep(TimedCache<?, ?> cache, Duration interval) {
+        WeakReference<TimedCache<?, ?>> reference = new WeakReference<>(cache);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        long millis = interval.toMillis();
+        task.set(SWEEPER.scheduleWithFixedDelay(() -> {
+            TimedCache<?, ?> target = reference.get();
+            if (target == null) {
+                ScheduledFuture<?> self = task.get();
+                if (self != null) {
+                    self.cancel(false);
+                }
+                return;
+            }
+            target.sweep();
+        }, millis, millis, TimeUnit.MILLISECONDS));
+    }
+
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        int weigh(K key, V value);
+
+        static <K, V> Weigher<K, V> singleton() {
+            return (key, value) -> 1;
+        }
     }
 
-    private record CacheEntry<V>(V value, long createdAtNanos) { }
+    private record CacheEntry<V>(V value, long createdAtNanos, int weight) { }
 }
@@ -0,0 +1,124 @@
+package com.brokerx.cache;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.brokerx.domain.order.TradeOrder;
+import com.brokerx.ports.OrderRepository;
+import com.brokerx.ports.TransactionManager;
+
+/**
+ * {@link OrderRepository} decorator keeping a per-account version of the order book: every write bumps
+ * the version of the accounts it touches, once when the statement runs and once more after the commit.
+ * A reader that takes the version before reading the orders may pair it with newer rows, never with rows
+ * older than the version: whatever commits afterwards shows up as a higher version, so the version is a
+ * safe validator for the account's order list. Only writes made through this process are seen; another
+ * process writing the same tables leaves these versions unchanged.
+ */
+public final class VersionedOrderRepository implements OrderRepository {
+    private final OrderRepository delegate;
+    private final TransactionManager transactionManager;
+    private final Map<UUID, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public VersionedOrderRepository(OrderRepository delegate, TransactionManager transactionManager) {
+        this.delegate = delegate;
+        this.transactionManager = transactionManager;
+    }
+
+    /** Version of the orders of {@code accountId}; 0 until this process writes one of them. */
+    public long version(UUID accountId) {
+        AtomicLong version = versions.get(accountId);
+        return version == null ? 0 : version.get();
+    }
+
+    @Override
+    public void save(TradeOrder order) {
+        delegate.save(order);
+        touched(Set.of(order.accountId()));
+    }
+
+    @Override
+    public void update(TradeOrder order) {
+        delegate.update(order);
+        touched(Set.of(order.accountId()));
+    }
+
+    @Override
+    public void updateAll(List<TradeOrder> orders) {
+        delegate.updateAll(orders);
+        touched(accountsOf(orders));
+    }
+
+    @Override
+    public List<TradeOrder> claimCrossing(UUID stockId, BigDecimal price) {
+        List<TradeOrder> claimed = delegate.claimCrossing(stockId, price);
+        touched(accountsOf(claimed));
+        return claimed;
+    }
+
+    @Override
+    public List<TradeOrder> lockPending(Collection<UUID> orderIds) {
+        return delegate.lockPending(orderIds);
+    }
+
+    @Override
+    public List<TradeOrder> findPendingWithExpiry() {
+        return delegate.findPendingWithExpiry();
+    }
+
+    @Override
+    public Optional<TradeOrder> findById(UUID orderId) {
+        return delegate.findById(orderId);
+    }
+
+    @Override
+    public Optional<TradeOrder> findByClientOrderId(UUID accountId, String clientOrderId) {
+        return delegate.findByClientOrderId(accountId, clientOrderId);
+    }
+
+    @Override
+    public List<TradeOrder> findPendingByStock(UUID stockId) {
+        return delegate.findPendingByStock(stockId);
+    }
+
+    @Override
+    public List<TradeOrder> findByAccount(UUID accountId) {
+        return delegate.findByAccount(accountId);
+    }
+
+    @Override
+    public List<TradeOrder> findAll() {
+        return delegate.findAll();
+    }
+
+    private void touched(Set<UUID> accountIds) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        bump(accountIds);
+        // until the commit, readers still see the previous rows under the first bump
+        transactionManager.afterCommit(() -> bump(accountIds));
+    }
+
+    private void bump(Set<UUID> accountIds) {
+        for (UUID accountId : accountIds) {
+            versions.computeIfAbsent(accountId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static Set<UUID> accountsOf(List<TradeOrder> orders) {
+        Set<UUID> accountIds = new LinkedHashSet<>();
+        for (TradeOrder order : orders) {
+            accountIds.add(order.accountId());
+        }
+        return accountIds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.brokerx.domain.account;
+
+import java.util.UUID;
+
+/**
+ * Narrow projection of an account for authorization checks on hot paths. {@code version} grows with
+ * every update of the account row, so a cached copy can be told apart from a newer one.
+ */
+public record AccountStatus(UUID id, AccountState state, long version) {
+    public boolean isActive() {
+        return state == AccountState.ACTIVE;
+    }
+}
@@ -0,0 +1,101 @@
+package com.brokerx.domain.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amounts held as a primitive {@code long} of cents (two implied decimals), the scale
+ * every price, notional and balance of the platform is rounded to. Arithmetic is overflow-checked and
+ * every division names its rounding mode. {@link BigDecimal} only appears at the JDBC and JSON edges,
+ * through {@link #fromDecimal(BigDecimal)} and {@link #toDecimal(long)}.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+    public static final long ONE = 100;
+    public static final long ZERO = 0;
+
+    private Money() {
+    }
+
+    public static long ofUnits(long units) {
+        return Math.multiplyExact(units, ONE);
+    }
+
+    public static long fromDecimal(BigDecimal value) {
+        try {
+            return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new ArithmeticException("Amount out of range: " + value.toPlainString());
+        }
+    }
+
+    public static long parse(String raw) {
+        return fromDecimal(new BigDecimal(raw.trim()));
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /** Price times a whole quantity; exact, since the quantity carries no decimals. */
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /** {@code cents * numerator / denominator}, rounded with {@code mode}. */
+    public static long scale(long cents, long numerator, long denominator, RoundingMode mode) {
+        return divide(Math.multiplyExact(cents, numerator), denominator, mode);
+    }
+
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twiceRemainder >= absDivisor;
+            case HALF_DOWN -> twiceRemainder > absDivisor;
+            case HALF_EVEN -> twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    /** Plain decimal rendering, e.g. {@code 12345 -> "123.45"}, without going through BigDecimal. */
+    public static String format(long cents) {
+        StringBuilder builder = new StringBuilder(24);
+        long abs = cents;
+        if (cents < 0) {
+            builder.append('-');
+            abs = -cents;
+            if (abs < 0) {
+                return toDecimal(cents).toPlainString();
+            }
+        }
+        long fraction = abs % ONE;
+        builder.append(abs / ONE).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+}
@@ -4,5 +4,6 @@ public enum OrderStatus {
     PENDING,
     FAILED,
     COMPLETED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED
 }
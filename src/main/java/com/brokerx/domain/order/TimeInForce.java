@@ -0,0 +1,12 @@
+package com.brokerx.domain.order;
+
+/**
+ * How long a LIMIT order may rest in the book: until cancelled (GTC), until the end of the trading
+ * day (DAY), until an explicit deadline (GTD), or not at all (IOC, cancelled if it cannot fill on arrival).
+ */
+public enum TimeInForce {
+    GTC,
+    DAY,
+    GTD,
+    IOC
+}
@@ -5,6 +5,8 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.brokerx.domain.money.Money;
+
 public record TradeOrder(
         UUID id,
         UUID accountId,
@@ -21,9 +23,37 @@ public record TradeOrder(
         Instant createdAt,
         Instant updatedAt,
         Instant executedAt,
-        String failureReason
+        String failureReason,
+        TimeInForce timeInForce,
+        Instant expiresAt
 ) {
 
+    public TradeOrder {
+        timeInForce = timeInForce != null ? timeInForce : TimeInForce.GTC;
+    }
+
+    public TradeOrder(
+            UUID id,
+            UUID accountId,
+            UUID stockId,
+            String symbol,
+            OrderSide side,
+            OrderType type,
+            int quantity,
+            BigDecimal limitPrice,
+            BigDecimal executedPrice,
+            BigDecimal notional,
+            String clientOrderId,
+            OrderStatus status,
+            Instant createdAt,
+            Instant updatedAt,
+            Instant executedAt,
+            String failureReason
+    ) {
+        this(id, accountId, stockId, symbol, side, type, quantity, limitPrice, executedPrice, notional,
+                clientOrderId, status, createdAt, updatedAt, executedAt, failureReason, TimeInForce.GTC, null);
+    }
+
     public static TradeOrder marketCompleted(
             UUID id,
             UUID accountId,
@@ -91,9 +121,9 @@ public record TradeOrder(
         );
     }
 
-    public TradeOrder complete(BigDecimal executionPrice, Instant executedAt) {
-        BigDecimal scaledPrice = scale(executionPrice);
-        BigDecimal scaledNotional = scaledPrice.multiply(BigDecimal.valueOf(quantity())).setScale(2, RoundingMode.HALF_UP);
+    public TradeOrder complete(long executionPriceCents, Instant executedAt) {
+        BigDecimal scaledPrice = Money.toDecimal(executionPriceCents);
+        BigDecimal scaledNotional = Money.toDecimal(Money.times(executionPriceCents, quantity()));
         Instant now = Instant.now();
         Instant effectiveExecution = executedAt != null ? executedAt : now;
         return new TradeOrder(
@@ -112,15 +142,15 @@ public record TradeOrder(
                 createdAt,
                 now,
                 effectiveExecution,
-                null
+                null,
+                timeInForce,
+                expiresAt
         );
     }
 
-    public TradeOrder fail(String reason, BigDecimal attemptedPrice, Instant executedAt) {
-        BigDecimal scaledPrice = attemptedPrice != null ? scale(attemptedPrice) : null;
-        BigDecimal scaledNotional = scaledPrice != null
-                ? scaledPrice.multiply(BigDecimal.valueOf(quantity())).setScale(2, RoundingMode.HALF_UP)
-                : null;
+    public TradeOrder fail(String reason, long attemptedPriceCents, Instant executedAt) {
+        BigDecimal scaledPrice = Money.toDecimal(attemptedPriceCents);
+        BigDecimal scaledNotional = Money.toDecimal(Money.times(attemptedPriceCents, quantity()));
         Instant now = Instant.now();
         Instant effectiveExecution = executedAt != null ? executedAt : now;
         return new TradeOrder(
@@ -139,10 +169,20 @@ public record TradeOrder(
                 createdAt,
                 now,
                 effectiveExecution,
-                reason
+                reason,
+                timeInForce,
+                expiresAt
         );
     }
 
+    public long limitPriceCents() {
+        return limitPrice != null ? Money.fromDecimal(limitPrice) : Money.ZERO;
+    }
+
+    public long notionalCents() {
+        return notional != null ? Money.fromDecimal(notional) : Money.ZERO;
+    }
+
     public boolean isPending() {
         return status == OrderStatus.PENDING;
     }
@@ -165,7 +205,33 @@ public record TradeOrder(
                 createdAt,
                 now,
                 now,
-                reason
+                reason,
+                timeInForce,
+                expiresAt
+        );
+    }
+
+    public TradeOrder expire(Instant expiredAt) {
+        Instant now = expiredAt != null ? expiredAt : Instant.now();
+        return new TradeOrder(
+                id,
+                accountId,
+                stockId,
+                symbol,
+                side,
+                type,
+                quantity(),
+                limitPrice,
+                executedPrice,
+                notional,
+                clientOrderId,
+                OrderStatus.EXPIRED,
+                createdAt,
+                now,
+                now,
+                "Expire (" + timeInForce + ")",
+                timeInForce,
+                expiresAt
         );
     }
 
@@ -5,6 +5,8 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.brokerx.domain.money.Money;
+
 public record Position(
         UUID accountId,
         UUID stockId,
@@ -12,20 +14,25 @@ public record Position(
         BigDecimal averagePrice,
         Instant updatedAt
 ) {
-    public Position withFill(BigDecimal executedPrice, int fillQuantity, Instant at) {
-        if (executedPrice == null || fillQuantity <= 0) {
+    public Position withFill(long executedPriceCents, int fillQuantity, Instant at) {
+        if (executedPriceCents <= 0 || fillQuantity <= 0) {
             throw new IllegalArgumentException("Executed price and quantity must be positive");
         }
-        BigDecimal fillQty = BigDecimal.valueOf(fillQuantity);
-        BigDecimal newQuantity = quantity.add(fillQty);
-        BigDecimal newAverage;
-        if (quantity.signum() == 0) {
-            newAverage = executedPrice.setScale(2, RoundingMode.HALF_UP);
+        // quantities are stored with two decimals as well, so they share the fixed-point scale
+        long heldHundredths = Money.fromDecimal(quantity);
+        long fillHundredths = Money.ofUnits(fillQuantity);
+        long newHundredths = Money.add(heldHundredths, fillHundredths);
+        long newAverageCents;
+        if (heldHundredths == 0) {
+            newAverageCents = executedPriceCents;
         } else {
-            BigDecimal totalCost = averagePrice.multiply(quantity).add(executedPrice.multiply(fillQty));
-            newAverage = totalCost.divide(newQuantity, 2, RoundingMode.HALF_UP);
+            long totalCost = Money.add(
+                    Math.multiplyExact(Money.fromDecimal(averagePrice), heldHundredths),
+                    Math.multiplyExact(executedPriceCents, fillHundredths));
+            newAverageCents = Money.divide(totalCost, newHundredths, RoundingMode.HALF_UP);
         }
-        return new Position(accountId, stockId, newQuantity, newAverage, at != null ? at : Instant.now());
+        return new Position(accountId, stockId, Money.toDecimal(newHundredths), Money.toDecimal(newAverageCents),
+                at != null ? at : Instant.now());
     }
 
     public static Position empty(UUID accountId, UUID stockId) {
@@ -0,0 +1,24 @@
+package com.brokerx.domain.stock;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable reference data of a listed stock. {@code index} is dense (0..n-1) and stable for the life of
+ * the process, so hot-path structures can address per-stock state by array slot. {@code listedPrice} is
+ * the stored price when the reference was loaded; it only seeds market data, which owns live prices.
+ */
+public record StockReference(
+        int index,
+        UUID id,
+        String symbol,
+        String name,
+        String description,
+        BigDecimal listedPrice,
+        Instant loadedAt
+) {
+    public Stock toStock() {
+        return new Stock(id, symbol, name, description, listedPrice, loadedAt);
+    }
+}
@@ -3,37 +3,52 @@ package com.brokerx.domain.wallet;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+import com.brokerx.domain.money.Money;
+
 public class Wallet {
     private UUID id;
     private UUID ownerId;
-    private BigDecimal balance;
+    private long balanceCents;
 
     public Wallet(UUID id, UUID ownerId) {
-        this(id, ownerId, BigDecimal.ZERO);
+        this(id, ownerId, Money.ZERO);
     }
 
     public Wallet(UUID id, UUID ownerId, BigDecimal initialBalance) {
+        this(id, ownerId, Money.fromDecimal(initialBalance));
+    }
+
+    public Wallet(UUID id, UUID ownerId, long initialBalanceCents) {
         this.id = id;
         this.ownerId = ownerId;
-        this.balance = initialBalance;
+        this.balanceCents = initialBalanceCents;
     }
 
     public UUID getId() { return id; }
     public UUID getOwnerId() { return ownerId; }
-    public BigDecimal getBalance() { return balance; }
+    public BigDecimal getBalance() { return Money.toDecimal(balanceCents); }
+    public long getBalanceCents() { return balanceCents; }
 
     public void credit(BigDecimal amount) {
-        if (amount.signum() <= 0) throw new IllegalArgumentException("amount must be > 0");
-        this.balance = this.balance.add(amount);
+        credit(Money.fromDecimal(amount));
+    }
+
+    public void credit(long cents) {
+        if (cents <= 0) throw new IllegalArgumentException("amount must be > 0");
+        this.balanceCents = Money.add(this.balanceCents, cents);
     }
 
     public void debit(BigDecimal amount) {
-        if (amount.signum() <= 0) {
+        debit(Money.fromDecimal(amount));
+    }
+
+    public void debit(long cents) {
+        if (cents <= 0) {
             throw new IllegalArgumentException("amount must be > 0");
         }
-        if (this.balance.compareTo(amount) < 0) {
+        if (this.balanceCents < cents) {
             throw new IllegalArgumentException("Insufficient funds");
         }
-        this.balance = this.balance.subtract(amount);
+        this.balanceCents = Money.subtract(this.balanceCents, cents);
     }
 }
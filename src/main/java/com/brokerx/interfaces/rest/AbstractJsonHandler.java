@@ -12,7 +12,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
@@ -25,10 +27,13 @@ import java.util.stream.Stream;
 public abstract class AbstractJsonHandler implements HttpHandler {
     private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
     private static final String ALLOW_METHODS = "GET,POST,PUT,DELETE,PATCH,OPTIONS";
-    private static final String ALLOW_HEADERS = "Authorization,Content-Type,Idempotency-Key";
-    private static final String EXPOSE_HEADERS = "Location";
+    private static final String ALLOW_HEADERS = "Authorization,Content-Type,Idempotency-Key,If-None-Match";
+    private static final String EXPOSE_HEADERS = "Location,ETag";
+    // counters restart with the process and differ between instances: the prefix keeps their tags apart
+    private static final String INSTANCE_TAG = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
 
     private static final String STATUS_KEY = "__brokerx_status";
+    private static final String DETACHED_KEY = "__brokerx_detached";
 
     private final TokenService tokenService;
     private final StructuredLogger logger;
@@ -55,7 +60,7 @@ public abstract class AbstractJsonHandler implements HttpHandler {
             }
             exchange.getResponseHeaders().add("Content-Type", JSON_CONTENT_TYPE);
             if (requiresAuthentication(exchange)) {
-                TokenPrincipal principal = tokenService.require(exchange.getRequestHeaders().getFirst("Authorization"));
+                TokenPrincipal principal = tokenService.require(authorization(exchange));
                 exchange.setAttribute(TokenPrincipal.ATTRIBUTE, principal);
             }
             doHandle(exchange);
@@ -79,7 +84,9 @@ public abstract class AbstractJsonHandler implements HttpHandler {
             fields.put("status", statusSnapshot);
             fields.put("durationMs", duration.toMillis());
             logger.info("http_request", fields);
-            exchange.close();
+            if (exchange.getAttribute(DETACHED_KEY) == null) {
+                exchange.close();
+            }
         }
     }
 
@@ -87,6 +94,11 @@ public abstract class AbstractJsonHandler implements HttpHandler {
         return tokenService != null;
     }
 
+    /** Credentials checked by {@link TokenService#require}; the {@code Authorization} header by default. */
+    protected String authorization(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getFirst("Authorization");
+    }
+
     protected TokenPrincipal principal(HttpExchange exchange) {
         return (TokenPrincipal) exchange.getAttribute(TokenPrincipal.ATTRIBUTE);
     }
@@ -114,9 +126,24 @@ public abstract class AbstractJsonHandler implements HttpHandler {
         }
     }
 
+    /**
+     * Serializes {@code value}; bodies of at least {@link ResponseCompression#MIN_BYTES} are gzip-encoded,
+     * deflated straight into the chunked response, when the client accepts it.
+     */
     protected void sendJson(HttpExchange exchange, int status, Object value) throws IOException {
         byte[] payload = JsonSupport.mapper().writeValueAsBytes(value);
         recordStatus(exchange, status);
+        if (payload.length >= ResponseCompression.MIN_BYTES) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (acceptsGzip(exchange)) {
+                markGzip(exchange);
+                exchange.sendResponseHeaders(status, 0);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    ResponseCompression.gzip(payload, os, exchange.getRequestURI().getPath());
+                }
+                return;
+            }
+        }
         exchange.sendResponseHeaders(status, payload.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(payload);
@@ -127,6 +154,128 @@ public abstract class AbstractJsonHandler implements HttpHandler {
         sendJson(exchange, status, new ApiResponse<>(data));
     }
 
+    /** Writes a pre-serialized body, gzip-encoded when it is large enough and the client accepts it. */
+    protected void sendRendered(HttpExchange exchange, int status, RenderedResponseCache.Rendered rendered)
+            throws IOException {
+        byte[] payload = rendered.json();
+        String encoding = "identity";
+        if (rendered.compressible()) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (acceptsGzip(exchange)) {
+                payload = rendered.gzip();
+                encoding = "gzip";
+                markGzip(exchange);
+            }
+        }
+        AppMetrics.recordResponseServed(rendered.cache(), encoding, payload.length);
+        recordStatus(exchange, status);
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(payload);
+        }
+    }
+
+    /** True when {@code Accept-Encoding} allows gzip, by name or through {@code *}, with a non-zero quality. */
+    static boolean acceptsGzip(HttpExchange exchange) {
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accepted == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String entry : accepted.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(coding)) {
+                gzip = nonZeroQuality(parts);
+            } else if ("*".equals(coding)) {
+                wildcard = nonZeroQuality(parts);
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean nonZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                return !parameter.substring(2).trim().matches("0(\\.0{0,3})?");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a response that keeps streaming after {@link #doHandle} returns (status 200 already sent):
+     * the exchange is then left open for its new owner to close.
+     */
+    protected void detach(HttpExchange exchange) {
+        recordStatus(exchange, HttpURLConnection.HTTP_OK);
+        exchange.setAttribute(DETACHED_KEY, Boolean.TRUE);
+    }
+
+    /**
+     * Entity tag of a representation identified by a monotonic version counter: computed without reading
+     * or serializing the data. {@code resource} names the counter; the URL already scopes it.
+     */
+    protected static String versionTag(String resource, long version) {
+        return "\"" + INSTANCE_TAG + "-" + resource + "-" + version + "\"";
+    }
+
+    /**
+     * Sets {@code etag} on the response and, when the request's {@code If-None-Match} lists it, answers
+     * 304 at once. Read the version before the data, so the tag is never newer than the body it goes with.
+     *
+     * @return true when the response has been sent
+     */
+    protected boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache");
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String matched = ifNoneMatch == null ? null : match(ifNoneMatch, etag);
+        if (matched == null) {
+            return false;
+        }
+        headers.set("ETag", matched);
+        recordStatus(exchange, HttpURLConnection.HTTP_NOT_MODIFIED);
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+        return true;
+    }
+
+    /** The tag of {@code etag}'s representation, plain or gzip-encoded, listed in If-None-Match; else null. */
+    private static String match(String ifNoneMatch, String etag) {
+        String gzipTag = gzipTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                // weak comparison, as If-None-Match requires; proxies may weaken a tag when compressing
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return etag;
+            }
+            if (gzipTag.equals(tag)) {
+                return gzipTag;
+            }
+        }
+        return null;
+    }
+
+    /** Each content coding is a distinct representation, so the gzip body gets its own strong tag. */
+    private static String gzipTag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static void markGzip(HttpExchange exchange) {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Encoding", "gzip");
+        String etag = headers.getFirst("ETag");
+        if (etag != null) {
+            headers.set("ETag", gzipTag(etag));
+        }
+    }
+
     protected void sendNoContent(HttpExchange exchange) throws IOException {
         recordStatus(exchange, HttpURLConnection.HTTP_NO_CONTENT);
         exchange.sendResponseHeaders(HttpURLConnection.HTTP_NO_CONTENT, -1);
@@ -142,6 +291,22 @@ public abstract class AbstractJsonHandler implements HttpHandler {
                 .collect(Collectors.toList());
     }
 
+    protected Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isBlank()) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                parameters.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
     private void sendError(HttpExchange exchange, int status, String errorCode, String message) throws IOException {
         if (message == null || message.isBlank()) {
             message = HttpStatus.reason(status);
@@ -199,12 +364,14 @@ public abstract class AbstractJsonHandler implements HttpHandler {
                 case HttpURLConnection.HTTP_OK -> "OK";
                 case HttpURLConnection.HTTP_CREATED -> "Created";
                 case HttpURLConnection.HTTP_NO_CONTENT -> "No Content";
+                case HttpURLConnection.HTTP_NOT_MODIFIED -> "Not Modified";
                 case HttpURLConnection.HTTP_BAD_REQUEST -> "Bad Request";
                 case HttpURLConnection.HTTP_UNAUTHORIZED -> "Unauthorized";
                 case HttpURLConnection.HTTP_FORBIDDEN -> "Forbidden";
                 case HttpURLConnection.HTTP_NOT_FOUND -> "Not Found";
                 case HttpURLConnection.HTTP_CONFLICT -> "Conflict";
                 case HttpURLConnection.HTTP_INTERNAL_ERROR -> "Internal Server Error";
+                case HttpURLConnection.HTTP_UNAVAILABLE -> "Service Unavailable";
                 default -> "HTTP " + status;
             };
         }
@@ -2,12 +2,13 @@ package com.brokerx.interfaces.rest;
 
 import com.brokerx.application.AuthService;
 import com.brokerx.application.NotificationService;
+import com.brokerx.application.NotificationStreamHub;
 import com.brokerx.application.OrderService;
 import com.brokerx.application.OrderService.OrderResult;
 import com.brokerx.application.StockService;
 import com.brokerx.application.StockService.Quote;
 import com.brokerx.application.WalletService;
-import com.brokerx.domain.account.AccountState;
+import com.brokerx.domain.account.AccountStatus;
 import com.brokerx.domain.account.UserAccount;
 import com.brokerx.interfaces.rest.dto.*;
 import com.sun.net.httpserver.HttpExchange;
@@ -19,6 +20,7 @@ import java.math.RoundingMode;
 import java.net.HttpURLConnection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,12 +32,14 @@ final class AccountResourceHandler extends AbstractJsonHandler {
     private final StockService stockService;
     private final OrderService orderService;
     private final NotificationService notificationService;
+    private final NotificationStreamer notificationStreamer;
 
     AccountResourceHandler(AuthService authService,
                            WalletService walletService,
                            StockService stockService,
                            OrderService orderService,
                            NotificationService notificationService,
+                           NotificationStreamHub notificationStream,
                            TokenService tokenService) {
         super(tokenService);
         this.authService = authService;
@@ -43,6 +47,7 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         this.stockService = stockService;
         this.orderService = orderService;
         this.notificationService = notificationService;
+        this.notificationStreamer = notificationStream == null ? null : new NotificationStreamer(notificationStream);
     }
 
     @Override
@@ -58,6 +63,17 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         return true;
     }
 
+    /** EventSource cannot set headers, so the notification stream also takes the token as a query parameter. */
+    @Override
+    protected String authorization(HttpExchange exchange) {
+        String header = super.authorization(exchange);
+        if (header == null && exchange.getRequestURI().getPath().endsWith("/notifications/stream")) {
+            String token = queryParameters(exchange).get("access_token");
+            return token == null ? null : "Bearer " + token;
+        }
+        return header;
+    }
+
     @Override
     protected void doHandle(HttpExchange exchange) throws IOException {
         String path = exchange.getRequestURI().getPath();
@@ -77,7 +93,7 @@ final class AccountResourceHandler extends AbstractJsonHandler {
             throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
         }
 
-        UserAccount account = authService.findAccount(accountId)
+        AccountStatus account = authService.findAccountStatus(accountId)
                 .orElseThrow(() -> new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Compte introuvable"));
 
         TokenPrincipal principal = principal(exchange);
@@ -98,7 +114,7 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         }
     }
 
-    private void handleConfirmation(HttpExchange exchange, String method, UserAccount account) throws IOException {
+    private void handleConfirmation(HttpExchange exchange, String method, AccountStatus account) throws IOException {
         if (!"POST".equals(method)) {
             throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
         }
@@ -106,31 +122,33 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         if (request == null || request.verificationCode() == null || request.verificationCode().isBlank()) {
             throw new RestException(HttpURLConnection.HTTP_BAD_REQUEST, "verificationCode requis");
         }
-        authService.confirmAccount(account.getId(), request.verificationCode());
+        authService.confirmAccount(account.id(), request.verificationCode());
         sendNoContent(exchange);
     }
 
-    private void handleSummary(HttpExchange exchange, String method, UserAccount account) throws IOException {
+    private void handleSummary(HttpExchange exchange, String method, AccountStatus account) throws IOException {
         if (!"GET".equals(method)) {
             throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
         }
-        BigDecimal balance = walletService.findWallet(account.getId())
+        BigDecimal balance = walletService.findWallet(account.id())
                 .map(w -> w.getBalance().setScale(2, RoundingMode.HALF_UP))
                 .orElse(BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
-        List<FollowedStockDto> followed = stockService.listFollowed(account.getId()).stream()
+        List<FollowedStockDto> followed = stockService.listFollowed(account.id()).stream()
                 .map(this::toFollowedStock)
                 .collect(Collectors.toList());
+        UserAccount details = authService.findAccount(account.id())
+                .orElseThrow(() -> new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Compte introuvable"));
         AccountSummaryResponse response = new AccountSummaryResponse(
-                account.getId(),
-                account.getEmail(),
-                account.getState(),
+                details.getId(),
+                details.getEmail(),
+                details.getState(),
                 balance,
                 followed
         );
         sendData(exchange, HttpURLConnection.HTTP_OK, response);
     }
 
-    private void handleWallet(HttpExchange exchange, String method, UserAccount account, List<String> segments) throws IOException {
+    private void handleWallet(HttpExchange exchange, String method, AccountStatus account, List<String> segments) throws IOException {
         if (segments.size() != 2 || !"wallet".equals(segments.get(0)) || !"deposits".equals(segments.get(1))) {
             throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
         }
@@ -149,8 +167,8 @@ final class AccountResourceHandler extends AbstractJsonHandler {
                 .filter(key -> !key.isBlank())
                 .orElse("API-" + System.nanoTime());
 
-        var tx = walletService.deposit(account.getId(), idempotencyKey, request.amount().doubleValue());
-        BigDecimal balance = walletService.findWallet(account.getId())
+        var tx = walletService.deposit(account.id(), idempotencyKey, request.amount().doubleValue());
+        BigDecimal balance = walletService.findWallet(account.id())
                 .map(w -> w.getBalance().setScale(2, RoundingMode.HALF_UP))
                 .orElse(BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
         DepositResponse response = new DepositResponse(
@@ -161,11 +179,11 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         sendData(exchange, HttpURLConnection.HTTP_CREATED, response);
     }
 
-    private void handleStocks(HttpExchange exchange, String method, UserAccount account, List<String> segments) throws IOException {
+    private void handleStocks(HttpExchange exchange, String method, AccountStatus account, List<String> segments) throws IOException {
         ensureActive(account);
         if (segments.size() == 2 && "followed".equals(segments.get(1))) {
             if ("GET".equals(method)) {
-                List<FollowedStockDto> followed = stockService.listFollowed(account.getId()).stream()
+                List<FollowedStockDto> followed = stockService.listFollowed(account.id()).stream()
                         .map(this::toFollowedStock)
                         .toList();
                 sendData(exchange, HttpURLConnection.HTTP_OK, followed);
@@ -174,25 +192,29 @@ final class AccountResourceHandler extends AbstractJsonHandler {
             if ("POST".equals(method)) {
                 FollowRequest request = readJson(exchange, FollowRequest.class);
                 UUID stockId = parseUuid(request.stockId(), "stockId invalide");
-                stockService.follow(account.getId(), stockId);
+                stockService.follow(account.id(), stockId);
                 sendNoContent(exchange);
                 return;
             }
         }
         if (segments.size() == 3 && "followed".equals(segments.get(1)) && "DELETE".equals(method)) {
             UUID stockId = parseUuid(segments.get(2), "stockId invalide");
-            stockService.unfollow(account.getId(), stockId);
+            stockService.unfollow(account.id(), stockId);
             sendNoContent(exchange);
             return;
         }
         throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
     }
 
-    private void handleOrders(HttpExchange exchange, String method, UserAccount account, List<String> segments) throws IOException {
+    private void handleOrders(HttpExchange exchange, String method, AccountStatus account, List<String> segments) throws IOException {
         ensureActive(account);
         if (segments.size() == 1) {
             if ("GET".equals(method)) {
-                List<OrderResponse> orders = orderService.listOrders(account.getId()).stream()
+                OptionalLong version = orderService.ordersVersion(account.id());
+                if (version.isPresent() && notModified(exchange, versionTag("orders", version.getAsLong()))) {
+                    return;
+                }
+                List<OrderResponse> orders = orderService.listOrders(account.id()).stream()
                         .map(this::toOrderResponse)
                         .toList();
                 sendData(exchange, HttpURLConnection.HTTP_OK, new OrdersResponse(orders));
@@ -200,42 +222,74 @@ final class AccountResourceHandler extends AbstractJsonHandler {
             }
             if ("POST".equals(method)) {
                 OrderRequest request = readJson(exchange, OrderRequest.class);
-                OrderResult result = orderService.placeOrder(account.getId(), toCommand(request));
+                OrderResult result = orderService.placeOrder(account.id(), toCommand(request));
                 OrderResponse response = toOrderResponse(result);
                 exchange.getResponseHeaders().add("Location",
-                        "/api/v1/accounts/" + account.getId() + "/orders/" + response.orderId());
+                        "/api/v1/accounts/" + account.id() + "/orders/" + response.orderId());
                 sendData(exchange, HttpURLConnection.HTTP_CREATED, response);
                 return;
             }
         }
         if (segments.size() == 3 && "cancel".equals(segments.get(2)) && "POST".equals(method)) {
             UUID orderId = parseUuid(segments.get(1), "orderId invalide");
-            OrderResult cancelled = orderService.cancelOrder(account.getId(), orderId);
+            OrderResult cancelled = orderService.cancelOrder(account.id(), orderId);
             sendData(exchange, HttpURLConnection.HTTP_OK, toOrderResponse(cancelled));
             return;
         }
         throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
     }
 
-    private void handleNotifications(HttpExchange exchange, String method, UserAccount account, List<String> segments) throws IOException {
+    private void handleNotifications(HttpExchange exchange, String method, AccountStatus account, List<String> segments) throws IOException {
+        if (segments.size() == 2 && "stream".equals(segments.get(1)) && notificationStreamer != null) {
+            handleNotificationStream(exchange, method, account);
+            return;
+        }
         if (segments.size() != 1) {
             throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
         }
         if ("GET".equals(method)) {
-            List<NotificationResponse> notifications = notificationService.list(account.getId()).stream()
-                    .map(this::toNotification)
+            if (notModified(exchange, versionTag("notifications", notificationService.version(account.id())))) {
+                return;
+            }
+            List<NotificationResponse> notifications = notificationService.list(account.id()).stream()
+                    .map(NotificationStreamer::toResponse)
                     .toList();
             sendData(exchange, HttpURLConnection.HTTP_OK, new NotificationsResponse(notifications));
             return;
         }
         if ("DELETE".equals(method)) {
-            notificationService.clear(account.getId());
+            notificationService.clear(account.id());
             sendNoContent(exchange);
             return;
         }
         throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
     }
 
+    private void handleNotificationStream(HttpExchange exchange, String method, AccountStatus account) throws IOException {
+        if (!"GET".equals(method)) {
+            throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
+        }
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        if (lastEventId == null) {
+            lastEventId = queryParameters(exchange).get("lastEventId");
+        }
+        Long lastSequence = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                lastSequence = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException ex) {
+                throw new RestException(HttpURLConnection.HTTP_BAD_REQUEST, "Last-Event-ID invalide");
+            }
+        }
+        try {
+            notificationStreamer.open(exchange, account.id(), lastSequence);
+        } catch (IllegalStateException ex) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            throw new RestException(HttpURLConnection.HTTP_UNAVAILABLE, ex.getMessage());
+        }
+        detach(exchange);
+    }
+
     private FollowedStockDto toFollowedStock(Quote quote) {
         return new FollowedStockDto(
                 quote.id(),
@@ -261,18 +315,9 @@ final class AccountResourceHandler extends AbstractJsonHandler {
                 result.createdAt(),
                 result.updatedAt(),
                 result.executedAt(),
-                result.failureReason()
-        );
-    }
-
-    private NotificationResponse toNotification(NotificationService.Notification notification) {
-        return new NotificationResponse(
-                notification.id(),
-                notification.category(),
-                notification.message(),
-                notification.referenceId(),
-                notification.createdAt(),
-                notification.payload()
+                result.failureReason(),
+                result.timeInForce(),
+                result.expiresAt()
         );
     }
 
@@ -301,7 +346,9 @@ final class AccountResourceHandler extends AbstractJsonHandler {
                 request.type(),
                 String.valueOf(request.quantity()),
                 request.limitPrice() != null ? request.limitPrice().toPlainString() : null,
-                request.clientOrderId()
+                request.clientOrderId(),
+                request.timeInForce(),
+                request.expiresAt()
         );
     }
 
@@ -321,8 +368,8 @@ final class AccountResourceHandler extends AbstractJsonHandler {
         }
     }
 
-    private void ensureActive(UserAccount account) {
-        if (account.getState() != AccountState.ACTIVE) {
+    private void ensureActive(AccountStatus account) {
+        if (!account.isActive()) {
             throw new RestException(HttpURLConnection.HTTP_CONFLICT, "Compte inactif");
         }
     }
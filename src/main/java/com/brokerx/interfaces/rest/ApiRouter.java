@@ -2,7 +2,9 @@ package com.brokerx.interfaces.rest;
 
 import com.brokerx.application.AuthService;
 import com.brokerx.application.NotificationService;
+import com.brokerx.application.NotificationStreamHub;
 import com.brokerx.application.OrderService;
+import com.brokerx.application.QuoteStreamHub;
 import com.brokerx.application.StockService;
 import com.brokerx.application.WalletService;
 import com.sun.net.httpserver.HttpServer;
@@ -17,11 +19,17 @@ public final class ApiRouter {
                                 StockService stockService,
                                 OrderService orderService,
                                 TokenService tokenService,
-                                NotificationService notificationService) {
+                                NotificationService notificationService,
+                                QuoteStreamHub quoteStream,
+                                NotificationStreamHub notificationStream) {
         server.createContext("/api/v1/auth", new AuthHandler(authService, tokenService));
         server.createContext("/api/v1/accounts", new AccountsRootHandler(authService));
-        server.createContext("/api/v1/accounts/", new AccountResourceHandler(authService, walletService, stockService, orderService, notificationService, tokenService));
-        server.createContext("/api/v1/stocks", new StocksHandler(stockService));
-        server.createContext("/api/v1/stocks/", new StocksHandler(stockService));
+        server.createContext("/api/v1/accounts/", new AccountResourceHandler(authService, walletService, stockService, orderService, notificationService, notificationStream, tokenService));
+        StocksHandler stocksHandler = new StocksHandler(stockService);
+        server.createContext("/api/v1/stocks", stocksHandler);
+        server.createContext("/api/v1/stocks/", stocksHandler);
+        if (quoteStream != null) {
+            server.createContext("/api/v1/stocks/stream", new QuoteStreamHandler(stockService, quoteStream));
+        }
     }
 }
@@ -0,0 +1,230 @@
+package com.brokerx.interfaces.rest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.brokerx.application.NotificationService.Notification;
+import com.brokerx.application.NotificationStreamHub;
+import com.brokerx.application.NotificationStreamHub.Subscription;
+import com.brokerx.interfaces.rest.dto.NotificationResponse;
+import com.brokerx.observability.StructuredLogger;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Serves {@code GET /api/v1/accounts/{id}/notifications/stream}. Streams are event-driven rather than
+ * written by a thread each: a publish schedules a flush of the subscription on a small shared pool, and
+ * the same pool sends the heartbeats, so an idle stream costs a socket and a scheduled task, not a
+ * thread. Each event carries the notification sequence as its id, which the client echoes in
+ * {@code Last-Event-ID} when it reconnects.
+ *
+ * <p>Socket writes block, so a client that stops reading would hold a pool thread once its socket
+ * buffer fills; a few of them would stall every other stream. A watchdog on its own thread therefore
+ * interrupts any write that has not completed within {@link #WRITE_TIMEOUT_MILLIS}, which closes the
+ * socket, and the stream is dropped.
+ */
+final class NotificationStreamer {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(NotificationStreamer.class);
+    private static final long RETRY_MILLIS = 3_000;
+    private static final long WRITE_TIMEOUT_MILLIS = 10_000;
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+    private static final ScheduledExecutorService WRITERS = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "notification-stream-" + THREAD_SEQUENCE.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final Set<Connection> OPEN = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-stream-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        WATCHDOG.scheduleWithFixedDelay(NotificationStreamer::interruptStalledWrites, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private final NotificationStreamHub hub;
+
+    NotificationStreamer(NotificationStreamHub hub) {
+        this.hub = hub;
+    }
+
+    /**
+     * Subscribes and sends the response headers; the exchange then belongs to the stream, which closes
+     * it when the client leaves or the hub shuts down.
+     *
+     * @throws IllegalStateException when the hub refuses another stream
+     */
+    void open(HttpExchange exchange, UUID accountId, Long lastSequence) throws IOException {
+        Connection connection = new Connection();
+        Subscription subscription = hub.subscribe(accountId, lastSequence, connection::schedule);
+        try {
+            connection.start(SseStream.open(exchange, RETRY_MILLIS), subscription);
+        } catch (IOException | RuntimeException ex) {
+            subscription.close();
+            throw ex;
+        }
+    }
+
+    private static void interruptStalledWrites() {
+        long now = System.nanoTime();
+        for (Connection connection : OPEN) {
+            connection.interruptIfStalled(now);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private final class Connection {
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile SseStream stream;
+        private Subscription subscription;
+        private ScheduledFuture<?> heartbeat;
+        private long lastWriteNanos;
+        private boolean finished;
+        // guarded by itself, never held across a write: the watchdog must get it while a write blocks
+        private final Object writeGuard = new Object();
+        private Thread writer;
+        private long writeStartedNanos;
+        private volatile boolean stalled;
+
+        private void start(SseStream stream, Subscription subscription) {
+            long period = hub.heartbeat().toMillis();
+            synchronized (this) {
+                this.subscription = subscription;
+                lastWriteNanos = System.nanoTime();
+                heartbeat = WRITERS.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+                // published last: schedule() only queues flushes once the connection is complete
+                this.stream = stream;
+            }
+            OPEN.add(this);
+            // replays what followed Last-Event-ID, and catches a publish that raced the start
+            scheduled.set(true);
+            WRITERS.execute(this::flush);
+        }
+
+        /** Runs on the publishing thread: at most one flush is queued per stream. */
+        private void schedule() {
+            if (stream != null && scheduled.compareAndSet(false, true)) {
+                WRITERS.execute(this::flush);
+            }
+        }
+
+        private synchronized void flush() {
+            // cleared before draining, so a publish during the drain queues another flush
+            scheduled.set(false);
+            if (finished) {
+                return;
+            }
+            if (subscription.isClosed()) {
+                finish();
+                return;
+            }
+            try {
+                for (Notification notification : subscription.drain()) {
+                    String data = JsonSupport.mapper().writeValueAsString(toResponse(notification));
+                    write(() -> stream.event(Long.toString(notification.sequence()), "notification", data));
+                }
+            } catch (IOException ex) {
+                // client disconnected, or stopped reading and the watchdog gave up on it
+                finish();
+            } catch (RuntimeException ex) {
+                LOGGER.error("notification_stream_failed", ex, Map.of("accountId", subscription.accountId()));
+                finish();
+            }
+        }
+
+        private synchronized void heartbeat() {
+            if (finished) {
+                return;
+            }
+            if (subscription.isClosed()) {
+                finish();
+                return;
+            }
+            if (System.nanoTime() - lastWriteNanos < hub.heartbeat().toNanos() / 2) {
+                return;
+            }
+            try {
+                write(stream::heartbeat);
+            } catch (IOException ex) {
+                finish();
+            }
+        }
+
+        private void write(Write write) throws IOException {
+            synchronized (writeGuard) {
+                writer = Thread.currentThread();
+                writeStartedNanos = System.nanoTime();
+            }
+            try {
+                write.run();
+            } finally {
+                synchronized (writeGuard) {
+                    writer = null;
+                }
+            }
+            if (stalled) {
+                // the interrupt may have landed just after the write returned: give up on the client anyway
+                throw new IOException("write stalled");
+            }
+            lastWriteNanos = System.nanoTime();
+        }
+
+        private void interruptIfStalled(long now) {
+            synchronized (writeGuard) {
+                if (writer == null || stalled || now - writeStartedNanos < WRITE_TIMEOUT_MILLIS * 1_000_000) {
+                    return;
+                }
+                stalled = true;
+                // interrupting a blocked channel write closes the socket and fails the write
+                writer.interrupt();
+            }
+            LOGGER.warn("notification_stream_write_stalled", Map.of("timeoutMs", WRITE_TIMEOUT_MILLIS));
+        }
+
+        private void finish() {
+            finished = true;
+            OPEN.remove(this);
+            heartbeat.cancel(false);
+            if (stalled) {
+                // the closing chunk must not block on a client that does not read: with the interrupt
+                // still pending, the channel is closed instead of written to
+                Thread.currentThread().interrupt();
+            }
+            try {
+                stream.close();
+            } finally {
+                if (stalled) {
+                    Thread.interrupted();
+                }
+            }
+            subscription.close();
+        }
+    }
+
+    static NotificationResponse toResponse(Notification notification) {
+        return new NotificationResponse(
+                notification.id(),
+                notification.sequence(),
+                notification.category(),
+                notification.message(),
+                notification.referenceId(),
+                notification.createdAt(),
+                notification.payload()
+        );
+    }
+}
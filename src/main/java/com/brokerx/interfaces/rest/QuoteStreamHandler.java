@@ -0,0 +1,146 @@
+package com.brokerx.interfaces.rest;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.brokerx.application.QuoteStreamHub;
+import com.brokerx.application.QuoteStreamHub.Subscription;
+import com.brokerx.application.StockService;
+import com.brokerx.application.StockService.Quote;
+import com.brokerx.interfaces.rest.dto.FollowedStockDto;
+import com.brokerx.observability.StructuredLogger;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * {@code GET /api/v1/stocks/stream?symbols=AAPL,MSFT}: server-sent events with the current quote of each
+ * requested symbol, then every update as a {@code quote} event. Each stream is written by its own
+ * thread, so open streams never hold a worker of the request executor; the hub caps how many exist.
+ */
+final class QuoteStreamHandler implements HttpHandler {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(QuoteStreamHandler.class);
+    private static final int MAX_SYMBOLS = 100;
+    private static final long RETRY_MILLIS = 3_000;
+    private static final AtomicInteger STREAM_SEQUENCE = new AtomicInteger();
+
+    private final StockService stockService;
+    private final QuoteStreamHub hub;
+
+    QuoteStreamHandler(StockService stockService, QuoteStreamHub hub) {
+        this.stockService = stockService;
+        this.hub = hub;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            reply(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
+            return;
+        }
+        Set<String> symbols = requestedSymbols(exchange.getRequestURI().getRawQuery());
+        if (symbols.isEmpty() || symbols.size() > MAX_SYMBOLS) {
+            reply(exchange, HttpURLConnection.HTTP_BAD_REQUEST,
+                    "symbols requis (1 a " + MAX_SYMBOLS + " symboles separes par des virgules)");
+            return;
+        }
+        List<Quote> initial = new ArrayList<>();
+        for (Quote quote : stockService.listAll()) {
+            if (symbols.contains(quote.symbol().toUpperCase(Locale.ROOT))) {
+                initial.add(quote);
+            }
+        }
+        if (initial.size() != symbols.size()) {
+            reply(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "Symbole inconnu");
+            return;
+        }
+        Subscription subscription;
+        try {
+            subscription = hub.subscribe(symbols);
+        } catch (IllegalStateException ex) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            reply(exchange, HttpURLConnection.HTTP_UNAVAILABLE, ex.getMessage());
+            return;
+        }
+        SseStream stream;
+        try {
+            stream = SseStream.open(exchange, RETRY_MILLIS);
+        } catch (IOException ex) {
+            subscription.close();
+            throw ex;
+        }
+        Thread writer = new Thread(() -> run(stream, subscription, initial),
+                "quote-stream-" + STREAM_SEQUENCE.incrementAndGet());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void run(SseStream stream, Subscription subscription, List<Quote> initial) {
+        try (stream; subscription) {
+            send(stream, initial);
+            while (!subscription.isClosed()) {
+                List<Quote> updates = subscription.poll(hub.heartbeat());
+                if (subscription.isClosed()) {
+                    break;
+                }
+                if (updates.isEmpty()) {
+                    stream.heartbeat();
+                } else {
+                    send(stream, updates);
+                }
+            }
+        } catch (IOException ex) {
+            // client disconnected
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            LOGGER.error("quote_stream_failed", ex, Map.of("symbols", subscription.symbols().size()));
+        }
+    }
+
+    private static void send(SseStream stream, List<Quote> quotes) throws IOException {
+        for (Quote quote : quotes) {
+            FollowedStockDto dto = new FollowedStockDto(quote.id(), quote.symbol(), quote.name(),
+                    quote.price(), quote.updatedAt());
+            stream.event(null, "quote", JsonSupport.mapper().writeValueAsString(dto));
+        }
+    }
+
+    private static Set<String> requestedSymbols(String rawQuery) {
+        Set<String> symbols = new LinkedHashSet<>();
+        if (rawQuery == null) {
+            return symbols;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0 || !"symbols".equals(pair.substring(0, separator))) {
+                continue;
+            }
+            String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            for (String symbol : value.split(",")) {
+                if (!symbol.isBlank()) {
+                    symbols.add(symbol.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return symbols;
+    }
+
+    private static void reply(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] payload = JsonSupport.mapper().writeValueAsBytes(Map.of("status", status, "message", message));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (var body = exchange.getResponseBody()) {
+            body.write(payload);
+        }
+    }
+}
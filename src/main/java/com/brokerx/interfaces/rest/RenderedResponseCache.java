@@ -0,0 +1,86 @@
+package com.brokerx.interfaces.rest;
+
+import java.util.function.Supplier;
+
+import com.brokerx.interfaces.rest.dto.ApiResponse;
+import com.brokerx.observability.AppMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * JSON body of a read endpoint whose content is the same for every client, kept as bytes for one data
+ * version. The first request of a version serializes it, every other request of that version writes the
+ * same {@code byte[]}; a gzip variant is compressed once, on the first request that accepts it. Entries
+ * are keyed by version, so a stale entry is never served; {@link #invalidate()} only drops it early, and
+ * is meant to be called from the pipeline that moves the version.
+ */
+public final class RenderedResponseCache {
+    private final String name;
+    private volatile Rendered current;
+
+    public RenderedResponseCache(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The body of {@code version}, serialized from {@code data} (wrapped like {@code sendData}) only when
+     * no request rendered this version yet.
+     */
+    public Rendered get(long version, Supplier<?> data) throws JsonProcessingException {
+        Rendered cached = current;
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+        byte[] json = JsonSupport.mapper().writeValueAsBytes(new ApiResponse<>(data.get()));
+        AppMetrics.recordResponseRendered(name, json.length);
+        Rendered rendered = new Rendered(name, version, json);
+        // concurrent renders of the same version are equivalent; keep whichever is newest
+        Rendered previous = current;
+        if (previous == null || previous.version <= version) {
+            current = rendered;
+        }
+        return rendered;
+    }
+
+    public void invalidate() {
+        current = null;
+    }
+
+    public static final class Rendered {
+        private final String cache;
+        private final long version;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        private Rendered(String cache, long version, byte[] json) {
+            this.cache = cache;
+            this.version = version;
+            this.json = json;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        String cache() {
+            return cache;
+        }
+
+        byte[] json() {
+            return json;
+        }
+
+        boolean compressible() {
+            return json.length >= ResponseCompression.MIN_BYTES;
+        }
+
+        /** Compressed on first use; two threads racing both compress, the result is identical. */
+        byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = ResponseCompression.gzip(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
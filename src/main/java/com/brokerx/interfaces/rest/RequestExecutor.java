@@ -0,0 +1,271 @@
+package com.brokerx.interfaces.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.brokerx.observability.AppMetrics;
+import com.brokerx.observability.StructuredLogger;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Execution model of an embedded {@link HttpServer}. Without an executor the JDK server runs every
+ * exchange on its single dispatcher thread, so one slow request stalls the whole node; this class offers
+ * a bounded worker pool or one virtual thread per request instead. When the pool and its queue are full
+ * (or the virtual-thread in-flight limit is reached) the exchange is not queued: the dispatcher answers
+ * it at once with 503 and {@code Retry-After}, before any handler runs.
+ */
+public final class RequestExecutor implements Executor, AutoCloseable {
+    private static final StructuredLogger LOGGER = StructuredLogger.get(RequestExecutor.class);
+    private static final ThreadLocal<Boolean> OVERLOADED = new ThreadLocal<>();
+    private static final byte[] OVERLOAD_BODY =
+            "{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"Serveur sature, reessayez\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    public enum Mode {
+        /** Legacy behaviour: every exchange runs on the dispatcher thread. */
+        DISPATCHER,
+        BOUNDED,
+        VIRTUAL;
+
+        public static Mode fromLabel(String label) {
+            return valueOf(label.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final String name;
+    private final Mode mode;
+    private final ExecutorService delegate;
+    private final Semaphore inFlight;
+    private final AtomicInteger active = new AtomicInteger();
+
+    private RequestExecutor(String name, Mode mode, ExecutorService delegate, Semaphore inFlight) {
+        this.name = name;
+        this.mode = mode;
+        this.delegate = delegate;
+        this.inFlight = inFlight;
+        AppMetrics.trackHttpExecutor(name, active::get, this::queued);
+    }
+
+    public static RequestExecutor dispatcher(String name) {
+        return new RequestExecutor(name, Mode.DISPATCHER, null, null);
+    }
+
+    public static RequestExecutor bounded(String name, int workers, int queueCapacity) {
+        if (workers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("workers and queueCapacity must be positive");
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "http-" + name + "-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new RequestExecutor(name, Mode.BOUNDED, pool, null);
+    }
+
+    /**
+     * One virtual thread per request, at most {@code maxInFlight} at a time. Virtual threads need JDK 21;
+     * on an older runtime this falls back to a bounded pool of {@code fallbackWorkers}.
+     */
+    public static RequestExecutor virtual(String name, int maxInFlight, int fallbackWorkers, int fallbackQueue) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            return new RequestExecutor(name, Mode.VIRTUAL, executor, new Semaphore(maxInFlight));
+        } catch (ReflectiveOperationException ex) {
+            LOGGER.warn("http_virtual_threads_unavailable", Map.of(
+                    "server", name,
+                    "javaVersion", Runtime.version().toString(),
+                    "fallback", "BOUNDED"
+            ));
+            return bounded(name, fallbackWorkers, fallbackQueue);
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /** Creates a server on {@code address} running on this executor, with load shedding on every context. */
+    public HttpServer createServer(InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.setExecutor(this);
+        return new SheddingHttpServer(server);
+    }
+
+    @Override
+    public void execute(Runnable exchange) {
+        if (delegate == null) {
+            exchange.run();
+            return;
+        }
+        if (inFlight != null && !inFlight.tryAcquire()) {
+            reject(exchange);
+            return;
+        }
+        try {
+            delegate.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    exchange.run();
+                } finally {
+                    active.decrementAndGet();
+                    if (inFlight != null) {
+                        inFlight.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            if (inFlight != null) {
+                inFlight.release();
+            }
+            reject(exchange);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (delegate == null) {
+            return;
+        }
+        delegate.shutdown();
+        try {
+            delegate.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int queued() {
+        return delegate instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * Runs the exchange on the dispatcher thread with the overload flag set: the shedding filter then
+     * answers 503 instead of calling the handler, which keeps the dispatcher busy for one small write.
+     */
+    private void reject(Runnable exchange) {
+        AppMetrics.recordHttpRejection(name);
+        OVERLOADED.set(Boolean.TRUE);
+        try {
+            exchange.run();
+        } finally {
+            OVERLOADED.remove();
+        }
+    }
+
+    private static final class SheddingFilter extends Filter {
+        private static final SheddingFilter INSTANCE = new SheddingFilter();
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (OVERLOADED.get() == null) {
+                chain.doFilter(exchange);
+                return;
+            }
+            try (exchange) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, OVERLOAD_BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(OVERLOAD_BODY);
+                }
+            }
+        }
+
+        @Override
+        public String description() {
+            return "Answers 503 when the request executor is saturated";
+        }
+    }
+
+    /** Adds the shedding filter to every context created on the wrapped server. */
+    private static final class SheddingHttpServer extends HttpServer {
+        private final HttpServer server;
+
+        private SheddingHttpServer(HttpServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public void bind(InetSocketAddress address, int backlog) throws IOException {
+            server.bind(address, backlog);
+        }
+
+        @Override
+        public void start() {
+            server.start();
+        }
+
+        @Override
+        public void setExecutor(Executor executor) {
+            server.setExecutor(executor);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return server.getExecutor();
+        }
+
+        @Override
+        public void stop(int delay) {
+            server.stop(delay);
+        }
+
+        @Override
+        public HttpContext createContext(String path, HttpHandler handler) {
+            return shed(server.createContext(path, handler));
+        }
+
+        @Override
+        public HttpContext createContext(String path) {
+            return shed(server.createContext(path));
+        }
+
+        @Override
+        public void removeContext(String path) {
+            server.removeContext(path);
+        }
+
+        @Override
+        public void removeContext(HttpContext context) {
+            server.removeContext(context);
+        }
+
+        @Override
+        public InetSocketAddress getAddress() {
+            return server.getAddress();
+        }
+
+        private static HttpContext shed(HttpContext context) {
+            List<Filter> filters = context.getFilters();
+            filters.add(0, SheddingFilter.INSTANCE);
+            return context;
+        }
+    }
+}
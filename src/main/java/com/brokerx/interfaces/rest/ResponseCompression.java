@@ -0,0 +1,95 @@
+package com.brokerx.interfaces.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import com.brokerx.observability.AppMetrics;
+
+/**
+ * Gzip encoding of response bodies. A {@link Deflater} owns native zlib memory that
+ * {@code GZIPOutputStream} allocates and frees on every response; here deflaters are reset and returned
+ * to a bounded pool instead, and the body is deflated chunk by chunk straight into the response stream.
+ */
+final class ResponseCompression {
+    /** Bodies below this size are sent as is: headers and framing outweigh the saving. */
+    static final int MIN_BYTES = 1024;
+
+    private static final int CHUNK_BYTES = 8 * 1024;
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+    private static final BlockingQueue<Deflater> POOL =
+            new ArrayBlockingQueue<>(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_BYTES]);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private ResponseCompression() {
+    }
+
+    /** Writes {@code payload} gzip-encoded to {@code out} and records ratio and CPU time under {@code route}. */
+    static void gzip(byte[] payload, OutputStream out, String route) throws IOException {
+        long start = cpuNanos();
+        long written = gzip(payload, out);
+        AppMetrics.recordCompression(route, payload.length, written, cpuNanos() - start);
+    }
+
+    /** Gzip of {@code payload} as a new array, for bodies compressed once and sent many times. */
+    static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try {
+            gzip(payload, buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static long gzip(byte[] payload, OutputStream out) throws IOException {
+        Deflater deflater = POOL.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        try {
+            out.write(HEADER);
+            long written = HEADER.length;
+            deflater.setInput(payload);
+            deflater.finish();
+            byte[] chunk = CHUNK.get();
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+                written += length;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            writeIntLittleEndian(out, (int) crc.getValue());
+            writeIntLittleEndian(out, payload.length);
+            return written + 8;
+        } finally {
+            deflater.reset();
+            if (!POOL.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static void writeIntLittleEndian(OutputStream out, int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
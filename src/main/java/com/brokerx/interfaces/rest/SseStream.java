@@ -0,0 +1,67 @@
+package com.brokerx.interfaces.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Writer for a {@code text/event-stream} response. The response is chunked and stays open until
+ * {@link #close()}; each frame is flushed at once so it reaches the client without buffering.
+ */
+final class SseStream implements AutoCloseable {
+    private final HttpExchange exchange;
+    private final OutputStream body;
+
+    private SseStream(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.body = exchange.getResponseBody();
+    }
+
+    static SseStream open(HttpExchange exchange, long retryMillis) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream; charset=utf-8");
+        headers.set("Cache-Control", "no-cache");
+        headers.set("Access-Control-Allow-Origin", "*");
+        // keeps nginx from buffering the stream
+        headers.set("X-Accel-Buffering", "no");
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+        SseStream stream = new SseStream(exchange);
+        stream.write("retry: " + retryMillis + "\n\n");
+        return stream;
+    }
+
+    /** One event; {@code id} may be null. {@code data} must not contain line breaks. */
+    void event(String id, String type, String data) throws IOException {
+        StringBuilder frame = new StringBuilder(data.length() + 64);
+        if (id != null) {
+            frame.append("id: ").append(id).append('\n');
+        }
+        frame.append("event: ").append(type).append('\n')
+                .append("data: ").append(data).append("\n\n");
+        write(frame.toString());
+    }
+
+    /** Comment frame, ignored by EventSource; keeps idle connections and proxies alive. */
+    void heartbeat() throws IOException {
+        write(": heartbeat\n\n");
+    }
+
+    @Override
+    public void close() {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // the client is gone already
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void write(String frame) throws IOException {
+        body.write(frame.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+}
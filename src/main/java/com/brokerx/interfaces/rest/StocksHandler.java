@@ -1,23 +1,31 @@
 package com.brokerx.interfaces.rest;
 
+import com.brokerx.application.CandleAggregator.Candle;
+import com.brokerx.application.CandleAggregator.CandleInterval;
 import com.brokerx.application.StockService;
 import com.brokerx.application.StockService.Quote;
+import com.brokerx.application.StockService.QuoteList;
+import com.brokerx.interfaces.rest.dto.CandleDto;
+import com.brokerx.interfaces.rest.dto.CandlesResponse;
 import com.brokerx.interfaces.rest.dto.FollowedStockDto;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 final class StocksHandler extends AbstractJsonHandler {
     private static final String BASE_PATH = "/api/v1/stocks";
+    private static final int DEFAULT_CANDLE_LIMIT = 60;
 
     private final StockService stockService;
+    private final RenderedResponseCache listCache = new RenderedResponseCache("stocks");
 
     StocksHandler(StockService stockService) {
         this.stockService = stockService;
+        stockService.subscribeListings(listCache::invalidate);
     }
 
     @Override
@@ -32,6 +40,13 @@ final class StocksHandler extends AbstractJsonHandler {
             handleList(exchange, method);
             return;
         }
+        if (segments.size() == 2 && "candles".equals(segments.get(1))) {
+            handleCandles(exchange, method, segments.get(0));
+            return;
+        }
+        if (segments.size() > 1) {
+            throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
+        }
         handleDetail(exchange, method, segments.get(0));
     }
 
@@ -39,10 +54,16 @@ final class StocksHandler extends AbstractJsonHandler {
         if (!"GET".equals(method)) {
             throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
         }
-        List<FollowedStockDto> quotes = stockService.listAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-        sendData(exchange, HttpURLConnection.HTTP_OK, quotes);
+        // checked before loading: a miss of the quote cache would read every stock, and tick them with the feed off
+        if (notModified(exchange, versionTag("quotes", stockService.quoteVersion()))) {
+            return;
+        }
+        QuoteList snapshot = stockService.allQuotes();
+        if (notModified(exchange, versionTag("quotes", snapshot.version()))) {
+            return;
+        }
+        sendRendered(exchange, HttpURLConnection.HTTP_OK, listCache.get(snapshot.version(),
+                () -> snapshot.quotes().stream().map(this::toDto).toList()));
     }
 
     private void handleDetail(HttpExchange exchange, String method, String stockIdRaw) throws IOException {
@@ -59,6 +80,40 @@ final class StocksHandler extends AbstractJsonHandler {
         sendData(exchange, HttpURLConnection.HTTP_OK, toDto(quote));
     }
 
+    private void handleCandles(HttpExchange exchange, String method, String stockIdRaw) throws IOException {
+        if (!"GET".equals(method)) {
+            throw new RestException(HttpURLConnection.HTTP_BAD_METHOD, "Method not allowed");
+        }
+        UUID stockId = parseUuid(stockIdRaw);
+        Map<String, String> query = queryParameters(exchange);
+        CandleInterval interval = CandleInterval.fromLabel(query.getOrDefault("interval", "1m"));
+        int limit = parseLimit(query.get("limit"));
+        Quote quote;
+        try {
+            quote = stockService.getQuote(stockId);
+        } catch (IllegalArgumentException ex) {
+            throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Titre introuvable");
+        }
+        List<Candle> candles = stockService.candles(quote.symbol(), interval, limit);
+        List<CandleDto> bars = candles.stream()
+                .map(candle -> new CandleDto(candle.start(), candle.open(), candle.high(), candle.low(),
+                        candle.close(), candle.ticks()))
+                .toList();
+        sendData(exchange, HttpURLConnection.HTTP_OK,
+                new CandlesResponse(quote.id(), quote.symbol(), interval.label(), bars));
+    }
+
+    private int parseLimit(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return DEFAULT_CANDLE_LIMIT;
+        }
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (NumberFormatException ex) {
+            throw new RestException(HttpURLConnection.HTTP_BAD_REQUEST, "limit invalide");
+        }
+    }
+
     private FollowedStockDto toDto(Quote quote) {
         return new FollowedStockDto(
                 quote.id(),
@@ -1,31 +1,96 @@
 package com.brokerx.interfaces.rest;
 
+import java.lang.ref.WeakReference;
 import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stateless bearer tokens: {@code <keyId>.<payload>.<signature>}, where the payload carries the account
+ * id, issue and expiry instants and a random token id, and the signature is an HMAC-SHA256 of the first
+ * two parts. Any instance holding the same signing keys verifies a token without a lookup, so tokens
+ * issued by one node are accepted by every node behind the gateway.
+ *
+ * <p>New tokens are signed with the current key; {@link #rotate} installs a new current key while the
+ * previous ones keep verifying until the last token they signed has expired, after which they are
+ * dropped. Revoked token ids are kept only until the token's own expiry, purged by a background task.
+ */
 public final class TokenService {
-    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final int PAYLOAD_BYTES = 40;
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Duration MAX_PURGE_INTERVAL = Duration.ofMinutes(1);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final ScheduledExecutorService PURGER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    private volatile KeyRing keyRing;
 
+    /** Signs with a random key of this process only; tokens are then not portable across instances. */
     public TokenService(Duration ttl) {
+        this(ttl, SigningKey.generate("local"));
+    }
+
+    /**
+     * @param signingKey current key, first of {@code verificationKeys} in priority; the others only
+     *                   verify tokens issued before a rotation
+     */
+    public TokenService(Duration ttl, SigningKey signingKey, SigningKey... verificationKeys) {
         this.ttl = Objects.requireNonNull(ttl, "ttl");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(signingKey.id(), new VerificationKey(signingKey, Long.MAX_VALUE));
+        for (SigningKey key : verificationKeys) {
+            keys.putIfAbsent(key.id(), new VerificationKey(key, Long.MAX_VALUE));
+        }
+        this.keyRing = new KeyRing(signingKey, Map.copyOf(keys));
+        schedulePurge(this, ttl.compareTo(MAX_PURGE_INTERVAL) < 0 ? ttl : MAX_PURGE_INTERVAL);
     }
 
     public AuthToken issue(UUID accountId) {
         Objects.requireNonNull(accountId, "accountId");
         Instant issuedAt = Instant.now();
         Instant expireAt = issuedAt.plus(ttl);
-        String payload = accountId + ":" + UUID.randomUUID() + ":" + expireAt.toEpochMilli();
-        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
-        sessions.put(token, new Session(accountId, issuedAt, expireAt));
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(accountId.getMostSignificantBits())
+                .putLong(accountId.getLeastSignificantBits())
+                .putLong(issuedAt.toEpochMilli())
+                .putLong(expireAt.toEpochMilli())
+                .putLong(random.nextLong());
+        SigningKey key = keyRing.current();
+        String signed = key.id() + "." + ENCODER.encodeToString(payload.array());
+        String token = signed + "." + ENCODER.encodeToString(key.sign(signed));
         return new AuthToken(token, issuedAt, expireAt);
     }
 
@@ -40,15 +105,7 @@ public final class TokenService {
         if (token.isEmpty()) {
             return Optional.empty();
         }
-        Session session = sessions.get(token);
-        if (session == null) {
-            return Optional.empty();
-        }
-        if (session.expireAt().isBefore(Instant.now())) {
-            sessions.remove(token);
-            return Optional.empty();
-        }
-        return Optional.of(new TokenPrincipal(session.accountId(), session.issuedAt(), session.expireAt(), token));
+        return verify(token);
     }
 
     public TokenPrincipal require(String authorizationHeader) {
@@ -56,14 +113,164 @@ public final class TokenService {
                 .orElseThrow(() -> new RestException(HttpURLConnection.HTTP_UNAUTHORIZED, "Token invalide ou expire"));
     }
 
+    /** Rejects {@code token} on this instance until it would have expired anyway. */
     public void revoke(String token) {
-        if (token != null) {
-            sessions.remove(token);
+        if (token == null) {
+            return;
+        }
+        verify(token).ifPresent(principal ->
+                revoked.put(tokenId(token), principal.expiresAt().toEpochMilli()));
+    }
+
+    /**
+     * Makes {@code next} the signing key. The previous keys still verify the tokens they signed, and are
+     * dropped once those tokens have all expired.
+     */
+    public synchronized void rotate(SigningKey next) {
+        Objects.requireNonNull(next, "next");
+        KeyRing current = keyRing;
+        long retireAt = Instant.now().plus(ttl).toEpochMilli();
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        keys.put(next.id(), new VerificationKey(next, Long.MAX_VALUE));
+        for (VerificationKey key : current.keys().values()) {
+            if (!key.key().id().equals(next.id())) {
+                keys.put(key.key().id(), new VerificationKey(key.key(), Math.min(key.retireAtMillis(), retireAt)));
+            }
+        }
+        keyRing = new KeyRing(next, Map.copyOf(keys));
+    }
+
+    public String currentKeyId() {
+        return keyRing.current().id();
+    }
+
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    /** Forgets expired revocations and retired keys; the background task calls this periodically. */
+    synchronized void purge(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        revoked.values().removeIf(expireAt -> expireAt < nowMillis);
+        KeyRing current = keyRing;
+        if (current.keys().values().stream().anyMatch(key -> key.retireAtMillis() < nowMillis)) {
+            Map<String, VerificationKey> keys = new LinkedHashMap<>(current.keys());
+            keys.values().removeIf(key -> key.retireAtMillis() < nowMillis);
+            keyRing = new KeyRing(current.current(), Map.copyOf(keys));
+        }
+    }
+
+    private Optional<TokenPrincipal> verify(String token) {
+        int keyEnd = token.indexOf('.');
+        int payloadEnd = keyEnd < 0 ? -1 : token.indexOf('.', keyEnd + 1);
+        if (keyEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return Optional.empty();
+        }
+        VerificationKey key = keyRing.keys().get(token.substring(0, keyEnd));
+        if (key == null) {
+            return Optional.empty();
         }
+        byte[] raw = token.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer payload;
+        ByteBuffer signature;
+        try {
+            payload = DECODER.decode(ByteBuffer.wrap(raw, keyEnd + 1, payloadEnd - keyEnd - 1));
+            signature = DECODER.decode(ByteBuffer.wrap(raw, payloadEnd + 1, raw.length - payloadEnd - 1));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        if (payload.remaining() != PAYLOAD_BYTES
+                || !MessageDigest.isEqual(signature.array(), key.key().sign(raw, payloadEnd))) {
+            return Optional.empty();
+        }
+        UUID accountId = new UUID(payload.getLong(), payload.getLong());
+        long issuedAt = payload.getLong();
+        long expireAt = payload.getLong();
+        long tokenId = payload.getLong();
+        if (expireAt < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        if (!revoked.isEmpty() && revoked.containsKey(tokenId)) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenPrincipal(accountId, Instant.ofEpochMilli(issuedAt),
+                Instant.ofEpochMilli(expireAt), token));
+    }
+
+    private static long tokenId(String token) {
+        int keyEnd = token.indexOf('.');
+        byte[] payload = DECODER.decode(token.substring(keyEnd + 1, token.indexOf('.', keyEnd + 1)));
+        return ByteBuffer.wrap(payload).getLong(PAYLOAD_BYTES - Long.BYTES);
+    }
+
+    /** The purge task only holds the service weakly, and cancels itself once the service is collected. */
+    private static void schedulePurge(TokenService service, Duration interval) {
+        WeakReference<TokenService> reference = new WeakReference<>(service);
+        AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+        long millis = Math.max(1, interval.toMillis());
+        task.set(PURGER.scheduleWithFixedDelay(() -> {
+            TokenService target = reference.get();
+            if (target == null) {
+                ScheduledFuture<?> self = task.get();
+                if (self != null) {
+                    self.cancel(false);
+                }
+                return;
+            }
+            target.purge(Instant.now());
+        }, millis, millis, TimeUnit.MILLISECONDS));
     }
 
     public record AuthToken(String token, Instant issuedAt, Instant expireAt) { }
 
-    private record Session(UUID accountId, Instant issuedAt, Instant expireAt) { }
-}
+    /** HMAC-SHA256 key; each thread keeps its own initialised {@link Mac}. */
+    public static final class SigningKey {
+        private final String id;
+        private final ThreadLocal<Mac> mac;
 
+        public SigningKey(String id, byte[] secret) {
+            if (id == null || !KEY_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException("key id must match " + KEY_ID.pattern());
+            }
+            if (secret == null || secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+            this.id = id;
+            SecretKeySpec spec = new SecretKeySpec(secret.clone(), ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(spec);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(ALGORITHM + " not available", e);
+                }
+            });
+        }
+
+        public static SigningKey generate(String id) {
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            return new SigningKey(id, secret);
+        }
+
+        public String id() {
+            return id;
+        }
+
+        private byte[] sign(String content) {
+            byte[] raw = content.getBytes(StandardCharsets.US_ASCII);
+            return sign(raw, raw.length);
+        }
+
+        private byte[] sign(byte[] content, int length) {
+            Mac instance = mac.get();
+            instance.update(content, 0, length);
+            return instance.doFinal();
+        }
+    }
+
+    private record VerificationKey(SigningKey key, long retireAtMillis) { }
+
+    private record KeyRing(SigningKey current, Map<String, VerificationKey> keys) { }
+}
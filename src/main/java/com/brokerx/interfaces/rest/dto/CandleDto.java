@@ -0,0 +1,14 @@
+package com.brokerx.interfaces.rest.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CandleDto(
+        Instant start,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        int ticks
+) {
+}
@@ -0,0 +1,7 @@
+package com.brokerx.interfaces.rest.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CandlesResponse(UUID stockId, String symbol, String interval, List<CandleDto> candles) {
+}
@@ -5,6 +5,7 @@ import java.util.UUID;
 
 public record NotificationResponse(
         UUID id,
+        long sequence,
         String category,
         String message,
         String referenceId,
@@ -8,6 +8,8 @@ public record OrderRequest(
         String type,
         Integer quantity,
         BigDecimal limitPrice,
-        String clientOrderId
+        String clientOrderId,
+        String timeInForce,
+        String expiresAt
 ) {
 }
@@ -3,6 +3,7 @@ package com.brokerx.interfaces.rest.dto;
 import com.brokerx.domain.order.OrderSide;
 import com.brokerx.domain.order.OrderStatus;
 import com.brokerx.domain.order.OrderType;
+import com.brokerx.domain.order.TimeInForce;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -22,6 +23,8 @@ public record OrderResponse(
         Instant createdAt,
         Instant updatedAt,
         Instant executedAt,
-        String failureReason
+        String failureReason,
+        TimeInForce timeInForce,
+        Instant expiresAt
 ) {
 }
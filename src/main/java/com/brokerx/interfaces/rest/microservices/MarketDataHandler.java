@@ -1,24 +1,34 @@
 package com.brokerx.interfaces.rest.microservices;
 
+import com.brokerx.application.CandleAggregator.CandleInterval;
 import com.brokerx.application.StockService;
 import com.brokerx.application.StockService.Quote;
+import com.brokerx.application.StockService.QuoteList;
 import com.brokerx.interfaces.rest.AbstractJsonHandler;
+import com.brokerx.interfaces.rest.RenderedResponseCache;
 import com.brokerx.interfaces.rest.RestException;
 import com.brokerx.interfaces.rest.TokenService;
+import com.brokerx.interfaces.rest.dto.CandleDto;
+import com.brokerx.interfaces.rest.dto.CandlesResponse;
 import com.brokerx.interfaces.rest.dto.FollowedStockDto;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public final class MarketDataHandler extends AbstractJsonHandler {
+    private static final int DEFAULT_CANDLE_LIMIT = 60;
+
     private final StockService stockService;
+    private final RenderedResponseCache listCache = new RenderedResponseCache("marketdata_stocks");
 
     public MarketDataHandler(StockService stockService, TokenService tokenService) {
         super(tokenService);
         this.stockService = stockService;
+        stockService.subscribeListings(listCache::invalidate);
     }
 
     @Override
@@ -41,14 +51,24 @@ public final class MarketDataHandler extends AbstractJsonHandler {
             handleDetail(exchange, parseUuid(segments[0]));
             return;
         }
+        if (segments.length == 2 && "candles".equals(segments[1]) && "GET".equals(method)) {
+            handleCandles(exchange, parseUuid(segments[0]));
+            return;
+        }
         throw new RestException(HttpURLConnection.HTTP_NOT_FOUND, "Route not found");
     }
 
     private void handleList(HttpExchange exchange) throws IOException {
-        List<FollowedStockDto> quotes = stockService.listAll().stream()
-                .map(this::toDto)
-                .toList();
-        sendData(exchange, HttpURLConnection.HTTP_OK, quotes);
+        // checked before loading: a miss of the quote cache would read every stock, and tick them with the feed off
+        if (notModified(exchange, versionTag("quotes", stockService.quoteVersion()))) {
+            return;
+        }
+        QuoteList snapshot = stockService.allQuotes();
+        if (notModified(exchange, versionTag("quotes", snapshot.version()))) {
+            return;
+        }
+        sendRendered(exchange, HttpURLConnection.HTTP_OK, listCache.get(snapshot.version(),
+                () -> snapshot.quotes().stream().map(this::toDto).toList()));
     }
 
     private void handleDetail(HttpExchange exchange, UUID stockId) throws IOException {
@@ -56,6 +76,24 @@ public final class MarketDataHandler extends AbstractJsonHandler {
         sendData(exchange, HttpURLConnection.HTTP_OK, toDto(quote));
     }
 
+    private void handleCandles(HttpExchange exchange, UUID stockId) throws IOException {
+        Map<String, String> query = queryParameters(exchange);
+        CandleInterval interval = CandleInterval.fromLabel(query.getOrDefault("interval", "1m"));
+        int limit;
+        try {
+            limit = Integer.parseInt(query.getOrDefault("limit", String.valueOf(DEFAULT_CANDLE_LIMIT)).trim());
+        } catch (NumberFormatException ex) {
+            throw new RestException(HttpURLConnection.HTTP_BAD_REQUEST, "limit invalide");
+        }
+        Quote quote = stockService.getQuote(stockId);
+        List<CandleDto> candles = stockService.candles(quote.symbol(), interval, limit).stream()
+                .map(candle -> new CandleDto(candle.start(), candle.open(), candle.high(), candle.low(),
+                        candle.close(), candle.ticks()))
+                .toList();
+        sendData(exchange, HttpURLConnection.HTTP_OK,
+                new CandlesResponse(quote.id(), quote.symbol(), interval.label(), candles));
+    }
+
     private FollowedStockDto toDto(Quote quote) {
         return new FollowedStockDto(
                 quote.id(),
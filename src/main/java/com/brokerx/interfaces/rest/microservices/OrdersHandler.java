@@ -18,6 +18,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 public final class OrdersHandler extends AbstractJsonHandler {
@@ -61,6 +62,10 @@ public final class OrdersHandler extends AbstractJsonHandler {
     private void handleList(HttpExchange exchange) throws IOException {
         Map<String, String> query = parseQuery(exchange.getRequestURI().getQuery());
         UUID accountId = parseUuid(query.get("accountId"), "accountId requis");
+        OptionalLong version = orderService.ordersVersion(accountId);
+        if (version.isPresent() && notModified(exchange, versionTag("orders", version.getAsLong()))) {
+            return;
+        }
         List<OrderResponse> orders = orderService.listOrders(accountId).stream()
                 .map(this::toOrderResponse)
                 .toList();
@@ -136,7 +141,9 @@ public final class OrdersHandler extends AbstractJsonHandler {
                 request.type(),
                 String.valueOf(request.quantity()),
                 request.limitPrice() != null ? request.limitPrice().toPlainString() : null,
-                request.clientOrderId()
+                request.clientOrderId(),
+                request.timeInForce(),
+                request.expiresAt()
         );
     }
 
@@ -155,7 +162,9 @@ public final class OrdersHandler extends AbstractJsonHandler {
                 result.createdAt(),
                 result.updatedAt(),
                 result.executedAt(),
-                result.failureReason()
+                result.failureReason(),
+                result.timeInForce(),
+                result.expiresAt()
         );
     }
 }
@@ -2,6 +2,7 @@ package com.brokerx.microservices;
 
 import com.brokerx.application.StockService;
 import com.brokerx.interfaces.rest.MetricsHandler;
+import com.brokerx.interfaces.rest.RequestExecutor;
 import com.brokerx.interfaces.rest.TokenService;
 import com.brokerx.interfaces.rest.microservices.MarketDataHandler;
 import com.brokerx.observability.StructuredLogger;
@@ -17,10 +18,12 @@ public final class MarketDataMicroservice implements AutoCloseable {
     private static final StructuredLogger LOGGER = StructuredLogger.get(MarketDataMicroservice.class);
 
     private final HttpServer server;
+    private final RequestExecutor executor;
 
-    public MarketDataMicroservice(int port, StockService stockService, TokenService tokenService) {
+    public MarketDataMicroservice(int port, StockService stockService, TokenService tokenService, RequestExecutor executor) {
+        this.executor = executor;
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = executor.createServer(new InetSocketAddress(port));
         } catch (IOException ex) {
             throw new IllegalStateException("Unable to start MarketData microservice", ex);
         }
@@ -39,6 +42,7 @@ public final class MarketDataMicroservice implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.close();
     }
 
     private static void health(HttpExchange exchange) throws IOException {
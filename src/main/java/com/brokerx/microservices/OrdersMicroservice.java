@@ -2,6 +2,7 @@ package com.brokerx.microservices;
 
 import com.brokerx.application.OrderService;
 import com.brokerx.interfaces.rest.MetricsHandler;
+import com.brokerx.interfaces.rest.RequestExecutor;
 import com.brokerx.interfaces.rest.TokenService;
 import com.brokerx.interfaces.rest.microservices.OrdersHandler;
 import com.brokerx.observability.StructuredLogger;
@@ -17,10 +18,12 @@ public final class OrdersMicroservice implements AutoCloseable {
     private static final StructuredLogger LOGGER = StructuredLogger.get(OrdersMicroservice.class);
 
     private final HttpServer server;
+    private final RequestExecutor executor;
 
-    public OrdersMicroservice(int port, OrderService orderService, TokenService tokenService) {
+    public OrdersMicroservice(int port, OrderService orderService, TokenService tokenService, RequestExecutor executor) {
+        this.executor = executor;
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = executor.createServer(new InetSocketAddress(port));
         } catch (IOException ex) {
             throw new IllegalStateException("Unable to start Orders microservice", ex);
         }
@@ -39,6 +42,7 @@ public final class OrdersMicroservice implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.close();
     }
 
     private static void health(HttpExchange exchange) throws IOException {
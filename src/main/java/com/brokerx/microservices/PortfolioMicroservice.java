@@ -4,6 +4,7 @@ import com.brokerx.application.AuthService;
 import com.brokerx.application.StockService;
 import com.brokerx.application.WalletService;
 import com.brokerx.interfaces.rest.MetricsHandler;
+import com.brokerx.interfaces.rest.RequestExecutor;
 import com.brokerx.interfaces.rest.TokenService;
 import com.brokerx.interfaces.rest.microservices.AccountSummaryHandler;
 import com.brokerx.interfaces.rest.microservices.WalletDepositHandler;
@@ -20,14 +21,17 @@ public final class PortfolioMicroservice implements AutoCloseable {
     private static final StructuredLogger LOGGER = StructuredLogger.get(PortfolioMicroservice.class);
 
     private final HttpServer server;
+    private final RequestExecutor executor;
 
     public PortfolioMicroservice(int port,
                                  AuthService authService,
                                  WalletService walletService,
                                  StockService stockService,
-                                 TokenService tokenService) {
+                                 TokenService tokenService,
+                                 RequestExecutor executor) {
+        this.executor = executor;
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = executor.createServer(new InetSocketAddress(port));
         } catch (IOException ex) {
             throw new IllegalStateException("Unable to start Portfolio microservice", ex);
         }
@@ -47,6 +51,7 @@ public final class PortfolioMicroservice implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.close();
     }
 
     private static void health(HttpExchange exchange) throws IOException {
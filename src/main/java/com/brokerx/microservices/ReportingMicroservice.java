@@ -1,6 +1,7 @@
 package com.brokerx.microservices;
 
 import com.brokerx.interfaces.rest.MetricsHandler;
+import com.brokerx.interfaces.rest.RequestExecutor;
 import com.brokerx.interfaces.rest.TokenService;
 import com.brokerx.interfaces.rest.microservices.ReportingHandler;
 import com.brokerx.observability.StructuredLogger;
@@ -17,10 +18,12 @@ public final class ReportingMicroservice implements AutoCloseable {
     private static final StructuredLogger LOGGER = StructuredLogger.get(ReportingMicroservice.class);
 
     private final HttpServer server;
+    private final RequestExecutor executor;
 
-    public ReportingMicroservice(int port, OrderRepository orderRepository, TokenService tokenService) {
+    public ReportingMicroservice(int port, OrderRepository orderRepository, TokenService tokenService, RequestExecutor executor) {
+        this.executor = executor;
         try {
-            this.server = HttpServer.create(new InetSocketAddress(port), 0);
+            this.server = executor.createServer(new InetSocketAddress(port));
         } catch (IOException ex) {
             throw new IllegalStateException("Unable to start Reporting microservice", ex);
         }
@@ -39,6 +42,7 @@ public final class ReportingMicroservice implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.close();
     }
 
     private static void health(HttpExchange exchange) throws IOException {
@@ -3,16 +3,34 @@ package com.brokerx.microservices;
 import com.brokerx.application.AuthService;
 import com.brokerx.application.MarketDataService;
 import com.brokerx.application.NotificationService;
+import com.brokerx.application.OrderExpiryTimer;
+import com.brokerx.application.OrderSequencer;
 import com.brokerx.application.OrderService;
+import com.brokerx.application.PostTradePipeline;
+import com.brokerx.application.StockPriceWriteBehind;
 import com.brokerx.application.StockService;
 import com.brokerx.application.WalletService;
+import com.brokerx.bootstrap.EnvironmentSettings;
+import com.brokerx.bootstrap.MarketDataFeedFactory;
+import com.brokerx.bootstrap.OrderSequencerFactory;
 import com.brokerx.bootstrap.PersistenceProvider;
 import com.brokerx.bootstrap.PersistenceProvider.PersistenceContext;
+import com.brokerx.bootstrap.PostTradePipelineFactory;
+import com.brokerx.bootstrap.RequestExecutorFactory;
+import com.brokerx.bootstrap.StockPriceWriteBehindFactory;
+import com.brokerx.bootstrap.TokenServiceFactory;
+import com.brokerx.bootstrap.TradingSessionFactory;
 import com.brokerx.interfaces.rest.TokenService;
-
-import java.time.Duration;
+import com.brokerx.ports.TickJournal;
 
 public final class ServiceLauncher {
+    // started by the service being launched, closed by the shutdown hook registered in main
+    private static volatile TickJournal tickJournal;
+    private static volatile OrderExpiryTimer expiryTimer;
+    private static volatile OrderSequencer sequencer;
+    private static volatile PostTradePipeline postTrade;
+    private static volatile StockPriceWriteBehind priceWriter;
+
     private ServiceLauncher() {
     }
 
@@ -24,16 +42,19 @@ public final class ServiceLauncher {
         int port = portFromEnv();
         PersistenceContext persistence = PersistenceProvider.initialise();
         var notificationService = new NotificationService(200);
-        var marketDataService = new MarketDataService();
-        TokenService tokenService = requireToken() ? new TokenService(Duration.ofHours(4)) : null;
+        var marketDataService = MarketDataFeedFactory.createFromEnvironment();
+        TokenService tokenService = requireToken() ? TokenServiceFactory.createFromEnvironment() : null;
 
+        // a single hook, because the JVM runs hooks concurrently: the feed stops first, the components
+        // that still write (final flushes, queued batches) close next, persistence closes last
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try {
-                marketDataService.close();
-            } catch (Exception ignored) { }
-            try {
-                persistence.close();
-            } catch (Exception ignored) { }
+            closeQuietly(marketDataService);
+            closeQuietly(tickJournal);
+            closeQuietly(expiryTimer);
+            closeQuietly(sequencer);
+            closeQuietly(postTrade);
+            closeQuietly(priceWriter);
+            closeQuietly(persistence);
         }));
 
         try {
@@ -44,8 +65,8 @@ public final class ServiceLauncher {
                 case REPORTING -> startReporting(port, persistence, tokenService);
             }
         } catch (Exception ex) {
-            persistence.close();
             marketDataService.close();
+            persistence.close();
             throw ex;
         }
     }
@@ -75,9 +96,21 @@ public final class ServiceLauncher {
                 persistence.positionRepository(),
                 persistence.orderAuditRepository(),
                 notificationService,
-                persistence.transactionManager()
+                persistence.transactionManager(),
+                startSequencer(),
+                EnvironmentSettings.bool("BROKERX_ORDER_BATCH_FILL", true),
+                startPostTrade(persistence, notificationService),
+                TradingSessionFactory.createFromEnvironment()
         );
-        new OrdersMicroservice(port, orderService, tokenService).start();
+        orderService.warmUpOrderBooks();
+        expiryTimer = new OrderExpiryTimer(orderService).start();
+        // the orders service owns the price feed: its ticks drive limit fills
+        tickJournal = MarketDataFeedFactory.attachJournalFromEnvironment(marketDataService);
+        MarketDataFeedFactory.startFromEnvironment(marketDataService,
+                new StockService(persistence.stockRepository(), marketDataService, orderService, null,
+                        startPriceWriter(persistence)));
+        new OrdersMicroservice(port, orderService, tokenService,
+                RequestExecutorFactory.createFromEnvironment("orders")).start();
     }
 
     private static void startPortfolio(int port,
@@ -105,24 +138,70 @@ public final class ServiceLauncher {
                 persistence.positionRepository(),
                 persistence.orderAuditRepository(),
                 notificationService,
-                persistence.transactionManager()
+                persistence.transactionManager(),
+                startSequencer(),
+                EnvironmentSettings.bool("BROKERX_ORDER_BATCH_FILL", true),
+                startPostTrade(persistence, notificationService),
+                TradingSessionFactory.createFromEnvironment()
         );
-        var stockService = new StockService(persistence.stockRepository(), marketDataService, orderService);
-        new PortfolioMicroservice(port, authService, walletService, stockService, tokenService).start();
+        orderService.warmUpOrderBooks();
+        var stockService = new StockService(persistence.stockRepository(), marketDataService, orderService, null,
+                startPriceWriter(persistence));
+        new PortfolioMicroservice(port, authService, walletService, stockService, tokenService,
+                RequestExecutorFactory.createFromEnvironment("portfolio")).start();
     }
 
     private static void startMarketData(int port,
                                         PersistenceContext persistence,
                                         MarketDataService marketDataService,
                                         TokenService tokenService) {
-        var stockService = new StockService(persistence.stockRepository(), marketDataService, null);
-        new MarketDataMicroservice(port, stockService, tokenService).start();
+        var stockService = new StockService(persistence.stockRepository(), marketDataService, null, null,
+                startPriceWriter(persistence));
+        new MarketDataMicroservice(port, stockService, tokenService,
+                RequestExecutorFactory.createFromEnvironment("marketdata")).start();
     }
 
     private static void startReporting(int port,
                                        PersistenceContext persistence,
                                        TokenService tokenService) {
-        new ReportingMicroservice(port, persistence.orderRepository(), tokenService).start();
+        new ReportingMicroservice(port, persistence.orderRepository(), tokenService,
+                RequestExecutorFactory.createFromEnvironment("reporting")).start();
+    }
+
+    private static OrderSequencer startSequencer() {
+        OrderSequencer created = OrderSequencerFactory.createFromEnvironment();
+        sequencer = created;
+        return created;
+    }
+
+    private static PostTradePipeline startPostTrade(PersistenceContext persistence,
+                                                    NotificationService notificationService) {
+        PostTradePipeline pipeline = PostTradePipelineFactory.createFromEnvironment(
+                persistence.orderAuditRepository(),
+                notificationService
+        );
+        postTrade = pipeline;
+        return pipeline;
+    }
+
+    private static StockPriceWriteBehind startPriceWriter(PersistenceContext persistence) {
+        StockPriceWriteBehind writer = StockPriceWriteBehindFactory.createFromEnvironment(
+                persistence.stockRepository(),
+                persistence.transactionManager()
+        );
+        priceWriter = writer;
+        return writer;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // shutting down: keep closing the rest
+        }
     }
 
     private static boolean requireToken() {
@@ -2,11 +2,13 @@ package com.brokerx.observability;
 
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 import io.prometheus.client.hotspot.DefaultExports;
 
 import java.time.Duration;
 import java.util.Locale;
+import java.util.function.DoubleSupplier;
 import java.util.regex.Pattern;
 
 public final class AppMetrics {
@@ -40,6 +42,147 @@ public final class AppMetrics {
             .labelNames("status")
             .register(REGISTRY);
 
+    public static final Gauge QUEUE_DEPTH = Gauge.build()
+            .name("brokerx_queue_depth")
+            .help("Items waiting in internal queues")
+            .labelNames("queue")
+            .register(REGISTRY);
+
+    public static final Counter POST_TRADE_BACKPRESSURE = Counter.build()
+            .name("brokerx_post_trade_backpressure_total")
+            .help("Post-trade events whose producer had to wait for queue space")
+            .register(REGISTRY);
+
+    public static final Counter MARKET_TICKS = Counter.build()
+            .name("brokerx_market_ticks_total")
+            .help("Price ticks published by the market data feed")
+            .register(REGISTRY);
+
+    public static final Counter PRICE_UPDATES = Counter.build()
+            .name("brokerx_price_updates_total")
+            .help("Stock price changes handed to the price writer")
+            .register(REGISTRY);
+
+    public static final Counter PRICE_ROWS_WRITTEN = Counter.build()
+            .name("brokerx_price_rows_written_total")
+            .help("Stock rows written by the price writer")
+            .register(REGISTRY);
+
+    public static final Histogram PRICE_FLUSH_DURATION = Histogram.build()
+            .name("brokerx_price_flush_duration_seconds")
+            .help("Duration of one batched stock price flush")
+            .buckets(0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1)
+            .register(REGISTRY);
+
+    public static final Gauge PRICE_COALESCING_RATIO = Gauge.build()
+            .name("brokerx_price_coalescing_ratio")
+            .help("Price changes per stock row written since startup")
+            .register(REGISTRY);
+
+    public static final Counter CACHE_REQUESTS = Counter.build()
+            .name("brokerx_cache_requests_total")
+            .help("Cache reads by outcome: hit, refresh (served while reloading ahead of expiry) or miss")
+            .labelNames("cache", "result")
+            .register(REGISTRY);
+
+    public static final Counter CACHE_LOADS = Counter.build()
+            .name("brokerx_cache_loads_total")
+            .help("Cache loader executions")
+            .labelNames("cache", "outcome")
+            .register(REGISTRY);
+
+    public static final Histogram CACHE_LOAD_DURATION = Histogram.build()
+            .name("brokerx_cache_load_duration_seconds")
+            .help("Duration of one cache loader execution")
+            .labelNames("cache")
+            .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1)
+            .register(REGISTRY);
+
+    public static final Gauge CACHE_SIZE = Gauge.build()
+            .name("brokerx_cache_size")
+            .help("Entries held by a cache")
+            .labelNames("cache")
+            .register(REGISTRY);
+
+    public static final Gauge CACHE_WEIGHT = Gauge.build()
+            .name("brokerx_cache_weight")
+            .help("Total weight of the entries held by a cache")
+            .labelNames("cache")
+            .register(REGISTRY);
+
+    public static final Counter CACHE_EVICTIONS = Counter.build()
+            .name("brokerx_cache_evictions_total")
+            .help("Cache entries removed by the cache itself: expired, size (evicted) or rejected (not admitted)")
+            .labelNames("cache", "reason")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_ACTIVE_WORKERS = Gauge.build()
+            .name("brokerx_http_workers_active")
+            .help("HTTP exchanges currently running on the request executor")
+            .labelNames("server")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_QUEUE_DEPTH = Gauge.build()
+            .name("brokerx_http_queue_depth")
+            .help("HTTP exchanges waiting for a worker of the request executor")
+            .labelNames("server")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_REJECTIONS = Counter.build()
+            .name("brokerx_http_rejections_total")
+            .help("HTTP exchanges answered 503 because the request executor was saturated")
+            .labelNames("server")
+            .register(REGISTRY);
+
+    public static final Gauge STREAM_CONNECTIONS = Gauge.build()
+            .name("brokerx_stream_connections")
+            .help("Open server-sent event streams")
+            .labelNames("stream")
+            .register(REGISTRY);
+
+    public static final Counter STREAM_REJECTIONS = Counter.build()
+            .name("brokerx_stream_rejections_total")
+            .help("Server-sent event streams refused because the connection cap was reached")
+            .labelNames("stream")
+            .register(REGISTRY);
+
+    public static final Counter STREAM_CONFLATED = Counter.build()
+            .name("brokerx_stream_conflated_total")
+            .help("Stream updates replaced by a newer one before the client received them")
+            .labelNames("stream")
+            .register(REGISTRY);
+
+    public static final Histogram HTTP_COMPRESSION_RATIO = Histogram.build()
+            .name("brokerx_http_compression_ratio")
+            .help("Compressed size over original size of gzip-encoded response bodies")
+            .labelNames("path")
+            .buckets(0.05, 0.1, 0.15, 0.2, 0.3, 0.4, 0.5, 0.7, 1)
+            .register(REGISTRY);
+
+    public static final Counter HTTP_COMPRESSION_CPU = Counter.build()
+            .name("brokerx_http_compression_cpu_seconds_total")
+            .help("Thread CPU time spent gzip-encoding response bodies")
+            .labelNames("path")
+            .register(REGISTRY);
+
+    public static final Counter RESPONSE_CACHE_RENDERED_BYTES = Counter.build()
+            .name("brokerx_response_cache_rendered_bytes_total")
+            .help("JSON bytes serialized to fill a shared response cache, once per data version")
+            .labelNames("cache")
+            .register(REGISTRY);
+
+    public static final Counter RESPONSE_CACHE_SERVED_BYTES = Counter.build()
+            .name("brokerx_response_cache_served_bytes_total")
+            .help("Response body bytes written from a shared response cache")
+            .labelNames("cache", "encoding")
+            .register(REGISTRY);
+
+    public static final Counter STREAM_REPLAY_MISSED = Counter.build()
+            .name("brokerx_stream_replay_missed_total")
+            .help("Stream events a resuming client missed because the replay buffer no longer held them")
+            .labelNames("stream")
+            .register(REGISTRY);
+
     static {
         DefaultExports.initialize();
     }
@@ -66,6 +209,130 @@ public final class AppMetrics {
         WALLET_DEPOSITS.labels(normalized).inc();
     }
 
+    public static void recordPostTradeBackpressure() {
+        POST_TRADE_BACKPRESSURE.inc();
+    }
+
+    public static void recordMarketTick() {
+        MARKET_TICKS.inc();
+    }
+
+    public static void recordPriceSubmitted() {
+        PRICE_UPDATES.inc();
+    }
+
+    public static void recordPriceWrites(int submitted, int written) {
+        PRICE_UPDATES.inc(submitted);
+        PRICE_ROWS_WRITTEN.inc(written);
+        updateCoalescingRatio();
+    }
+
+    public static void recordPriceFlush(int rows, Duration duration) {
+        PRICE_ROWS_WRITTEN.inc(rows);
+        PRICE_FLUSH_DURATION.observe(duration.toNanos() / 1_000_000_000.0);
+        updateCoalescingRatio();
+    }
+
+    private static void updateCoalescingRatio() {
+        double written = PRICE_ROWS_WRITTEN.get();
+        if (written > 0) {
+            PRICE_COALESCING_RATIO.set(PRICE_UPDATES.get() / written);
+        }
+    }
+
+    public static void recordCacheRequest(String cache, String result) {
+        CACHE_REQUESTS.labels(cache, result).inc();
+    }
+
+    public static void recordCacheLoad(String cache, String outcome, Duration duration) {
+        CACHE_LOADS.labels(cache, outcome).inc();
+        CACHE_LOAD_DURATION.labels(cache).observe(duration.toNanos() / 1_000_000_000.0);
+    }
+
+    public static void recordCacheEviction(String cache, String reason) {
+        CACHE_EVICTIONS.labels(cache, reason).inc();
+    }
+
+    public static void trackCache(String cache, DoubleSupplier size, DoubleSupplier weight) {
+        CACHE_SIZE.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return size.getAsDouble();
+            }
+        }, cache);
+        CACHE_WEIGHT.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return weight.getAsDouble();
+            }
+        }, cache);
+    }
+
+    public static void recordHttpRejection(String server) {
+        HTTP_REJECTIONS.labels(server).inc();
+    }
+
+    public static void trackHttpExecutor(String server, DoubleSupplier active, DoubleSupplier queued) {
+        HTTP_ACTIVE_WORKERS.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return active.getAsDouble();
+            }
+        }, server);
+        HTTP_QUEUE_DEPTH.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return queued.getAsDouble();
+            }
+        }, server);
+    }
+
+    public static void recordStreamRejection(String stream) {
+        STREAM_REJECTIONS.labels(stream).inc();
+    }
+
+    public static void recordStreamConflated(String stream) {
+        STREAM_CONFLATED.labels(stream).inc();
+    }
+
+    public static void recordCompression(String path, long originalBytes, long compressedBytes, long cpuNanos) {
+        String normalized = normalizePath(path);
+        if (originalBytes > 0) {
+            HTTP_COMPRESSION_RATIO.labels(normalized).observe((double) compressedBytes / originalBytes);
+        }
+        HTTP_COMPRESSION_CPU.labels(normalized).inc(Math.max(0, cpuNanos) / 1_000_000_000.0);
+    }
+
+    public static void recordResponseRendered(String cache, long bytes) {
+        RESPONSE_CACHE_RENDERED_BYTES.labels(cache).inc(bytes);
+    }
+
+    public static void recordResponseServed(String cache, String encoding, long bytes) {
+        RESPONSE_CACHE_SERVED_BYTES.labels(cache, encoding).inc(bytes);
+    }
+
+    public static void recordStreamReplayMissed(String stream, long missed) {
+        STREAM_REPLAY_MISSED.labels(stream).inc(missed);
+    }
+
+    public static void trackStreamConnections(String stream, DoubleSupplier connections) {
+        STREAM_CONNECTIONS.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return connections.getAsDouble();
+            }
+        }, stream);
+    }
+
+    public static void trackQueueDepth(String queue, DoubleSupplier depth) {
+        QUEUE_DEPTH.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return depth.getAsDouble();
+            }
+        }, queue);
+    }
+
     public static String normalizePath(String rawPath) {
         if (rawPath == null || rawPath.isBlank()) {
             return "/";
@@ -1,6 +1,7 @@
 package com.brokerx.ports;
 import java.util.Optional;
 import java.util.UUID;
+import com.brokerx.domain.account.AccountStatus;
 import com.brokerx.domain.account.UserAccount;
 
 
@@ -8,6 +9,7 @@ public interface AccountRepository {
     Optional<UserAccount> findByEmail(String email);
     Optional<UserAccount> findByPhone(String phone);
     Optional<UserAccount> findById(UUID accountId);
+    Optional<AccountStatus> findStatus(UUID accountId);
     void save(UserAccount account);
     void update(UserAccount account);
 }
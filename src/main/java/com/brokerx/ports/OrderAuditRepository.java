@@ -1,7 +1,11 @@
 package com.brokerx.ports;
 
+import java.util.List;
+
 import com.brokerx.domain.order.OrderAuditEntry;
 
 public interface OrderAuditRepository {
     void append(OrderAuditEntry entry);
+
+    void appendAll(List<OrderAuditEntry> entries);
 }
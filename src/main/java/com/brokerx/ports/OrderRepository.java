@@ -1,5 +1,7 @@
 package com.brokerx.ports;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,6 +11,10 @@ import com.brokerx.domain.order.TradeOrder;
 public interface OrderRepository {
     void save(TradeOrder order);
     void update(TradeOrder order);
+    void updateAll(List<TradeOrder> orders);
+    List<TradeOrder> claimCrossing(UUID stockId, BigDecimal price);
+    List<TradeOrder> lockPending(Collection<UUID> orderIds);
+    List<TradeOrder> findPendingWithExpiry();
     Optional<TradeOrder> findById(UUID orderId);
     Optional<TradeOrder> findByClientOrderId(UUID accountId, String clientOrderId);
     List<TradeOrder> findPendingByStock(UUID stockId);
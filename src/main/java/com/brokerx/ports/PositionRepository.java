@@ -2,14 +2,20 @@ package com.brokerx.ports;
 
 import com.brokerx.domain.position.Position;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PositionRepository {
     Optional<Position> find(UUID accountId, UUID stockId);
 
+    Map<UUID, Position> findByStock(UUID stockId, Collection<UUID> accountIds);
+
     void upsert(Position position);
 
+    void upsertAll(Collection<Position> positions);
+
     List<Position> listByAccount(UUID accountId);
 }
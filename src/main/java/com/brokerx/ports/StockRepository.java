@@ -1,5 +1,6 @@
 package com.brokerx.ports;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +12,7 @@ public interface StockRepository {
     Optional<Stock> findById(UUID stockId);
     Optional<Stock> findBySymbol(String symbol);
     void updatePrice(UUID stockId, Stock stock);
+    void updatePrices(Collection<Stock> stocks);
     List<Stock> findFollowedByAccount(UUID accountId);
     void follow(UUID accountId, UUID stockId);
     void unfollow(UUID accountId, UUID stockId);
@@ -0,0 +1,20 @@
+package com.brokerx.ports;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append-only history of the prices published by the market data feed.
+ */
+public interface TickJournal extends AutoCloseable {
+    void append(String symbol, long priceCents, Instant timestamp);
+
+    /** Ticks of {@code symbol} with {@code from <= timestamp < to}, in append order. */
+    List<JournalTick> read(String symbol, Instant from, Instant to);
+
+    @Override
+    void close();
+
+    record JournalTick(String symbol, long priceCents, Instant timestamp) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.brokerx.ports;
+
+/**
+ * Recorded price ticks in chronological order, used to replay a session through the market data feed.
+ */
+public interface TickSource extends AutoCloseable {
+    /** Returns the next tick, or {@code null} once the source is exhausted. */
+    RecordedTick next();
+
+    @Override
+    void close();
+
+    record RecordedTick(String symbol, long priceCents, long epochMillis) {
+    }
+}
@@ -3,6 +3,18 @@ package com.brokerx.ports;
 public interface TransactionManager {
     <T> T inTransaction(TransactionCallback<T> callback);
 
+    /**
+     * Runs {@code callback} inside the current transaction behind a savepoint: a failure rolls back only
+     * the work done by the callback and is rethrown, leaving the enclosing transaction usable.
+     */
+    <T> T inSavepoint(TransactionCallback<T> callback);
+
+    /**
+     * Defers {@code action} until the current transaction commits; it is dropped if the transaction, or
+     * the savepoint it was registered in, rolls back. Without an active transaction it runs immediately.
+     */
+    void afterCommit(Runnable action);
+
     default void inTransaction(TransactionRunnable runnable) {
         inTransaction(() -> {
             runnable.run();
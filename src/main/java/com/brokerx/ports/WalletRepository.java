@@ -1,4 +1,6 @@
 package com.brokerx.ports;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import com.brokerx.domain.wallet.Wallet;
@@ -6,6 +8,20 @@ import com.brokerx.domain.wallet.Wallet;
 
 public interface WalletRepository {
     Optional<Wallet> findByOwnerId(UUID ownerId);
+    Map<UUID, Wallet> lockByOwnerIds(Collection<UUID> ownerIds);
+
+    /**
+     * Atomically takes {@code cents} from the owner's balance if it covers them. Returns false, leaving
+     * the balance untouched, when funds are insufficient or the wallet does not exist.
+     */
+    boolean reserve(UUID ownerId, long cents);
+
+    /** Atomically gives {@code cents} back to the owner's balance; false if the wallet does not exist. */
+    boolean release(UUID ownerId, long cents);
+
+    /** Batched {@link #release(UUID, long)}: one write per owner, sent in a single round trip. */
+    void releaseAll(Map<UUID, Long> centsByOwner);
     Wallet create(UUID ownerId);
     void update(Wallet wallet);
+    void updateAll(Collection<Wallet> wallets);
 }
@@ -147,6 +147,23 @@ function updateFollowButton(button, isFollowed) {
     button.textContent = isFollowed ? 'Suivi' : 'Suivre';
 }
 
+// Opens the SSE quote stream for the given symbols; returns null when EventSource is unavailable
+// so the caller can fall back to polling.
+function openQuoteStream(symbols, onQuote) {
+    if (!window.EventSource || !symbols.length) {
+        return null;
+    }
+    const source = new EventSource('/api/v1/stocks/stream?symbols=' + encodeURIComponent(symbols.join(',')));
+    source.addEventListener('quote', (event) => {
+        try {
+            onQuote(JSON.parse(event.data));
+        } catch (error) {
+            /* malformed frame */
+        }
+    });
+    return source;
+}
+
 async function refreshFollowedSet(accountId) {
     try {
         const quotes = await fetchJson('/api/stocks/followed?accountId=' + encodeURIComponent(accountId));
@@ -465,7 +482,7 @@ async function initDashboardPage() {
                 ? 'success'
                 : order.status === 'FAILED'
                     ? 'danger'
-                    : order.status === 'CANCELLED'
+                    : order.status === 'CANCELLED' || order.status === 'EXPIRED'
                         ? 'warning'
                         : 'info';
             const quantity = Number(order.quantity);
@@ -476,6 +493,7 @@ async function initDashboardPage() {
             const statusText = order.status === 'COMPLETED' ? 'Termine'
                 : order.status === 'FAILED' ? 'Echec'
                 : order.status === 'CANCELLED' ? 'Annule'
+                : order.status === 'EXPIRED' ? 'Expire'
                 : 'En attente';
             const metaParts = [];
             if (createdAt) {
@@ -483,6 +501,9 @@ async function initDashboardPage() {
             }
             if (order.status === 'PENDING') {
                 metaParts.push('Limite ' + limitPrice);
+                if (order.expiresAt) {
+                    metaParts.push('Expire le ' + new Date(order.expiresAt).toLocaleString('fr-CA'));
+                }
             } else if (order.status === 'COMPLETED') {
                 if (executedAt) {
                     metaParts.push('Execute le ' + executedAt);
@@ -495,9 +516,9 @@ async function initDashboardPage() {
                 if (order.failureReason) {
                     metaParts.push(escapeHtml(order.failureReason));
                 }
-            } else if (order.status === 'CANCELLED') {
+            } else if (order.status === 'CANCELLED' || order.status === 'EXPIRED') {
                 if (executedAt) {
-                    metaParts.push('Annule le ' + executedAt);
+                    metaParts.push((order.status === 'EXPIRED' ? 'Expire le ' : 'Annule le ') + executedAt);
                 }
                 if (order.failureReason) {
                     metaParts.push(escapeHtml(order.failureReason));
@@ -556,6 +577,9 @@ async function initStocksPage() {
         if (stocksRefreshTimer) {
             clearInterval(stocksRefreshTimer);
         }
+        if (quoteStream) {
+            quoteStream.close();
+        }
     };
 
     if (logoutBtn) {
@@ -575,13 +599,17 @@ async function initStocksPage() {
     let isRefreshing = false;
     const refreshIntervalMs = 5000;
     let stocksRefreshTimer;
+    let quoteStream;
 
     await refreshFollowedSet(session.accountId);
     await loadStocks();
 
-    stocksRefreshTimer = window.setInterval(() => {
-        loadStocks().catch(() => { /* handled in loadStocks */ });
-    }, refreshIntervalMs);
+    quoteStream = openQuoteStream(stocksCache.map((quote) => quote.symbol), applyQuote);
+    if (!quoteStream) {
+        stocksRefreshTimer = window.setInterval(() => {
+            loadStocks().catch(() => { /* handled in loadStocks */ });
+        }, refreshIntervalMs);
+    }
 
     window.addEventListener('beforeunload', cleanup);
 
@@ -600,6 +628,21 @@ async function initStocksPage() {
         }
     }
 
+    function applyQuote(update) {
+        const cached = stocksCache.find((quote) => quote.symbol === update.symbol);
+        if (cached) {
+            cached.price = update.price;
+            cached.updatedAt = update.updatedAt;
+        }
+        if (!stocksListEl) {
+            return;
+        }
+        const row = stocksListEl.querySelector('.stock-row[data-symbol="' + update.symbol + '"] .stock-row-price');
+        if (row) {
+            row.textContent = currencyFormatter.format(Number(update.price));
+        }
+    }
+
     function renderStocksList(stocks) {
         if (!stocksListEl) {
             return;
@@ -608,6 +651,7 @@ async function initStocksPage() {
         stocks.forEach((quote) => {
             const row = document.createElement('div');
             row.className = 'stock-row';
+            row.dataset.symbol = quote.symbol;
 
             const info = document.createElement('div');
             info.className = 'stock-row-info';
@@ -684,16 +728,24 @@ async function initStockDetailPage() {
     const logoutBtn = document.getElementById('logout-btn');
     const updatedEl = document.getElementById('stock-detail-updated');
     const clockEl = document.getElementById('stock-clock');
+    const candlesIntervalSelect = document.getElementById('stock-candles-interval');
+    const candlesBody = document.getElementById('stock-candles-body');
+    const candlesLimit = 10;
 
     let detailRefreshTimer;
     let clockTimer;
+    let quoteStream;
     let isDetailRefreshing = false;
+    let lastCandlesLoad = 0;
     const detailRefreshIntervalMs = 5000;
 
     const cleanup = () => {
         if (detailRefreshTimer) {
             clearInterval(detailRefreshTimer);
         }
+        if (quoteStream) {
+            quoteStream.close();
+        }
         if (clockTimer) {
             clearInterval(clockTimer);
         }
@@ -733,18 +785,69 @@ async function initStockDetailPage() {
         clockEl.textContent = now.toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit', second: '2-digit' });
     };
 
+    if (candlesIntervalSelect) {
+        candlesIntervalSelect.addEventListener('change', () => {
+            loadCandles().catch(() => { /* best effort */ });
+        });
+    }
+
     await refreshFollowedSet(session.accountId);
     await loadDetail();
+    await loadCandles().catch(() => { /* best effort */ });
 
-    detailRefreshTimer = window.setInterval(() => {
-        loadDetail().catch(() => { /* error handled */ });
-    }, detailRefreshIntervalMs);
+    quoteStream = state.currentStock ? openQuoteStream([state.currentStock.symbol], applyQuote) : null;
+    if (!quoteStream) {
+        detailRefreshTimer = window.setInterval(() => {
+            loadDetail().catch(() => { /* error handled */ });
+            loadCandles().catch(() => { /* best effort */ });
+        }, detailRefreshIntervalMs);
+    }
 
     updateClock();
     clockTimer = window.setInterval(updateClock, 1000);
 
     window.addEventListener('beforeunload', cleanup);
 
+    function applyQuote(update) {
+        if (state.currentStock) {
+            state.currentStock.price = update.price;
+        }
+        if (priceEl) {
+            priceEl.textContent = currencyFormatter.format(Number(update.price));
+        }
+        if (updatedEl) {
+            const timestamp = update.updatedAt ? new Date(update.updatedAt) : new Date();
+            updatedEl.textContent = 'MAJ ' + timestamp.toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit', second: '2-digit' });
+        }
+        // candles follow the stream, reloaded at most once per refresh interval
+        if (Date.now() - lastCandlesLoad >= detailRefreshIntervalMs) {
+            loadCandles().catch(() => { /* best effort */ });
+        }
+    }
+
+    async function loadCandles() {
+        if (!candlesBody) {
+            return;
+        }
+        lastCandlesLoad = Date.now();
+        const interval = candlesIntervalSelect ? candlesIntervalSelect.value : '1m';
+        const payload = await fetchJson('/api/v1/stocks/' + encodeURIComponent(stockId)
+            + '/candles?interval=' + encodeURIComponent(interval) + '&limit=' + candlesLimit);
+        const candles = (payload.data && payload.data.candles) || [];
+        candlesBody.innerHTML = '';
+        candles.slice().reverse().forEach((candle) => {
+            const row = document.createElement('tr');
+            const start = new Date(candle.start).toLocaleTimeString('fr-FR', { hour: '2-digit', minute: '2-digit', second: '2-digit' });
+            row.innerHTML = '<td>' + start + '</td>' +
+                '<td>' + currencyFormatter.format(Number(candle.open)) + '</td>' +
+                '<td>' + currencyFormatter.format(Number(candle.high)) + '</td>' +
+                '<td>' + currencyFormatter.format(Number(candle.low)) + '</td>' +
+                '<td>' + currencyFormatter.format(Number(candle.close)) + '</td>' +
+                '<td>' + candle.ticks + '</td>';
+            candlesBody.appendChild(row);
+        });
+    }
+
     async function loadDetail() {
         if (isDetailRefreshing) {
             return;
@@ -820,6 +923,8 @@ async function initStockDetailPage() {
             formData.set('quantity', orderQuantityInput ? orderQuantityInput.value : '1');
             if (orderTypeSelect && orderTypeSelect.value === 'LIMIT') {
                 formData.set('price', priceInput ? priceInput.value || '' : '');
+                const tifSelect = document.getElementById('stock-order-tif');
+                formData.set('timeInForce', tifSelect ? tifSelect.value : 'GTC');
             }
             formData.set('clientOrderId', (window.crypto && window.crypto.randomUUID) ? window.crypto.randomUUID() : 'ORD-' + Date.now());
             try {
@@ -0,0 +1,51 @@
+package com.brokerx.adapters.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.brokerx.ports.TickSource.RecordedTick;
+
+class MappedTickFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void binaryFilesRoundTrip() {
+        List<RecordedTick> ticks = List.of(
+                new RecordedTick("AAPL", 18_532, 1_700_000_000_000L),
+                new RecordedTick("TSLA", 20_945, 1_700_000_000_000L),
+                new RecordedTick("AAPL", 18_540, 1_700_000_000_250L)
+        );
+        Path file = directory.resolve("ticks.bin");
+        MappedTickFile.write(file, ticks);
+
+        assertEquals(ticks, MappedTickFile.readAll(file));
+    }
+
+    @Test
+    void csvFilesAcceptHeaderEpochAndIsoTimestamps() throws Exception {
+        Path file = directory.resolve("ticks.csv");
+        Files.writeString(file, """
+                timestamp,symbol,price
+                1700000000000,AAPL,185.32
+
+                2023-11-14T22:13:20.250Z,TSLA,209.4
+                """);
+
+        try (MappedTickFile ticks = MappedTickFile.open(file)) {
+            assertEquals(new RecordedTick("AAPL", 18_532, 1_700_000_000_000L), ticks.next());
+            assertEquals(new RecordedTick("TSLA", 20_940,
+                    Instant.parse("2023-11-14T22:13:20.250Z").toEpochMilli()), ticks.next());
+            assertNull(ticks.next());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.brokerx.adapters.marketdata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.brokerx.ports.TickJournal.JournalTick;
+
+class MappedTickJournalTest {
+    private static final Instant T0 = Instant.parse("2026-03-02T14:30:00.000000001Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRangesBySymbolAcrossSegments() {
+        try (MappedTickJournal journal = MappedTickJournal.open(directory, 4)) {
+            appendSample(journal);
+
+            assertEquals(List.of(18_532L, 18_600L, 18_450L, 18_700L), prices(journal.read("AAPL", T0, T0.plusSeconds(60))));
+            assertEquals(List.of(18_600L, 18_450L), prices(journal.read("AAPL", T0.plusNanos(1), T0.plusSeconds(4))));
+            assertEquals(List.of(20_945L, 21_010L), prices(journal.read("TSLA", T0, T0.plusSeconds(60))));
+            assertEquals(T0.plusSeconds(3), journal.read("AAPL", T0.plusSeconds(3), T0.plusSeconds(4)).get(0).timestamp());
+            assertTrue(journal.read("MSFT", T0, T0.plusSeconds(60)).isEmpty());
+        }
+        assertTrue(Files.exists(directory.resolve("ticks-00000001.seg")));
+    }
+
+    @Test
+    void reopensSealedSegmentsAndRebuildsMissingIndexes() throws Exception {
+        try (MappedTickJournal journal = MappedTickJournal.open(directory, 4)) {
+            appendSample(journal);
+        }
+        Files.delete(directory.resolve("ticks-00000000.idx"));
+
+        try (MappedTickJournal reopened = MappedTickJournal.open(directory, 4)) {
+            reopened.append("AAPL", 18_800, T0.plusSeconds(10));
+            assertEquals(List.of(18_532L, 18_600L, 18_450L, 18_700L, 18_800L),
+                    prices(reopened.read("AAPL", T0, T0.plusSeconds(60))));
+            assertEquals(List.of(20_945L, 21_010L), prices(reopened.read("TSLA", T0, T0.plusSeconds(60))));
+        }
+    }
+
+    private static void appendSample(MappedTickJournal journal) {
+        journal.append("AAPL", 18_532, T0);
+        journal.append("TSLA", 20_945, T0.plusSeconds(1));
+        journal.append("AAPL", 18_600, T0.plusSeconds(2));
+        journal.append("AAPL", 18_450, T0.plusSeconds(3));
+        journal.append("TSLA", 21_010, T0.plusSeconds(4));
+        journal.append("AAPL", 18_700, T0.plusSeconds(5));
+    }
+
+    private static List<Long> prices(List<JournalTick> ticks) {
+        return ticks.stream().map(JournalTick::priceCents).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.application.CandleAggregator.Candle;
+import com.brokerx.application.CandleAggregator.CandleInterval;
+import com.brokerx.application.MarketDataService.MarketDataSnapshot;
+
+class CandleAggregatorTest {
+    private static final Instant T0 = Instant.parse("2026-03-02T14:30:00Z");
+
+    @Test
+    void buildsOhlcBarsPerInterval() {
+        CandleAggregator aggregator = new CandleAggregator(8);
+        aggregator.record(tick(1, 0, 10_000));
+        aggregator.record(tick(2, 200, 10_300));
+        aggregator.record(tick(3, 700, 9_900));
+        aggregator.record(tick(4, 1_100, 10_100));
+        aggregator.record(tick(5, 61_000, 10_050));
+
+        List<Candle> seconds = aggregator.read("AAPL", CandleInterval.ONE_SECOND, 10);
+        assertEquals(3, seconds.size());
+        assertEquals(new Candle(T0, 10_000, 10_300, 9_900, 9_900, 3), seconds.get(0));
+        assertEquals(new Candle(T0.plusSeconds(1), 10_100, 10_100, 10_100, 10_100, 1), seconds.get(1));
+
+        List<Candle> minutes = aggregator.read("AAPL", CandleInterval.ONE_MINUTE, 10);
+        assertEquals(List.of(
+                new Candle(T0, 10_000, 10_300, 9_900, 10_100, 4),
+                new Candle(T0.plusSeconds(60), 10_050, 10_050, 10_050, 10_050, 1)
+        ), minutes);
+        assertEquals(List.of(new Candle(T0, 10_000, 10_300, 9_900, 10_050, 5)),
+                aggregator.read("AAPL", CandleInterval.FIVE_MINUTES, 10));
+    }
+
+    @Test
+    void ringKeepsTheLatestBarsAndIgnoresStaleTicks() {
+        CandleAggregator aggregator = new CandleAggregator(4);
+        for (int i = 0; i < 10; i++) {
+            aggregator.record(tick(i + 1, i * 1_000L, 10_000 + i));
+        }
+        aggregator.record(tick(5, 9_500, 1));
+
+        List<Candle> latest = aggregator.read("AAPL", CandleInterval.ONE_SECOND, 100);
+        assertEquals(List.of(10_006L, 10_007L, 10_008L, 10_009L), latest.stream().map(Candle::closeCents).toList());
+        assertEquals(List.of(10_008L, 10_009L),
+                aggregator.read("AAPL", CandleInterval.ONE_SECOND, 2).stream().map(Candle::closeCents).toList());
+        assertTrue(aggregator.read("TSLA", CandleInterval.ONE_SECOND, 2).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> CandleInterval.fromLabel("2h"));
+    }
+
+    private static MarketDataSnapshot tick(long sequence, long offsetMillis, long priceCents) {
+        return new MarketDataSnapshot("AAPL", priceCents, T0.plusMillis(offsetMillis), sequence);
+    }
+}
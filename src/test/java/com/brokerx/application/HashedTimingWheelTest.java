@@ -0,0 +1,52 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+    private final Instant start = Instant.parse("2025-01-06T14:00:00Z");
+    private final HashedTimingWheel<String, String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, start);
+
+    @Test
+    void firesEntriesOnceTheirTickHasPassedIncludingLaterRevolutions() {
+        wheel.schedule("a", "a", start.plusSeconds(2));
+        wheel.schedule("b", "b", start.plusSeconds(10));
+        wheel.schedule("c", "c", start.plusMillis(2_500));
+
+        assertTrue(wheel.advance(start.plusSeconds(1)).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(start.plusSeconds(2)));
+        assertEquals(List.of("c"), wheel.advance(start.plusSeconds(3)));
+        // "b" shares its slot with tick 2 but sits one revolution further away
+        assertTrue(wheel.advance(start.plusSeconds(9)).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(start.plusSeconds(10)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledEntriesDoNotFireAtTheOldDeadline() {
+        wheel.schedule("gone", "gone", start.plusSeconds(1));
+        wheel.schedule("moved", "moved", start.plusSeconds(1));
+        wheel.cancel("gone");
+        wheel.schedule("moved", "moved", start.plusSeconds(5));
+
+        assertTrue(wheel.advance(start.plusSeconds(4)).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(start.plusSeconds(5)));
+    }
+
+    @Test
+    void longPauseAndPastDeadlinesStillFire() {
+        wheel.schedule("late", "late", start.plusSeconds(30));
+        wheel.schedule("far", "far", start.plusSeconds(300));
+        assertEquals(List.of("late"), wheel.advance(start.plusSeconds(100)));
+
+        wheel.schedule("past", "past", start.minusSeconds(5));
+        assertEquals(List.of("past"), wheel.advance(start.plusSeconds(101)));
+        assertEquals(1, wheel.size());
+    }
+}
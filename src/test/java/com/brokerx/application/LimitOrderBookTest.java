@@ -0,0 +1,78 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.domain.money.Money;
+import com.brokerx.domain.order.OrderSide;
+import com.brokerx.domain.order.TradeOrder;
+
+class LimitOrderBookTest {
+    private final UUID stockId = UUID.randomUUID();
+    private final LimitOrderBook book = new LimitOrderBook(stockId);
+
+    @Test
+    void drainOnlyVisitsCrossedLevelsInPriceThenTimePriority() {
+        TradeOrder first = pending("100.00", 0);
+        TradeOrder second = pending("100.00", 1);
+        TradeOrder better = pending("101.50", 2);
+        TradeOrder untouched = pending("120.00", 3);
+        book.add(first);
+        book.add(second);
+        book.add(better);
+        book.add(untouched);
+
+        List<TradeOrder> drained = book.drainCrossing(Money.parse("110.00"));
+
+        assertEquals(List.of(better.id(), first.id(), second.id()), drained.stream().map(TradeOrder::id).toList());
+        assertEquals(1, book.size());
+        assertTrue(book.contains(untouched.id()));
+        assertTrue(book.drainCrossing(Money.parse("110.00")).isEmpty());
+    }
+
+    @Test
+    void addIsIdempotentAndRemoveDropsEmptyLevels() {
+        TradeOrder order = pending("50.00", 0);
+        assertTrue(book.add(order));
+        assertFalse(book.add(order));
+        assertEquals(1, book.depth());
+
+        assertTrue(book.remove(order.id()));
+        assertFalse(book.remove(order.id()));
+        assertEquals(0, book.size());
+        assertEquals(0, book.depth());
+    }
+
+    @Test
+    void ignoresOrdersOfOtherStocksOrNotPending() {
+        TradeOrder foreign = TradeOrder.limitPending(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "TSLA",
+                OrderSide.BUY, 1, new BigDecimal("10"), null, Instant.now());
+        TradeOrder cancelled = pending("10.00", 0).cancel(Instant.now(), "test");
+
+        assertFalse(book.add(foreign));
+        assertFalse(book.add(cancelled));
+        assertEquals(0, book.size());
+    }
+
+    private TradeOrder pending(String limit, int secondsAfterEpoch) {
+        return TradeOrder.limitPending(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                stockId,
+                "AAPL",
+                OrderSide.BUY,
+                1,
+                new BigDecimal(limit),
+                null,
+                Instant.ofEpochSecond(secondsAfterEpoch)
+        );
+    }
+}
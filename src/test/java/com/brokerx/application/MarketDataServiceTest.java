@@ -0,0 +1,154 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.application.MarketDataService.MarketDataSnapshot;
+import com.brokerx.ports.TickSource;
+import com.brokerx.ports.TickSource.RecordedTick;
+
+class MarketDataServiceTest {
+
+    @Test
+    void feedPublishesTicksForSeededSymbolsAndReadsOnlySeeTheLatest() throws InterruptedException {
+        MarketDataService service = new MarketDataService();
+        try (service) {
+            service.seed("AAPL", new BigDecimal("185.32"));
+            service.seed("TSLA", new BigDecimal("209.45"));
+            service.seed("ZZZZ", new BigDecimal("10.00"));
+            List<MarketDataSnapshot> published = new CopyOnWriteArrayList<>();
+            CountDownLatch ticks = new CountDownLatch(10);
+            service.subscribe(snapshot -> {
+                published.add(snapshot);
+                ticks.countDown();
+            });
+
+            service.startFeed(200, 2);
+
+            assertTrue(ticks.await(5, TimeUnit.SECONDS));
+            assertTrue(published.stream().allMatch(s -> s.symbol().equals("AAPL") || s.symbol().equals("TSLA")));
+        }
+        assertTrue(!service.isFeedRunning());
+    }
+
+    @Test
+    void readsDoNotMovePricesWhileTheFeedRuns() {
+        try (MarketDataService service = new MarketDataService()) {
+            service.seed("AAPL", new BigDecimal("185.32"));
+            service.startFeed(1, 0);
+            MarketDataSnapshot first = service.tickFor("AAPL", null);
+            MarketDataSnapshot second = service.tickFor("AAPL", null);
+            assertEquals(first, second);
+        }
+    }
+
+    @Test
+    void seededInstancesReplayTheSamePricePath() {
+        try (MarketDataService first = new MarketDataService(7L);
+             MarketDataService second = new MarketDataService(7L);
+             MarketDataService other = new MarketDataService(8L)) {
+            List<Long> path = walk(first, 50);
+            assertEquals(path, walk(second, 50));
+            assertNotEquals(path, walk(other, 50));
+            assertEquals(walk(first, 0), walk(second, 0));
+        }
+    }
+
+    @Test
+    void concurrentStepsAreNeitherLostNorReordered() throws Exception {
+        long expected;
+        try (MarketDataService sequential = new MarketDataService(11L)) {
+            sequential.tickFor("AAPL", new BigDecimal("185.32"));
+            for (int i = 0; i < 4_000; i++) {
+                sequential.tickFor("AAPL", null);
+            }
+            expected = sequential.tickFor("AAPL", null).priceCents();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (MarketDataService concurrent = new MarketDataService(11L)) {
+            concurrent.tickFor("AAPL", new BigDecimal("185.32"));
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        concurrent.tickFor("AAPL", null);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(10, TimeUnit.SECONDS);
+            }
+            MarketDataSnapshot last = concurrent.tickFor("AAPL", null);
+            assertEquals(4_001, last.sequence());
+            assertEquals(expected, last.priceCents());
+            assertEquals(last.price(), concurrent.latestPrice("AAPL"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void replayPublishesRecordedTicksAndHonoursTheSpeed() throws Exception {
+        List<RecordedTick> recorded = List.of(
+                new RecordedTick("AAPL", 18_532, 1_000),
+                new RecordedTick("AAPL", 18_600, 1_000),
+                new RecordedTick("TSLA", 20_945, 1_500)
+        );
+        try (MarketDataService service = new MarketDataService(3L)) {
+            service.seed("AAPL", new BigDecimal("180.00"));
+            List<MarketDataSnapshot> published = new CopyOnWriteArrayList<>();
+            service.subscribe(published::add);
+
+            long begin = System.nanoTime();
+            assertEquals(3L, service.startReplay(source(recorded), 10).get(5, TimeUnit.SECONDS));
+            // the 500 ms recorded gap is replayed in about 50 ms at 10x
+            assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(45));
+
+            assertEquals(List.of(18_532L, 18_600L, 20_945L), published.stream().map(MarketDataSnapshot::priceCents).toList());
+            assertEquals(Instant.ofEpochMilli(1_500), published.get(2).timestamp());
+            assertEquals(2, published.get(1).sequence());
+            assertEquals(new BigDecimal("186.00"), service.latestPrice("AAPL"));
+            assertEquals(service.tickFor("TSLA", null), published.get(2));
+        }
+    }
+
+    private static TickSource source(List<RecordedTick> ticks) {
+        Deque<RecordedTick> remaining = new ArrayDeque<>(ticks);
+        return new TickSource() {
+            @Override
+            public RecordedTick next() {
+                return remaining.poll();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static List<Long> walk(MarketDataService service, int steps) {
+        List<Long> prices = new ArrayList<>();
+        prices.add(service.tickFor("MSFT", null).priceCents());
+        for (int i = 0; i < steps; i++) {
+            prices.add(service.tickFor("MSFT", null).priceCents());
+        }
+        return prices;
+    }
+}
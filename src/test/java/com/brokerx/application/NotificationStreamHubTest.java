@@ -0,0 +1,82 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.application.NotificationService.Notification;
+import com.brokerx.application.NotificationStreamHub.Subscription;
+
+class NotificationStreamHubTest {
+    private final NotificationService notificationService = new NotificationService(3);
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    void newStreamSkipsHistoryAndIsSignalledOnPublish() {
+        NotificationStreamHub hub = new NotificationStreamHub(notificationService, 4, Duration.ofSeconds(15));
+        publish("ancienne");
+        AtomicInteger signals = new AtomicInteger();
+        Subscription subscription = hub.subscribe(accountId, null, signals::incrementAndGet);
+
+        assertTrue(subscription.drain().isEmpty());
+        publish("nouvelle");
+        notificationService.publish(UUID.randomUUID(), "ORDER", "autre compte", null, null);
+
+        assertEquals(1, signals.get());
+        List<Notification> batch = subscription.drain();
+        assertEquals(List.of("nouvelle"), batch.stream().map(Notification::message).toList());
+        assertEquals(2, subscription.cursor());
+        assertTrue(subscription.drain().isEmpty());
+    }
+
+    @Test
+    void resumeReplaysWhatFollowsTheLastEventStillInTheRing() {
+        NotificationStreamHub hub = new NotificationStreamHub(notificationService, 4, Duration.ofSeconds(15));
+        for (int i = 1; i <= 5; i++) {
+            publish("n" + i);
+        }
+
+        List<Notification> resumed = hub.subscribe(accountId, 3L, () -> { }).drain();
+        assertEquals(List.of(4L, 5L), resumed.stream().map(Notification::sequence).toList());
+
+        // sequences 2 and 3 already left the three-entry ring
+        List<Notification> behind = hub.subscribe(accountId, 1L, () -> { }).drain();
+        assertEquals(List.of(3L, 4L, 5L), behind.stream().map(Notification::sequence).toList());
+
+        // an id from before a restart is ahead of the rebuilt ring: replay all of it
+        List<Notification> stale = hub.subscribe(accountId, 42L, () -> { }).drain();
+        assertEquals(3, stale.size());
+    }
+
+    @Test
+    void sequenceKeepsGrowingAfterClearAndCapIsReleasedOnClose() {
+        NotificationStreamHub hub = new NotificationStreamHub(notificationService, 1, Duration.ofSeconds(15));
+        publish("n1");
+        notificationService.clear(accountId);
+        assertEquals(2, publish("n2").sequence());
+
+        AtomicInteger signals = new AtomicInteger();
+        Subscription first = hub.subscribe(accountId, null, signals::incrementAndGet);
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(accountId, null, () -> { }));
+
+        hub.close();
+        assertTrue(first.isClosed());
+        assertEquals(1, signals.get());
+        publish("n3");
+        assertEquals(1, signals.get());
+        assertTrue(first.drain().isEmpty());
+        hub.subscribe(accountId, null, () -> { }).close();
+        assertEquals(0, hub.connections());
+    }
+
+    private Notification publish(String message) {
+        return notificationService.publish(accountId, "ORDER", message, null, null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class OrderSequencerTest {
+
+    @Test
+    void submitGivesUpOnABlockedPartitionAndDropsTheCommand() throws Exception {
+        OrderSequencer sequencer = new OrderSequencer(1, 8, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        sequencer.execute("AAPL", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+
+        IllegalStateException timeout = assertThrows(IllegalStateException.class,
+                () -> sequencer.submit("AAPL", () -> ran.getAndSet(true)));
+        assertTrue(timeout.getMessage().contains("not executed"));
+
+        release.countDown();
+        assertEquals("done", sequencer.submit("AAPL", () -> "done"));
+        assertFalse(ran.get());
+        sequencer.close();
+    }
+
+    @Test
+    void closeLetsTheRunningCommandFinishAndRefusesNewOnes() throws Exception {
+        OrderSequencer sequencer = new OrderSequencer(1, 8);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean finished = new AtomicBoolean();
+        sequencer.execute("AAPL", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(100);
+                finished.set(true);
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+        });
+        started.await();
+
+        sequencer.close();
+
+        assertTrue(finished.get());
+        assertFalse(interrupted.get());
+        assertThrows(IllegalStateException.class, () -> sequencer.submit("AAPL", () -> "late"));
+    }
+}
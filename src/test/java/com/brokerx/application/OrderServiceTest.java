@@ -1,6 +1,7 @@
 package com.brokerx.application;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -205,6 +206,39 @@ class OrderServiceTest {
         assertEquals("ORDER_PENDING", notifications.get(1).category());
     }
 
+    @Test
+    void pendingLimitOrderFillsWhenMarketTickCrossesItsLimit() {
+        var signup = authService.register(new AuthService.SignupCommand(
+                "tick@test.com",
+                "+15145550128",
+                "secret123",
+                "Trader Tick",
+                "6 Way Street",
+                java.time.LocalDate.of(1995, 6, 6)
+        ));
+        UUID accountId = signup.accountId();
+        authService.confirmAccount(accountId, signup.verificationCode());
+        walletService.deposit(accountId, "init-deposit", 2000.0);
+
+        OrderResult pending = orderService.placeOrder(accountId,
+                new OrderCommand("AAPL", "BUY", "LIMIT", "2", "250", "client-tick"));
+        assertEquals(OrderStatus.PENDING, pending.status());
+
+        orderService.onMarketTick(pending.stockId(), "AAPL", new BigDecimal("249.99"), java.time.Instant.now());
+        assertEquals(OrderStatus.PENDING, orderService.listOrders(accountId).get(0).status());
+
+        orderService.onMarketTick(pending.stockId(), "AAPL", new BigDecimal("251.00"), java.time.Instant.now());
+        OrderResult filled = orderService.listOrders(accountId).get(0);
+        assertEquals(OrderStatus.COMPLETED, filled.status());
+        assertEquals(new BigDecimal("251.00"), filled.executedPrice());
+        Wallet walletAfter = walletRepository.findByOwnerId(accountId).orElseThrow();
+        assertEquals(2000.0 - 502.0, walletAfter.getBalance().doubleValue(), 0.001);
+
+        // the order left the book: a later tick must not touch it again
+        orderService.onMarketTick(pending.stockId(), "AAPL", new BigDecimal("260.00"), java.time.Instant.now());
+        assertEquals(2000.0 - 502.0, walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue(), 0.001);
+    }
+
     @Test
     void marketOrderWithInsufficientFundsIsRecordedAsFailed() {
         var signup = authService.register(new AuthService.SignupCommand(
@@ -242,6 +276,136 @@ class OrderServiceTest {
                 new OrderCommand("AAPL", "BUY", "MARKET", "1", null, null)
         ));
     }
-}
 
+    @Test
+    void startedPostTradePipelineDeliversAuditAndNotificationsAfterCommit() {
+        var signup = authService.register(new AuthService.SignupCommand(
+                "pipeline@test.com",
+                "+15145550129",
+                "secret123",
+                "Trader Pipeline",
+                "7 Way Street",
+                java.time.LocalDate.of(1996, 7, 7)
+        ));
+        UUID accountId = signup.accountId();
+        authService.confirmAccount(accountId, signup.verificationCode());
+        walletService.deposit(accountId, "init-deposit", 5000.0);
+
+        PostTradePipeline pipeline = new PostTradePipeline(orderAuditRepository, notificationService, 16, 4).start();
+        OrderService asyncOrders = new OrderService(
+                authService,
+                walletService,
+                new MarketDataService(),
+                new InMemoryOrderRepository(),
+                stockRepository,
+                positionRepository,
+                orderAuditRepository,
+                notificationService,
+                new NoopTransactionManager(),
+                null,
+                false,
+                pipeline
+        );
+
+        OrderResult first = asyncOrders.placeOrder(accountId, new OrderCommand("AAPL", "BUY", "MARKET", "1", null, "async-1"));
+        OrderResult second = asyncOrders.placeOrder(accountId, new OrderCommand("TSLA", "BUY", "MARKET", "1", null, "async-2"));
+        pipeline.close();
 
+        assertEquals(0, pipeline.pending());
+        assertEquals(2, notificationService.list(accountId).size());
+        assertTrue(orderAuditRepository.entries().stream().anyMatch(entry -> entry.orderId().equals(first.orderId())));
+        assertTrue(orderAuditRepository.entries().stream().anyMatch(entry -> entry.orderId().equals(second.orderId())));
+    }
+
+    @Test
+    void failedBatchFillIsReplayedWithoutSettlingWalletsTwice() {
+        UUID accountId = activatedAccount("batch@test.com", "+15145550133", 2000.0);
+        java.util.concurrent.atomic.AtomicBoolean failNextBatch = new java.util.concurrent.atomic.AtomicBoolean(true);
+        OrderRepository flakyOrders = new InMemoryOrderRepository() {
+            @Override
+            public void updateAll(java.util.List<com.brokerx.domain.order.TradeOrder> orders) {
+                if (failNextBatch.compareAndSet(true, false)) {
+                    throw new IllegalStateException("batch write failed");
+                }
+                super.updateAll(orders);
+            }
+        };
+        OrderService batchOrders = new OrderService(
+                authService,
+                walletService,
+                new MarketDataService(),
+                flakyOrders,
+                stockRepository,
+                positionRepository,
+                orderAuditRepository,
+                notificationService,
+                new NoopTransactionManager(),
+                null,
+                true,
+                null
+        );
+
+        OrderResult first = batchOrders.placeOrder(accountId, new OrderCommand("AAPL", "BUY", "LIMIT", "2", "250", "batch-1"));
+        batchOrders.placeOrder(accountId, new OrderCommand("AAPL", "BUY", "LIMIT", "2", "250", "batch-2"));
+        assertEquals(1000.0, walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue(), 0.001);
+
+        batchOrders.onMarketTick(first.stockId(), "AAPL", new BigDecimal("251.00"), java.time.Instant.now());
+
+        assertFalse(failNextBatch.get());
+        assertTrue(batchOrders.listOrders(accountId).stream().allMatch(order -> order.status() == OrderStatus.COMPLETED));
+        assertEquals(2000.0 - 4 * 251.0, walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue(), 0.001);
+    }
+
+    @Test
+    void gtdOrderExpiresThroughTheWheelAndReleasesItsReservation() {
+        UUID accountId = activatedAccount("gtd@test.com", "+15145550131", 5000.0);
+        BigDecimal marketPrice = stockRepository.findBySymbol("AAPL").orElseThrow().getLastPrice();
+        String limit = marketPrice.multiply(BigDecimal.valueOf(1.2)).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        java.time.Instant deadline = java.time.Instant.now().plusSeconds(60);
+
+        OrderResult pending = orderService.placeOrder(accountId, new OrderCommand(
+                "AAPL", "BUY", "LIMIT", "2", limit, "gtd-1", "GTD", deadline.toString()));
+        assertEquals(OrderStatus.PENDING, pending.status());
+        assertEquals(deadline, pending.expiresAt());
+        assertTrue(walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue() < 5000.0);
+
+        assertEquals(0, orderService.expireDueOrders(deadline.minusSeconds(2)));
+        assertEquals(1, orderService.expireDueOrders(deadline.plusSeconds(1)));
+
+        OrderResult expired = orderService.listOrders(accountId).get(0);
+        assertEquals(OrderStatus.EXPIRED, expired.status());
+        assertEquals(5000.0, walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue(), 0.001);
+        assertEquals(1, orderAuditRepository.entries().stream()
+                .filter(entry -> "ORDER_EXPIRED".equals(entry.eventType()))
+                .count());
+    }
+
+    @Test
+    void iocLimitThatDoesNotCrossIsCancelledWithoutRestingOrHoldingFunds() {
+        UUID accountId = activatedAccount("ioc@test.com", "+15145550132", 5000.0);
+        BigDecimal marketPrice = stockRepository.findBySymbol("AAPL").orElseThrow().getLastPrice();
+        String limit = marketPrice.multiply(BigDecimal.valueOf(1.2)).setScale(2, RoundingMode.HALF_UP).toPlainString();
+
+        OrderResult result = orderService.placeOrder(accountId, new OrderCommand(
+                "AAPL", "BUY", "LIMIT", "2", limit, "ioc-1", "IOC", null));
+
+        assertEquals(OrderStatus.CANCELLED, result.status());
+        assertEquals(5000.0, walletRepository.findByOwnerId(accountId).orElseThrow().getBalance().doubleValue(), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(accountId, new OrderCommand(
+                "AAPL", "BUY", "LIMIT", "2", limit, "gtd-past", "GTD", "2020-01-01T00:00:00Z")));
+    }
+
+    private UUID activatedAccount(String email, String phone, double deposit) {
+        var signup = authService.register(new AuthService.SignupCommand(
+                email,
+                phone,
+                "secret123",
+                "Trader Expiry",
+                "9 Way Street",
+                java.time.LocalDate.of(1992, 9, 9)
+        ));
+        authService.confirmAccount(signup.accountId(), signup.verificationCode());
+        walletService.deposit(signup.accountId(), email + "-deposit", deposit);
+        return signup.accountId();
+    }
+}
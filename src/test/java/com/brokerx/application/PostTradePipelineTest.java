@@ -0,0 +1,89 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.adapters.persistence.memory.InMemoryOrderAuditRepository;
+import com.brokerx.application.PostTradePipeline.PostTradeEvent;
+import com.brokerx.domain.order.OrderAuditEntry;
+import com.brokerx.domain.order.OrderSide;
+import com.brokerx.domain.order.TradeOrder;
+
+class PostTradePipelineTest {
+
+    @Test
+    void eventsPublishedWhileClosingAreAllHandled() throws Exception {
+        InMemoryOrderAuditRepository audits = new InMemoryOrderAuditRepository();
+        NotificationService notifications = new NotificationService(10_000);
+        PostTradePipeline pipeline = new PostTradePipeline(audits, notifications, 8, 4).start();
+        UUID accountId = UUID.randomUUID();
+
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            runs.add(publishers.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    pipeline.publish(event(accountId));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        Thread.sleep(5);
+        pipeline.close();
+        for (Future<?> run : runs) {
+            run.get();
+        }
+        publishers.shutdown();
+
+        assertEquals(2_000, audits.entries().size());
+        assertEquals(2_000, notifications.list(accountId).size());
+        assertEquals(0, pipeline.pending());
+    }
+
+    @Test
+    void closeDoesNotInterruptAnAuditWriteInProgress() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        InMemoryOrderAuditRepository audits = new InMemoryOrderAuditRepository() {
+            @Override
+            public void append(OrderAuditEntry entry) {
+                writing.countDown();
+                try {
+                    // stands for a pool waiting on a connection, which gives up when interrupted
+                    Thread.sleep(200);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted", ex);
+                }
+                super.append(entry);
+            }
+        };
+        PostTradePipeline pipeline = new PostTradePipeline(audits, null, 8, 4).start();
+
+        pipeline.publish(event(UUID.randomUUID()));
+        writing.await();
+        pipeline.close();
+
+        assertEquals(1, audits.entries().size());
+    }
+
+    private static PostTradeEvent event(UUID accountId) {
+        TradeOrder order = TradeOrder.marketCompleted(UUID.randomUUID(), accountId, UUID.randomUUID(), "AAPL",
+                OrderSide.BUY, 1, BigDecimal.TEN, BigDecimal.TEN, null, Instant.now());
+        return new PostTradeEvent(order, new OrderAuditEntry(order.id(), "ORDER_COMPLETED", "{}", Instant.now()),
+                "ORDER_COMPLETED", "Ordre AAPL rempli (1)", "{}");
+    }
+}
@@ -0,0 +1,84 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.application.QuoteStreamHub.Subscription;
+import com.brokerx.application.StockService.Quote;
+
+class QuoteStreamHubTest {
+    private static final Duration NO_WAIT = Duration.ofMillis(1);
+
+    @Test
+    void slowSubscriberOnlySeesTheLatestQuotePerSymbol() throws InterruptedException {
+        QuoteStreamHub hub = new QuoteStreamHub(4, Duration.ofSeconds(15));
+        Subscription subscription = hub.subscribe(List.of("aapl", "TSLA"));
+
+        hub.accept(quote("AAPL", "100.00"));
+        hub.accept(quote("AAPL", "101.00"));
+        hub.accept(quote("MSFT", "50.00"));
+        hub.accept(quote("AAPL", "102.00"));
+        hub.accept(quote("TSLA", "200.00"));
+
+        List<Quote> updates = subscription.poll(NO_WAIT);
+        assertEquals(2, updates.size());
+        assertTrue(updates.stream().anyMatch(q -> q.symbol().equals("AAPL") && q.price().equals(new BigDecimal("102.00"))));
+        assertTrue(updates.stream().anyMatch(q -> q.symbol().equals("TSLA")));
+        assertTrue(subscription.poll(NO_WAIT).isEmpty());
+    }
+
+    @Test
+    void connectionCapIsReleasedWhenAStreamCloses() throws InterruptedException {
+        QuoteStreamHub hub = new QuoteStreamHub(2, Duration.ofSeconds(15));
+        Subscription first = hub.subscribe(List.of("AAPL"));
+        Subscription second = hub.subscribe(List.of("AAPL"));
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(List.of("TSLA")));
+
+        first.close();
+        assertEquals(1, hub.connections());
+        hub.accept(quote("AAPL", "100.00"));
+        assertTrue(first.poll(NO_WAIT).isEmpty());
+        assertEquals(1, second.poll(NO_WAIT).size());
+
+        Subscription third = hub.subscribe(List.of("TSLA"));
+        hub.close();
+        assertTrue(second.isClosed());
+        assertTrue(third.isClosed());
+        assertEquals(0, hub.connections());
+    }
+
+    @Test
+    void pollWakesUpAsSoonAsAQuoteArrives() throws InterruptedException {
+        QuoteStreamHub hub = new QuoteStreamHub(1, Duration.ofSeconds(15));
+        Subscription subscription = hub.subscribe(List.of("AAPL"));
+        Thread publisher = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            hub.accept(quote("AAPL", "100.00"));
+        });
+        publisher.start();
+
+        long start = System.nanoTime();
+        List<Quote> updates = subscription.poll(Duration.ofSeconds(5));
+        assertEquals(1, updates.size());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(4).toNanos());
+        publisher.join();
+    }
+
+    private static Quote quote(String symbol, String price) {
+        return new Quote(UUID.nameUUIDFromBytes(symbol.getBytes()), symbol, symbol + " Inc.", null,
+                new BigDecimal(price), Instant.now());
+    }
+}
@@ -0,0 +1,86 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.domain.stock.Stock;
+
+class StockPriceWriteBehindTest {
+    private static final UUID AAPL = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID GOOGL = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+    @Test
+    void coalescesTicksOfTheSameStockIntoOneRow() {
+        CountingStockRepository repository = new CountingStockRepository();
+        try (StockPriceWriteBehind writer = new StockPriceWriteBehind(repository, null, Duration.ofHours(1), 1_000).start()) {
+            Stock apple = repository.findById(AAPL).orElseThrow();
+            for (int i = 1; i <= 500; i++) {
+                apple.updatePrice(BigDecimal.valueOf(180 + i), Instant.now());
+                writer.submit(apple);
+            }
+            writer.submit(repository.findById(GOOGL).orElseThrow());
+            assertEquals(0, repository.rowsWritten);
+
+            assertEquals(2, writer.flush());
+            assertEquals(List.of(2), repository.batchSizes);
+            assertEquals(0, writer.pending());
+            assertEquals(0, new BigDecimal("680").compareTo(repository.findById(AAPL).orElseThrow().getLastPrice()));
+        }
+    }
+
+    @Test
+    void flushesOnThresholdAndOnClose() throws Exception {
+        CountingStockRepository repository = new CountingStockRepository();
+        StockPriceWriteBehind writer = new StockPriceWriteBehind(repository, null, Duration.ofHours(1), 2).start();
+        writer.submit(repository.findById(AAPL).orElseThrow());
+        writer.submit(repository.findById(GOOGL).orElseThrow());
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (repository.rowsWritten < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, repository.rowsWritten);
+
+        writer.submit(repository.findById(AAPL).orElseThrow());
+        writer.close();
+        assertEquals(3, repository.rowsWritten);
+    }
+
+    @Test
+    void writesThroughUntilStarted() {
+        CountingStockRepository repository = new CountingStockRepository();
+        StockPriceWriteBehind writer = new StockPriceWriteBehind(repository);
+        Stock apple = repository.findById(AAPL).orElseThrow();
+        apple.updatePrice(BigDecimal.valueOf(190), Instant.now());
+        writer.submit(apple);
+
+        assertEquals(1, repository.rowsWritten);
+        assertEquals(0, writer.pending());
+    }
+
+    private static final class CountingStockRepository extends InMemoryStockRepository {
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private volatile int rowsWritten;
+
+        @Override
+        public synchronized void updatePrice(UUID stockId, Stock stock) {
+            super.updatePrice(stockId, stock);
+            rowsWritten++;
+        }
+
+        @Override
+        public synchronized void updatePrices(Collection<Stock> stocks) {
+            batchSizes.add(stocks.size());
+            super.updatePrices(stocks);
+        }
+    }
+}
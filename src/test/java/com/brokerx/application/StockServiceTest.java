@@ -0,0 +1,26 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.application.StockService.QuoteList;
+
+class StockServiceTest {
+
+    @Test
+    void listingLoadedWithTheFeedOffCarriesTheCurrentVersion() {
+        InMemoryStockRepository stocks = new InMemoryStockRepository();
+        StockService service = new StockService(stocks, new MarketDataService(), null, Duration.ofHours(1));
+
+        QuoteList listing = service.allQuotes();
+        // the feed is off: the load drew the prices, and the version it carries is the current one
+        assertEquals(service.quoteVersion(), listing.version());
+        assertSame(listing, service.allQuotes());
+        assertEquals(listing.version(), service.quoteVersion());
+    }
+}
@@ -0,0 +1,37 @@
+package com.brokerx.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class TradingSessionTest {
+    private final TradingSession session = TradingSession.DEFAULT;
+
+    @Test
+    void dayOrdersExpireAtTheCloseOfTheSessionInProgress() {
+        // Wednesday 2026-10-14, 10:30 in Toronto
+        assertEquals(toronto(2026, 10, 14, 16, 0), session.closeAfter(toronto(2026, 10, 14, 10, 30)));
+    }
+
+    @Test
+    void afterTheCloseOrOnWeekendsTheNextSessionCloseApplies() {
+        assertEquals(toronto(2026, 10, 15, 16, 0), session.closeAfter(toronto(2026, 10, 14, 16, 0)));
+        // Friday evening and Saturday both roll over to Monday
+        assertEquals(toronto(2026, 10, 19, 16, 0), session.closeAfter(toronto(2026, 10, 16, 18, 0)));
+        assertEquals(toronto(2026, 10, 19, 16, 0), session.closeAfter(toronto(2026, 10, 17, 9, 0)));
+    }
+
+    @Test
+    void closeTimeIsConfigurable() {
+        TradingSession early = new TradingSession(session.zone(), LocalTime.of(13, 0));
+        assertEquals(toronto(2026, 10, 14, 13, 0), early.closeAfter(toronto(2026, 10, 14, 10, 30)));
+    }
+
+    private Instant toronto(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(session.zone()).toInstant();
+    }
+}
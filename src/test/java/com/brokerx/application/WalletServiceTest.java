@@ -1,6 +1,12 @@
 package com.brokerx.application;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.Test;
@@ -30,4 +36,82 @@ public class WalletServiceTest {
         assertEquals(tx1.getId(), tx2.getId(), "Doit renvoyer la même transaction");
         assertEquals(walletRepo.findByOwnerId(owner).get().getBalance().doubleValue(), 50.0);
     }
+
+    @Test
+    void concurrentReservationsNeverOverdraw() throws Exception {
+        var walletRepo = new InMemoryWalletRepository();
+        var walletService = new WalletService(walletRepo, new InMemoryTransactionRepository(),
+                new PaymentAdapterStub(), new NoopTransactionManager());
+        UUID owner = UUID.randomUUID();
+        walletRepo.create(owner);
+        walletService.deposit(owner, "RESERVE", 100.0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    walletService.reserve(owner, 1_000);
+                    return true;
+                } catch (IllegalArgumentException ex) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            granted += attempt.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        assertEquals(10, granted, "Seules 10 reservations de 10.00 tiennent dans 100.00");
+        assertEquals(0L, walletRepo.findByOwnerId(owner).get().getBalanceCents());
+    }
+
+    @Test
+    void depositsRacingReservationsAreNeverLost() throws Exception {
+        var walletRepo = new InMemoryWalletRepository();
+        var walletService = new WalletService(walletRepo, new InMemoryTransactionRepository(),
+                new PaymentAdapterStub(), new NoopTransactionManager());
+        UUID owner = UUID.randomUUID();
+        walletRepo.create(owner);
+        walletService.deposit(owner, "SEED", 100.0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> reservations = new ArrayList<>();
+        List<Future<?>> deposits = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String key = "DEPOSIT-" + i;
+            deposits.add(pool.submit(() -> {
+                start.await();
+                return walletService.deposit(owner, key, 1.0);
+            }));
+            reservations.add(pool.submit(() -> {
+                start.await();
+                try {
+                    walletService.reserve(owner, 100);
+                    return true;
+                } catch (IllegalArgumentException ex) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> deposit : deposits) {
+            deposit.get();
+        }
+        int reserved = 0;
+        for (Future<Boolean> reservation : reservations) {
+            reserved += reservation.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        assertEquals(10_000L + 200 * 100L - reserved * 100L,
+                walletRepo.findByOwnerId(owner).get().getBalanceCents(),
+                "Chaque depot et chaque reservation doit se retrouver dans le solde");
+    }
 }
@@ -0,0 +1,64 @@
+package com.brokerx.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Small helpers shared by the main-method benchmarks of this package. They are plain programs,
+ * not unit tests, so surefire never runs them; see the README for the launch command.
+ */
+final class BenchmarkSupport {
+    /** Fixed market data seed so every run walks prices along the same path. */
+    static final long SEED = 42L;
+
+    private static final PrintStream CONSOLE = System.out;
+
+    private BenchmarkSupport() {
+    }
+
+    static void print(String format, Object... args) {
+        CONSOLE.println(String.format(Locale.ROOT, format, args));
+    }
+
+    /**
+     * Structured logs go to stdout; silence them while measuring so the benchmark reports service
+     * time rather than console throughput.
+     */
+    static <T> T quietly(Callable<T> work) throws Exception {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return work.call();
+        } finally {
+            System.setOut(CONSOLE);
+        }
+    }
+
+    static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    static String summarize(String label, long[] latenciesNanos, long elapsedNanos) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return String.format(Locale.ROOT,
+                "%-28s ops=%-8d throughput=%10.0f ops/s  p50=%8.1f us  p99=%8.1f us  max=%9.1f us",
+                label,
+                sorted.length,
+                sorted.length / seconds,
+                percentile(sorted, 0.50) / 1_000.0,
+                percentile(sorted, 0.99) / 1_000.0,
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000.0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,161 @@
+package com.brokerx.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.brokerx.adapters.external.PaymentAdapterStub;
+import com.brokerx.adapters.persistence.jdbc.AccountAuditRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.AccountRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.JdbcTransactionManager;
+import com.brokerx.adapters.persistence.jdbc.OrderAuditRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.OrderRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.PersistenceException;
+import com.brokerx.adapters.persistence.jdbc.PositionRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.StockRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.TransactionRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.WalletRepositoryJdbc;
+import com.brokerx.application.AuthService;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.OrderService;
+import com.brokerx.application.OrderService.OrderCommand;
+import com.brokerx.application.WalletService;
+import com.brokerx.bootstrap.DatabaseMigrator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Concurrent orders on one symbol (AAPL) from distinct accounts, through the JDBC adapters on an H2
+ * database in PostgreSQL mode. The orders are IOC BUY LIMIT away from the market so they are cancelled
+ * unfilled (H2 has no {@code ON CONFLICT} for position fills, and nothing rests to be crossed later) but
+ * still run the full placement transaction: account check, wallet reservation and release, order and
+ * audit inserts. Every account has its own wallet row, so the only row all placements could share is
+ * the symbol's {@code stocks} row: the run shows whether placement serializes on it. The market data feed is not started, which is the read-driven mode where each order moves the
+ * price.
+ *
+ * Arguments: [threads=8] [ordersPerThread=2000]
+ */
+public final class HotSymbolOrderBenchmark {
+    private static final BigDecimal RESTING_FACTOR = new BigDecimal("1.22");
+
+    private HotSymbolOrderBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = BenchmarkSupport.intArg(args, 0, 8);
+        int ordersPerThread = BenchmarkSupport.intArg(args, 1, 2_000);
+
+        BenchmarkSupport.print("hot symbol placeOrder benchmark (H2, JDBC): threads=%d ordersPerThread=%d",
+                threads, ordersPerThread);
+
+        BenchmarkSupport.quietly(() -> run("warm-up", threads, ordersPerThread / 4));
+        BenchmarkSupport.print(BenchmarkSupport.quietly(() -> run("AAPL x1 thread", 1, ordersPerThread)));
+        BenchmarkSupport.print(BenchmarkSupport.quietly(
+                () -> run("AAPL x" + threads + " threads", threads, ordersPerThread)));
+    }
+
+    private static String run(String label, int threads, int ordersPerThread) throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:hot-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=60000");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setDriverClassName("org.h2.Driver");
+        config.setMaximumPoolSize(threads + 2);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            new DatabaseMigrator(dataSource).migrate();
+
+            var walletRepository = new WalletRepositoryJdbc(dataSource);
+            var transactionManager = new JdbcTransactionManager(dataSource);
+            AuthService authService = new AuthService(
+                    new AccountRepositoryJdbc(dataSource), walletRepository, new AccountAuditRepositoryJdbc(dataSource));
+            WalletService walletService = new WalletService(walletRepository,
+                    new TransactionRepositoryJdbc(dataSource), new PaymentAdapterStub(), transactionManager);
+            var stockRepository = new StockRepositoryJdbc(dataSource);
+            MarketDataService marketDataService = new MarketDataService(BenchmarkSupport.SEED);
+            marketDataService.seed("AAPL", stockRepository.findBySymbol("AAPL").orElseThrow().getLastPrice());
+            OrderService orderService = new OrderService(
+                    authService,
+                    walletService,
+                    marketDataService,
+                    new OrderRepositoryJdbc(dataSource),
+                    stockRepository,
+                    new PositionRepositoryJdbc(dataSource),
+                    new OrderAuditRepositoryJdbc(dataSource),
+                    null,
+                    transactionManager,
+                    null,
+                    true,
+                    null
+            );
+
+            List<UUID> accounts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                var signup = authService.register(new AuthService.SignupCommand(
+                        "hot-" + t + "-" + UUID.randomUUID() + "@test.com",
+                        "+1514555" + String.format("%04d", t),
+                        "secret123",
+                        "Hot Trader " + t,
+                        "1 Bench Street",
+                        LocalDate.of(1990, 1, 1)
+                ));
+                authService.confirmAccount(signup.accountId(), signup.verificationCode());
+                walletService.deposit(signup.accountId(), "hot-deposit-" + t, 1_000_000_000.0);
+                accounts.add(signup.accountId());
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                LongAdder rejected = new LongAdder();
+                List<Future<long[]>> futures = new ArrayList<>();
+                for (UUID accountId : accounts) {
+                    futures.add(pool.submit(() -> {
+                        long[] latencies = new long[ordersPerThread];
+                        start.await();
+                        for (int i = 0; i < ordersPerThread; i++) {
+                            // 22% over the last price: inside the +/-50% band and, as BUY LIMIT fills at market >= limit, unfilled
+                            BigDecimal limit = marketDataService.latestPrice("AAPL")
+                                    .multiply(RESTING_FACTOR)
+                                    .setScale(2, RoundingMode.DOWN);
+                            OrderCommand command = new OrderCommand(
+                                    "AAPL", "BUY", "LIMIT", "1", limit.toPlainString(), null, "IOC", null);
+                            long begin = System.nanoTime();
+                            try {
+                                orderService.placeOrder(accountId, command);
+                            } catch (IllegalArgumentException | PersistenceException ex) {
+                                // a stalled thread can quote a price the walk has since left: the order is
+                                // then outside the band, or fills and hits the position upsert H2 lacks
+                                rejected.increment();
+                            }
+                            latencies[i] = System.nanoTime() - begin;
+                        }
+                        return latencies;
+                    }));
+                }
+
+                long begin = System.nanoTime();
+                start.countDown();
+                long[] all = new long[threads * ordersPerThread];
+                int position = 0;
+                for (Future<long[]> future : futures) {
+                    long[] latencies = future.get();
+                    System.arraycopy(latencies, 0, all, position, latencies.length);
+                    position += latencies.length;
+                }
+                long elapsed = System.nanoTime() - begin;
+                return BenchmarkSupport.summarize(label, all, elapsed) + "  rejected=" + rejected.sum();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.brokerx.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.brokerx.adapters.external.PaymentAdapterStub;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountAuditRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryOrderRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryPositionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryTransactionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryWalletRepository;
+import com.brokerx.adapters.persistence.memory.NoopTransactionManager;
+import com.brokerx.application.AuthService;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.OrderService;
+import com.brokerx.application.OrderService.OrderCommand;
+import com.brokerx.application.WalletService;
+import com.brokerx.ports.TransactionManager;
+
+/**
+ * Single-threaded measurement of bytes allocated and wall time per {@code placeOrder} call, for
+ * MARKET orders and for LIMIT orders that rest in the book. Audits and notifications are disabled so
+ * the figures reflect the order path itself; structured logging still runs into a null stream.
+ *
+ * Arguments: [orders=20000]
+ */
+public final class OrderAllocationBenchmark {
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "TSLA", "AMZN", "SHOP"};
+
+    private OrderAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int orders = BenchmarkSupport.intArg(args, 0, 20_000);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        BenchmarkSupport.print("placeOrder allocation benchmark: orders=%d", orders);
+        BenchmarkSupport.quietly(() -> measure(threads, orders, "MARKET"));
+        BenchmarkSupport.quietly(() -> measure(threads, orders, "LIMIT"));
+        BenchmarkSupport.print(BenchmarkSupport.quietly(() -> measure(threads, orders, "MARKET")));
+        BenchmarkSupport.print(BenchmarkSupport.quietly(() -> measure(threads, orders, "LIMIT")));
+    }
+
+    private static String measure(com.sun.management.ThreadMXBean threads, int orders, String type) {
+        TransactionManager transactionManager = new NoopTransactionManager();
+        InMemoryWalletRepository walletRepository = new InMemoryWalletRepository();
+        AuthService authService = new AuthService(
+                new InMemoryAccountRepository(), walletRepository, new InMemoryAccountAuditRepository());
+        WalletService walletService = new WalletService(
+                walletRepository, new InMemoryTransactionRepository(), new PaymentAdapterStub(), transactionManager);
+        InMemoryStockRepository stockRepository = new InMemoryStockRepository();
+        OrderService orderService = new OrderService(
+                authService,
+                walletService,
+                new MarketDataService(BenchmarkSupport.SEED),
+                new InMemoryOrderRepository(),
+                stockRepository,
+                new InMemoryPositionRepository(),
+                null,
+                null,
+                transactionManager
+        );
+
+        var signup = authService.register(new AuthService.SignupCommand(
+                "alloc-" + UUID.randomUUID() + "@test.com",
+                "+15145559999",
+                "secret123",
+                "Alloc Trader",
+                "1 Bench Street",
+                LocalDate.of(1990, 1, 1)
+        ));
+        UUID accountId = signup.accountId();
+        authService.confirmAccount(accountId, signup.verificationCode());
+        walletService.deposit(accountId, "alloc-deposit", 1_000_000_000.0);
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            OrderCommand command;
+            if ("LIMIT".equals(type)) {
+                // 20% above the last price: inside the +/-50% band and resting (BUY limits fill once market >= limit)
+                double last = stockRepository.findBySymbol(symbol).orElseThrow().getLastPrice().doubleValue();
+                command = new OrderCommand(symbol, "BUY", "LIMIT", "1", Long.toString(Math.round(last * 1.2)), null);
+            } else {
+                command = new OrderCommand(symbol, "BUY", "MARKET", "1", null, null);
+            }
+            orderService.placeOrder(accountId, command);
+        }
+        long elapsed = System.nanoTime() - begin;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return String.format(java.util.Locale.ROOT, "%-8s %8.0f bytes/op  %8.2f us/op",
+                type, allocated / (double) orders, elapsed / 1_000.0 / orders);
+    }
+}
@@ -0,0 +1,137 @@
+package com.brokerx.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.brokerx.adapters.external.PaymentAdapterStub;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountAuditRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryOrderAuditRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryOrderRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryPositionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryTransactionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryWalletRepository;
+import com.brokerx.adapters.persistence.memory.NoopTransactionManager;
+import com.brokerx.application.AuthService;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.NotificationService;
+import com.brokerx.application.OrderSequencer;
+import com.brokerx.application.OrderService;
+import com.brokerx.application.OrderService.OrderCommand;
+import com.brokerx.application.WalletService;
+import com.brokerx.ports.TransactionManager;
+
+/**
+ * Compares {@code OrderService.placeOrder} called directly from concurrent request threads with the
+ * same calls routed through the per-symbol {@link OrderSequencer}. Both runs use the in-memory
+ * adapters so the numbers isolate the service path from database latency.
+ *
+ * Arguments: [threads=8] [ordersPerThread=5000] [partitions=availableProcessors]
+ */
+public final class OrderPlacementBenchmark {
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "TSLA", "AMZN", "SHOP"};
+
+    private OrderPlacementBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = BenchmarkSupport.intArg(args, 0, 8);
+        int ordersPerThread = BenchmarkSupport.intArg(args, 1, 5_000);
+        int partitions = BenchmarkSupport.intArg(args, 2, Runtime.getRuntime().availableProcessors());
+
+        BenchmarkSupport.print("placeOrder benchmark: threads=%d ordersPerThread=%d partitions=%d",
+                threads, ordersPerThread, partitions);
+
+        // warm-up rounds so both paths are measured with JIT-compiled code
+        BenchmarkSupport.quietly(() -> run(threads, ordersPerThread / 5, null));
+        try (OrderSequencer sequencer = new OrderSequencer(partitions, 1024)) {
+            BenchmarkSupport.quietly(() -> run(threads, ordersPerThread / 5, sequencer));
+        }
+
+        String direct = BenchmarkSupport.quietly(() -> run(threads, ordersPerThread, null));
+        BenchmarkSupport.print(direct);
+        try (OrderSequencer sequencer = new OrderSequencer(partitions, 1024)) {
+            String sequenced = BenchmarkSupport.quietly(() -> run(threads, ordersPerThread, sequencer));
+            BenchmarkSupport.print(sequenced);
+        }
+    }
+
+    private static String run(int threads, int ordersPerThread, OrderSequencer sequencer) throws Exception {
+        TransactionManager transactionManager = new NoopTransactionManager();
+        InMemoryWalletRepository walletRepository = new InMemoryWalletRepository();
+        AuthService authService = new AuthService(
+                new InMemoryAccountRepository(), walletRepository, new InMemoryAccountAuditRepository());
+        WalletService walletService = new WalletService(
+                walletRepository, new InMemoryTransactionRepository(), new PaymentAdapterStub(), transactionManager);
+        OrderService orderService = new OrderService(
+                authService,
+                walletService,
+                new MarketDataService(BenchmarkSupport.SEED),
+                new InMemoryOrderRepository(),
+                new InMemoryStockRepository(),
+                new InMemoryPositionRepository(),
+                new InMemoryOrderAuditRepository(),
+                new NotificationService(20),
+                transactionManager,
+                sequencer,
+                false,
+                null
+        );
+
+        List<UUID> accounts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            var signup = authService.register(new AuthService.SignupCommand(
+                    "bench-" + t + "-" + UUID.randomUUID() + "@test.com",
+                    "+1514555" + String.format("%04d", t),
+                    "secret123",
+                    "Bench Trader " + t,
+                    "1 Bench Street",
+                    LocalDate.of(1990, 1, 1)
+            ));
+            authService.confirmAccount(signup.accountId(), signup.verificationCode());
+            walletService.deposit(signup.accountId(), "bench-deposit-" + t, 1_000_000_000.0);
+            accounts.add(signup.accountId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            UUID accountId = accounts.get(t);
+            int offset = t;
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[ordersPerThread];
+                start.await();
+                for (int i = 0; i < ordersPerThread; i++) {
+                    OrderCommand command = new OrderCommand(
+                            SYMBOLS[(i + offset) % SYMBOLS.length], "BUY", "MARKET", "1", null, null);
+                    long begin = System.nanoTime();
+                    orderService.placeOrder(accountId, command);
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return latencies;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] all = new long[threads * ordersPerThread];
+        int position = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, position, latencies.length);
+            position += latencies.length;
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+
+        return BenchmarkSupport.summarize(sequencer == null ? "direct" : "sequenced", all, elapsed);
+    }
+}
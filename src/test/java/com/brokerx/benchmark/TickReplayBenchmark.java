@@ -0,0 +1,149 @@
+package com.brokerx.benchmark;
+
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.brokerx.adapters.external.PaymentAdapterStub;
+import com.brokerx.adapters.marketdata.MappedTickFile;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountAuditRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryAccountRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryOrderRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryPositionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryTransactionRepository;
+import com.brokerx.adapters.persistence.memory.InMemoryWalletRepository;
+import com.brokerx.adapters.persistence.memory.NoopTransactionManager;
+import com.brokerx.application.AuthService;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.OrderService;
+import com.brokerx.application.OrderService.OrderCommand;
+import com.brokerx.application.StockService;
+import com.brokerx.application.WalletService;
+import com.brokerx.domain.money.Money;
+import com.brokerx.domain.order.OrderStatus;
+import com.brokerx.domain.stock.Stock;
+import com.brokerx.ports.TickSource.RecordedTick;
+import com.brokerx.ports.TransactionManager;
+
+/**
+ * Order-fill throughput against a recorded tick path: resting BUY LIMIT orders are placed 1-10% above
+ * the last prices, then a tick file is replayed through {@link MarketDataService#startReplay} and the
+ * same stock/order subscribers as production. Without a file argument a bursty path (clusters of ticks
+ * sharing a millisecond, then quiet gaps) is generated from the benchmark seed and written in the binary
+ * layout, so runs are repeatable.
+ *
+ * Arguments: [restingOrders=5000] [ticks=200000] [speed=max|1|10...] [tickFile]
+ */
+public final class TickReplayBenchmark {
+    private TickReplayBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int restingOrders = BenchmarkSupport.intArg(args, 0, 5_000);
+        int ticks = BenchmarkSupport.intArg(args, 1, 200_000);
+        double speed = args.length > 2 && !"max".equalsIgnoreCase(args[2])
+                ? Double.parseDouble(args[2])
+                : MarketDataService.AS_FAST_AS_POSSIBLE;
+        Path tickFile = args.length > 3 ? Path.of(args[3]) : null;
+
+        BenchmarkSupport.print("tick replay benchmark: restingOrders=%d ticks=%d speed=%s",
+                restingOrders, ticks, speed > 0 ? speed + "x" : "max");
+        BenchmarkSupport.print(BenchmarkSupport.quietly(() -> run(restingOrders, ticks, speed, tickFile)));
+    }
+
+    private static String run(int restingOrders, int ticks, double speed, Path tickFile) throws Exception {
+        TransactionManager transactionManager = new NoopTransactionManager();
+        InMemoryWalletRepository walletRepository = new InMemoryWalletRepository();
+        AuthService authService = new AuthService(
+                new InMemoryAccountRepository(), walletRepository, new InMemoryAccountAuditRepository());
+        WalletService walletService = new WalletService(
+                walletRepository, new InMemoryTransactionRepository(), new PaymentAdapterStub(), transactionManager);
+        InMemoryStockRepository stockRepository = new InMemoryStockRepository();
+        MarketDataService marketDataService = new MarketDataService(BenchmarkSupport.SEED);
+        OrderService orderService = new OrderService(
+                authService,
+                walletService,
+                marketDataService,
+                new InMemoryOrderRepository(),
+                stockRepository,
+                new InMemoryPositionRepository(),
+                null,
+                null,
+                transactionManager
+        );
+
+        var signup = authService.register(new AuthService.SignupCommand(
+                "replay-" + UUID.randomUUID() + "@test.com",
+                "+15145559999",
+                "secret123",
+                "Replay Trader",
+                "1 Bench Street",
+                LocalDate.of(1990, 1, 1)
+        ));
+        UUID accountId = signup.accountId();
+        authService.confirmAccount(accountId, signup.verificationCode());
+        walletService.deposit(accountId, "replay-deposit", 1_000_000_000.0);
+
+        List<Stock> stocks = stockRepository.findAll();
+        for (int i = 0; i < restingOrders; i++) {
+            Stock stock = stocks.get(i % stocks.size());
+            long limit = Money.scale(Money.fromDecimal(stock.getLastPrice()), 101 + i % 10, 100,
+                    RoundingMode.HALF_UP);
+            orderService.placeOrder(accountId, new OrderCommand(
+                    stock.getSymbol(), "BUY", "LIMIT", "1", Money.format(limit), null));
+        }
+
+        Path file = tickFile;
+        if (file == null) {
+            file = Files.createTempFile("brokerx-ticks", ".bin");
+            file.toFile().deleteOnExit();
+            MappedTickFile.write(file, generate(stockRepository.findAll(), ticks));
+        }
+
+        new StockService(stockRepository, marketDataService, orderService).attachToFeed();
+        long begin = System.nanoTime();
+        long published = marketDataService.startReplay(MappedTickFile.open(file), speed).get(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - begin;
+        marketDataService.close();
+
+        long filled = orderService.listOrders(accountId).stream()
+                .filter(order -> order.status() == OrderStatus.COMPLETED)
+                .count();
+        double seconds = elapsed / 1_000_000_000.0;
+        return String.format(java.util.Locale.ROOT,
+                "ticks=%d in %.2f s (%.0f ticks/s)  filled=%d/%d (%.0f fills/s)",
+                published, seconds, published / seconds, filled, restingOrders, filled / seconds);
+    }
+
+    private static List<RecordedTick> generate(List<Stock> stocks, int count) {
+        SplittableRandom random = new SplittableRandom(BenchmarkSupport.SEED);
+        long[] start = new long[stocks.size()];
+        long[] prices = new long[stocks.size()];
+        for (int i = 0; i < stocks.size(); i++) {
+            start[i] = Money.fromDecimal(stocks.get(i).getLastPrice());
+            prices[i] = start[i];
+        }
+        List<RecordedTick> ticks = new ArrayList<>(count);
+        long millis = System.currentTimeMillis();
+        while (ticks.size() < count) {
+            int burst = 1 + random.nextInt(64);
+            for (int b = 0; b < burst && ticks.size() < count; b++) {
+                int s = random.nextInt(stocks.size());
+                // +/-0.5% steps with a slight upward drift, kept within 80%-130% of the opening price
+                long stepPpm = 1_000_000 + random.nextInt(-5_000, 5_500);
+                long next = Money.scale(prices[s], stepPpm, 1_000_000, RoundingMode.HALF_UP);
+                prices[s] = Math.min(Math.max(next, start[s] * 8 / 10), start[s] * 13 / 10);
+                ticks.add(new RecordedTick(stocks.get(s).getSymbol(), prices[s], millis));
+            }
+            millis += 1 + random.nextInt(250);
+        }
+        return ticks;
+    }
+}
@@ -0,0 +1,82 @@
+package com.brokerx.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.brokerx.interfaces.rest.TokenService;
+
+/**
+ * Throughput of {@link TokenService#authenticate} on a pool of issued bearer tokens, read by several
+ * threads at once as the REST handlers do on every request. A tenth of the tokens are revoked so the
+ * revocation check is part of the measured path.
+ *
+ * Arguments: [threads=4] [callsPerThread=500000] [tokens=10000]
+ */
+public final class TokenAuthenticateBenchmark {
+    private TokenAuthenticateBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = BenchmarkSupport.intArg(args, 0, 4);
+        int callsPerThread = BenchmarkSupport.intArg(args, 1, 500_000);
+        int tokens = BenchmarkSupport.intArg(args, 2, 10_000);
+
+        TokenService tokenService = new TokenService(Duration.ofHours(4));
+        String[] headers = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            String token = tokenService.issue(UUID.randomUUID()).token();
+            headers[i] = "Bearer " + token;
+            if (i % 10 == 0) {
+                tokenService.revoke(token);
+            }
+        }
+
+        BenchmarkSupport.print("authenticate benchmark: threads=%d callsPerThread=%d tokens=%d",
+                threads, callsPerThread, tokens);
+        run(tokenService, headers, threads, Math.max(1, callsPerThread / 10));
+        BenchmarkSupport.print(run(tokenService, headers, threads, callsPerThread));
+    }
+
+    private static String run(TokenService tokenService, String[] headers, int threads, int callsPerThread)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * 7919;
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[callsPerThread];
+                    long accepted = 0;
+                    for (int i = 0; i < callsPerThread; i++) {
+                        String header = headers[(offset + i) % headers.length];
+                        long begin = System.nanoTime();
+                        if (tokenService.authenticate(header).isPresent()) {
+                            accepted++;
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    if (accepted == 0) {
+                        throw new IllegalStateException("no token accepted");
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[threads * callsPerThread];
+            int position = 0;
+            for (Future<long[]> result : results) {
+                long[] latencies = result.get();
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            return BenchmarkSupport.summarize("authenticate", all, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
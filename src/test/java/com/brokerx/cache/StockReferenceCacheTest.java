@@ -0,0 +1,101 @@
+package com.brokerx.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.adapters.persistence.memory.InMemoryStockRepository;
+import com.brokerx.domain.stock.Stock;
+import com.brokerx.domain.stock.StockReference;
+
+class StockReferenceCacheTest {
+    private static final UUID AAPL = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Test
+    void assignsDenseIndexesAndResolvesWithoutTheDelegate() {
+        CountingStockRepository delegate = new CountingStockRepository();
+        StockReferenceCache cache = new StockReferenceCache(delegate);
+
+        Set<Integer> indexes = new HashSet<>();
+        for (Stock stock : delegate.findAll()) {
+            int index = cache.indexOf(stock.getSymbol());
+            assertEquals(index, cache.indexOf(stock.getId()));
+            assertEquals(stock.getId(), cache.reference(index).id());
+            indexes.add(index);
+        }
+        assertEquals(cache.size(), indexes.size());
+        assertTrue(indexes.stream().allMatch(index -> index >= 0 && index < cache.size()));
+
+        int apple = cache.indexOf(AAPL);
+        assertEquals(apple, cache.indexOf("aapl"));
+        assertEquals(apple, cache.indexOf(new StringBuilder("AaPl")));
+        assertEquals(StockReferenceCache.NOT_FOUND, cache.indexOf("AAP"));
+        assertEquals("AAPL", cache.findBySymbol("aapl").orElseThrow().getSymbol());
+        assertEquals(0, delegate.lookups);
+    }
+
+    @Test
+    void appendsStocksListedAfterTheInitialLoad() {
+        CountingStockRepository delegate = new CountingStockRepository();
+        StockReferenceCache cache = new StockReferenceCache(delegate);
+        int listed = cache.size();
+
+        StockReference newco = cache.resolve("NEWCO").orElseThrow();
+        assertEquals(listed, newco.index());
+        assertEquals(newco.index(), cache.indexOf("newco"));
+        assertEquals(cache.indexOf(AAPL), cache.resolve(AAPL).orElseThrow().index());
+        assertTrue(cache.resolve("NOPE").isEmpty());
+        assertEquals(2, delegate.lookups);
+    }
+
+    @Test
+    void symbolToReferenceLookupsDoNotAllocate() {
+        StockReferenceCache cache = new StockReferenceCache(new InMemoryStockRepository());
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long checksum = lookups(cache, 20_000);
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        checksum += lookups(cache, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+    }
+
+    private static long lookups(StockReferenceCache cache, int count) {
+        long checksum = 0;
+        for (int i = 0; i < count; i++) {
+            checksum += cache.reference(cache.indexOf("TSLA")).symbol().length();
+        }
+        return checksum;
+    }
+
+    private static final class CountingStockRepository extends InMemoryStockRepository {
+        private int lookups;
+
+        @Override
+        public Optional<Stock> findBySymbol(String symbol) {
+            lookups++;
+            if ("NEWCO".equalsIgnoreCase(symbol)) {
+                return Optional.of(new Stock(UUID.randomUUID(), "NEWCO", "NewCo", "Nouvelle inscription",
+                        BigDecimal.TEN, Instant.now()));
+            }
+            return super.findBySymbol(symbol);
+        }
+
+        @Override
+        public Optional<Stock> findById(UUID stockId) {
+            lookups++;
+            return super.findById(stockId);
+        }
+    }
+}
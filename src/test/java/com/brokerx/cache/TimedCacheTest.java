@@ -0,0 +1,142 @@
+package com.brokerx.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class TimedCacheTest {
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        TimedCache<String, Integer> cache = new TimedCache<>("test_single_flight", Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getOrCompute("ALL", () -> {
+                    loads.incrementAndGet();
+                    loaderEntered.countDown();
+                    await(release);
+                    return 42;
+                })));
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void servesTheCachedValueWhileRefreshingAhead() throws Exception {
+        List<Runnable> refreshes = new ArrayList<>();
+        TimedCache<String, Integer> cache = new TimedCache<>("test_refresh_ahead", Duration.ofMillis(400), 0.25, refreshes::add,
+                TimedCache.UNBOUNDED, TimedCache.Weigher.singleton());
+        AtomicInteger version = new AtomicInteger();
+
+        assertEquals(1, cache.getOrCompute("k", version::incrementAndGet));
+        Thread.sleep(150);
+        assertEquals(1, cache.getOrCompute("k", version::incrementAndGet));
+        assertEquals(1, cache.getOrCompute("k", version::incrementAndGet));
+        assertEquals(1, refreshes.size(), "one refresh while the first is in flight");
+
+        refreshes.get(0).run();
+        assertEquals(2, cache.getOrCompute("k", version::incrementAndGet));
+        assertEquals(2, version.get());
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndInvalidateWinsOverARunningLoad() {
+        TimedCache<String, String> cache = new TimedCache<>("test_failures", Duration.ofMinutes(1));
+        assertThrows(IllegalStateException.class, () -> cache.getOrCompute("k", () -> {
+            throw new IllegalStateException("down");
+        }));
+        assertEquals("ok", cache.getOrCompute("k", () -> "ok"));
+
+        cache.invalidate("k");
+        String loaded = cache.getOrCompute("k", () -> {
+            cache.invalidate("k");
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertTrue(cache.getIfPresent("k").isEmpty());
+    }
+
+    @Test
+    void boundedCacheKeepsPopularEntriesThroughAScan() {
+        TimedCache<Integer, String> cache = new TimedCache<>("test_bounded", Duration.ofMinutes(1), 100);
+        for (int key = 0; key < 100; key++) {
+            cache.put(key, "hot-" + key);
+            for (int read = 0; read < 5; read++) {
+                cache.getIfPresent(key);
+            }
+        }
+        for (int key = 1_000; key < 2_000; key++) {
+            cache.put(key, "scan-" + key);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(cache.size(), cache.weightedSize());
+        long hotRetained = IntStream.range(0, 100)
+                .filter(key -> cache.getIfPresent(key).isPresent())
+                .count();
+        assertTrue(hotRetained >= 95, "hot entries retained: " + hotRetained);
+    }
+
+    @Test
+    void weightLimitEvictsTheOldestLessPopularEntry() {
+        TimedCache<String, String> cache = new TimedCache<>("test_weighted", Duration.ofMinutes(1), 10,
+                (key, value) -> value.length());
+        cache.put("a", "xxxx");
+        cache.put("b", "xxxx");
+        cache.getIfPresent("c");
+        cache.getIfPresent("c");
+        cache.put("c", "xxxx");
+
+        assertTrue(cache.getIfPresent("a").isEmpty());
+        assertTrue(cache.getIfPresent("b").isPresent());
+        assertTrue(cache.getIfPresent("c").isPresent());
+        assertEquals(8, cache.weightedSize());
+    }
+
+    @Test
+    void sweepRemovesExpiredEntries() throws Exception {
+        TimedCache<String, String> cache = new TimedCache<>("test_sweep", Duration.ofMillis(50), 10);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Thread.sleep(80);
+        cache.put("c", "3");
+
+        assertEquals(2, cache.sweep());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.weightedSize());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
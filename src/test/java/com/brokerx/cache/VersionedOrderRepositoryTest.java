@@ -0,0 +1,66 @@
+package com.brokerx.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.adapters.persistence.memory.InMemoryOrderRepository;
+import com.brokerx.adapters.persistence.memory.NoopTransactionManager;
+import com.brokerx.domain.order.OrderSide;
+import com.brokerx.domain.order.TradeOrder;
+
+class VersionedOrderRepositoryTest {
+    private final NoopTransactionManager transactionManager = new NoopTransactionManager();
+    private final VersionedOrderRepository repository =
+            new VersionedOrderRepository(new InMemoryOrderRepository(), transactionManager);
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID otherAccountId = UUID.randomUUID();
+
+    @Test
+    void writesBumpOnlyTheirAccountAndReadsNever() {
+        TradeOrder order = pending(accountId);
+        repository.save(order);
+        long afterSave = repository.version(accountId);
+        assertTrue(afterSave > 0);
+
+        repository.findByAccount(accountId);
+        repository.findById(order.id());
+        assertEquals(afterSave, repository.version(accountId));
+        assertEquals(0, repository.version(otherAccountId));
+
+        repository.updateAll(List.of(order.cancel(Instant.now(), "test"), pending(otherAccountId)));
+        assertTrue(repository.version(accountId) > afterSave);
+        assertTrue(repository.version(otherAccountId) > 0);
+    }
+
+    @Test
+    void versionMovesAgainOnCommitAndNotForARolledBackWriteOnly() {
+        long[] insideTransaction = new long[1];
+        transactionManager.inTransaction(() -> {
+            repository.save(pending(accountId));
+            insideTransaction[0] = repository.version(accountId);
+        });
+        // a reader that took the version before the commit must not match the committed list
+        assertTrue(repository.version(accountId) > insideTransaction[0]);
+
+        long beforeFailure = repository.version(accountId);
+        assertThrows(IllegalStateException.class, () -> transactionManager.inTransaction(() -> {
+            repository.save(pending(accountId));
+            throw new IllegalStateException("rollback");
+        }));
+        // the statement already ran: the version moved even though the commit never happened
+        assertTrue(repository.version(accountId) > beforeFailure);
+    }
+
+    private static TradeOrder pending(UUID accountId) {
+        return TradeOrder.limitPending(UUID.randomUUID(), accountId, UUID.randomUUID(), "AAPL",
+                OrderSide.BUY, 1, new BigDecimal("10.00"), null, Instant.now());
+    }
+}
@@ -0,0 +1,45 @@
+package com.brokerx.domain.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void convertsDecimalsToCentsAndBack() {
+        assertEquals(25_001, Money.parse("250.005"));
+        assertEquals(-1_999, Money.fromDecimal(new BigDecimal("-19.99")));
+        assertEquals(new BigDecimal("250.01"), Money.toDecimal(25_001));
+        assertEquals("250.01", Money.format(25_001));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("0.00", Money.format(0));
+    }
+
+    @Test
+    void roundsDivisionsLikeBigDecimal() {
+        long[][] cases = {{1_001, 2}, {-1_001, 2}, {1_003, 3}, {-1_003, 3}, {1_005, 10}, {1_015, 10}, {7, -2}};
+        for (long[] sample : cases) {
+            for (RoundingMode mode : RoundingMode.values()) {
+                if (mode == RoundingMode.UNNECESSARY) {
+                    continue;
+                }
+                long expected = BigDecimal.valueOf(sample[0])
+                        .divide(BigDecimal.valueOf(sample[1]), 0, mode)
+                        .longValueExact();
+                assertEquals(expected, Money.divide(sample[0], sample[1], mode),
+                        sample[0] + "/" + sample[1] + " " + mode);
+            }
+        }
+        assertEquals(15_000, Money.scale(10_000, 150, 100, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void rejectsOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.parse("1e30"));
+    }
+}
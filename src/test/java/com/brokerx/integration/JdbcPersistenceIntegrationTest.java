@@ -1,9 +1,13 @@
 package com.brokerx.integration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -12,12 +16,22 @@ import org.junit.jupiter.api.Test;
 import com.brokerx.adapters.external.PaymentAdapterStub;
 import com.brokerx.adapters.persistence.jdbc.AccountAuditRepositoryJdbc;
 import com.brokerx.adapters.persistence.jdbc.AccountRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.OrderAuditRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.OrderRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.PositionRepositoryJdbc;
+import com.brokerx.adapters.persistence.jdbc.StockRepositoryJdbc;
 import com.brokerx.adapters.persistence.jdbc.TransactionRepositoryJdbc;
 import com.brokerx.adapters.persistence.jdbc.JdbcTransactionManager;
 import com.brokerx.adapters.persistence.jdbc.WalletRepositoryJdbc;
 import com.brokerx.application.AuthService;
+import com.brokerx.application.MarketDataService;
+import com.brokerx.application.OrderService;
+import com.brokerx.application.OrderService.OrderCommand;
+import com.brokerx.application.OrderService.OrderResult;
 import com.brokerx.application.WalletService;
 import com.brokerx.bootstrap.DatabaseMigrator;
+import com.brokerx.domain.account.AccountState;
+import com.brokerx.domain.order.OrderStatus;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -27,6 +41,8 @@ class JdbcPersistenceIntegrationTest {
     private static WalletService walletService;
     private static TransactionRepositoryJdbc transactionRepository;
     private static JdbcTransactionManager transactionManager;
+    private static OrderService orderService;
+    private static PositionRepositoryJdbc positionRepository;
 
     @BeforeAll
     static void setupDatabase() {
@@ -47,6 +63,21 @@ class JdbcPersistenceIntegrationTest {
         transactionManager = new JdbcTransactionManager(dataSource);
         authService = new AuthService(accountRepository, walletRepository, auditRepository);
         walletService = new WalletService(walletRepository, transactionRepository, new PaymentAdapterStub(), transactionManager);
+        positionRepository = new PositionRepositoryJdbc(dataSource);
+        orderService = new OrderService(
+                authService,
+                walletService,
+                new MarketDataService(),
+                new OrderRepositoryJdbc(dataSource),
+                new StockRepositoryJdbc(dataSource),
+                positionRepository,
+                new OrderAuditRepositoryJdbc(dataSource),
+                null,
+                transactionManager,
+                null,
+                true,
+                null
+        );
     }
 
     @AfterAll
@@ -79,4 +110,121 @@ class JdbcPersistenceIntegrationTest {
         assertTrue(txOpt.isPresent(), "Transaction should be persisted");
         assertEquals("SETTLED", txOpt.get().getState());
     }
+
+    @Test
+    void batchFillCompletesCrossingOrdersAndIsolatesUnderfundedOnes() throws SQLException {
+        UUID funded = activatedAccount("batch-funded@brokerx.io", "+15145550801", 2000.0);
+        UUID underfunded = activatedAccount("batch-short@brokerx.io", "+15145550802", 520.0);
+
+        OrderResult fundedOrder = orderService.placeOrder(funded,
+                new OrderCommand("AAPL", "BUY", "LIMIT", "2", "250", "batch-1"));
+        OrderResult shortOrder = orderService.placeOrder(underfunded,
+                new OrderCommand("AAPL", "BUY", "LIMIT", "2", "255", "batch-2"));
+        assertEquals(OrderStatus.PENDING, fundedOrder.status());
+        assertEquals(OrderStatus.PENDING, shortOrder.status());
+
+        orderService.onMarketTick(fundedOrder.stockId(), "AAPL", new BigDecimal("270.00"), Instant.now());
+
+        assertEquals(OrderStatus.COMPLETED, orderService.listOrders(funded).get(0).status());
+        assertEquals(0, walletService.findWallet(funded).orElseThrow().getBalance().compareTo(new BigDecimal("1460")));
+        var position = positionRepository.find(funded, fundedOrder.stockId()).orElseThrow();
+        assertEquals(0, position.quantity().compareTo(new BigDecimal("2")));
+        assertEquals(0, position.averagePrice().compareTo(new BigDecimal("270")));
+        assertEquals(1, countAudits(fundedOrder.orderId(), "ORDER_COMPLETED"));
+
+        // the extra 30.00 the fill needs is more than the 10.00 left: the order fails and its reservation is released
+        OrderResult failed = orderService.listOrders(underfunded).get(0);
+        assertEquals(OrderStatus.FAILED, failed.status());
+        assertEquals(0, walletService.findWallet(underfunded).orElseThrow().getBalance().compareTo(new BigDecimal("520")));
+        assertTrue(positionRepository.find(underfunded, shortOrder.stockId()).isEmpty());
+        assertEquals(1, countAudits(shortOrder.orderId(), "ORDER_FAILED"));
+    }
+
+    @Test
+    void walletReservationNeverOverdraws() {
+        UUID owner = activatedAccount("reserve@brokerx.io", "+15145550803", 100.0);
+
+        walletService.reserve(owner, 6_000);
+        assertThrows(IllegalArgumentException.class, () -> walletService.reserve(owner, 6_000));
+        assertEquals(0, walletService.findWallet(owner).orElseThrow().getBalance().compareTo(new BigDecimal("40")));
+
+        walletService.release(owner, 6_000);
+        assertEquals(0, walletService.findWallet(owner).orElseThrow().getBalance().compareTo(new BigDecimal("100")));
+    }
+
+    @Test
+    void dayOrderExpiresInOneBatchAndIsRefunded() throws SQLException {
+        UUID owner = activatedAccount("expiry@brokerx.io", "+15145550804", 1000.0);
+        BigDecimal last = new StockRepositoryJdbc(dataSource).findBySymbol("TSLA").orElseThrow().getLastPrice();
+        String limit = last.multiply(new BigDecimal("1.2")).setScale(2, java.math.RoundingMode.HALF_UP).toPlainString();
+        OrderResult pending = orderService.placeOrder(owner,
+                new OrderCommand("TSLA", "BUY", "LIMIT", "1", limit, "expiry-1", "DAY", null));
+        assertEquals(OrderStatus.PENDING, pending.status());
+
+        assertEquals(1, orderService.expireDueOrders(pending.expiresAt().plusSeconds(1)));
+
+        assertEquals(OrderStatus.EXPIRED, orderService.listOrders(owner).get(0).status());
+        assertEquals(0, walletService.findWallet(owner).orElseThrow().getBalance().compareTo(new BigDecimal("1000")));
+        assertEquals(1, countAudits(pending.orderId(), "ORDER_EXPIRED"));
+    }
+
+    @Test
+    void accountStatusIsCachedOnlyWhileActiveAndEvictedOnConfirmation() throws SQLException {
+        var signup = authService.register(new AuthService.SignupCommand(
+                "status@brokerx.io",
+                "+15145550805",
+                "superSecret",
+                "Status User",
+                "2 Status Street",
+                java.time.LocalDate.of(1992, 5, 3)
+        ));
+        UUID accountId = signup.accountId();
+
+        var pending = authService.findAccountStatus(accountId).orElseThrow();
+        assertEquals(AccountState.PENDING, pending.state());
+        assertEquals(0L, pending.version());
+        assertThrows(IllegalStateException.class, () -> orderService.placeOrder(accountId,
+                new OrderCommand("AAPL", "BUY", "LIMIT", "1", "250", "status-1")));
+
+        authService.confirmAccount(accountId, signup.verificationCode());
+        var active = authService.findAccountStatus(accountId).orElseThrow();
+        assertEquals(AccountState.ACTIVE, active.state());
+        assertEquals(1L, active.version());
+
+        // an active status is served from the cache, not re-read
+        try (var connection = dataSource.getConnection();
+             var ps = connection.prepareStatement("UPDATE accounts SET state = 'SUSPENDED' WHERE id = ?")) {
+            ps.setObject(1, accountId);
+            ps.executeUpdate();
+        }
+        assertEquals(active, authService.findAccountStatus(accountId).orElseThrow());
+        assertTrue(authService.findAccountStatus(UUID.randomUUID()).isEmpty());
+    }
+
+    private UUID activatedAccount(String email, String phone, double deposit) {
+        var signup = authService.register(new AuthService.SignupCommand(
+                email,
+                phone,
+                "superSecret",
+                "Batch User",
+                "1 Batch Street",
+                java.time.LocalDate.of(1991, 4, 2)
+        ));
+        authService.confirmAccount(signup.accountId(), signup.verificationCode());
+        walletService.deposit(signup.accountId(), email + "-deposit", deposit);
+        return signup.accountId();
+    }
+
+    private int countAudits(UUID orderId, String eventType) throws SQLException {
+        try (var connection = dataSource.getConnection();
+             var ps = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM order_audit WHERE order_id = ? AND event_type = ?")) {
+            ps.setObject(1, orderId);
+            ps.setString(2, eventType);
+            try (var rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
 }
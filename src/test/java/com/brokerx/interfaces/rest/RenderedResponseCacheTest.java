@@ -0,0 +1,60 @@
+package com.brokerx.interfaces.rest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.interfaces.rest.RenderedResponseCache.Rendered;
+
+class RenderedResponseCacheTest {
+    private final RenderedResponseCache cache = new RenderedResponseCache("test");
+
+    @Test
+    void serializesOncePerVersionAndSharesTheBytes() throws IOException {
+        AtomicInteger renders = new AtomicInteger();
+        Rendered first = cache.get(1, () -> {
+            renders.incrementAndGet();
+            return List.of("AAPL");
+        });
+        Rendered again = cache.get(1, () -> {
+            renders.incrementAndGet();
+            return List.of("ignored");
+        });
+
+        assertSame(first, again);
+        assertEquals(1, renders.get());
+        assertEquals("{\"data\":[\"AAPL\"]}", new String(first.json()));
+        assertFalse(first.compressible());
+
+        Rendered next = cache.get(2, () -> List.of("MSFT"));
+        assertEquals("{\"data\":[\"MSFT\"]}", new String(next.json()));
+        cache.invalidate();
+        assertNotSame(next, cache.get(2, () -> List.of("MSFT")));
+    }
+
+    @Test
+    void largeBodiesGetAGzipVariantCompressedOnce() throws IOException {
+        List<String> symbols = IntStream.range(0, 200).mapToObj(i -> "SYMBOL-" + i).toList();
+        Rendered rendered = cache.get(7, () -> symbols);
+
+        assertTrue(rendered.compressible());
+        byte[] gzip = rendered.gzip();
+        assertSame(gzip, rendered.gzip());
+        assertTrue(gzip.length < rendered.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(rendered.json(), in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.brokerx.interfaces.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.observability.AppMetrics;
+import com.sun.net.httpserver.HttpServer;
+
+class RequestExecutorTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void saturatedPoolAnswers503WhileOtherRequestsKeepRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (RequestExecutor executor = RequestExecutor.bounded("test-bounded", 1, 1)) {
+            HttpServer server = executor.createServer(new InetSocketAddress("127.0.0.1", 0));
+            server.createContext("/slow", exchange -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.start();
+            try {
+                CompletableFuture<HttpResponse<String>> running = send(server, "/slow");
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                CompletableFuture<HttpResponse<String>> queued = send(server, "/slow");
+                waitForQueue("test-bounded");
+
+                HttpResponse<String> rejected = send(server, "/slow").get(5, TimeUnit.SECONDS);
+                assertEquals(503, rejected.statusCode());
+                assertEquals("1", rejected.headers().firstValue("Retry-After").orElseThrow());
+                assertTrue(rejected.body().contains("\"status\":503"));
+
+                release.countDown();
+                assertEquals(200, running.get(5, TimeUnit.SECONDS).statusCode());
+                assertEquals(200, queued.get(5, TimeUnit.SECONDS).statusCode());
+            } finally {
+                server.stop(0);
+            }
+        }
+    }
+
+    @Test
+    void dispatcherModeRunsHandlersInline() throws Exception {
+        try (RequestExecutor executor = RequestExecutor.dispatcher("test-dispatcher")) {
+            HttpServer server = executor.createServer(new InetSocketAddress("127.0.0.1", 0));
+            server.createContext("/ping", exchange -> {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            });
+            server.start();
+            try {
+                assertEquals(204, send(server, "/ping").get(5, TimeUnit.SECONDS).statusCode());
+            } finally {
+                server.stop(0);
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpServer server, String path) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path)).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void waitForQueue(String server) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (AppMetrics.HTTP_QUEUE_DEPTH.labels(server).get() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.brokerx.interfaces.rest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ResponseCompressionTest {
+
+    @Test
+    void streamedBodiesDecodeAsGzipWhileDeflatersAreReused() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            StringBuilder json = new StringBuilder("{\"data\":[");
+            int orders = 1 + random.nextInt(400);
+            for (int j = 0; j < orders; j++) {
+                json.append("{\"symbol\":\"AAPL\",\"quantity\":").append(random.nextInt(1000)).append("},");
+            }
+            json.append("{}]}");
+            byte[] payload = json.toString().getBytes(StandardCharsets.UTF_8);
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            ResponseCompression.gzip(payload, body, "/api/v1/accounts/test/orders");
+
+            assertArrayEquals(payload, gunzip(body.toByteArray()));
+            if (payload.length >= ResponseCompression.MIN_BYTES) {
+                assertTrue(body.size() < payload.length / 2);
+            }
+        }
+    }
+
+    @Test
+    void bufferedVariantMatchesTheStreamedOne() throws IOException {
+        byte[] payload = new byte[64 * 1024];
+        new Random(7).nextBytes(payload);
+
+        assertArrayEquals(payload, gunzip(ResponseCompression.gzip(payload)));
+        assertArrayEquals(new byte[0], gunzip(ResponseCompression.gzip(new byte[0])));
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.brokerx.interfaces.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.brokerx.interfaces.rest.TokenService.SigningKey;
+
+class TokenServiceTest {
+    private static final SigningKey KEY_A = new SigningKey("k1", new byte[32]);
+    private static final SigningKey KEY_B = new SigningKey("k2", "another-secret-of-32-bytes-long!".getBytes());
+
+    @Test
+    void tokenIssuedByOneInstanceIsVerifiedByAnotherWithTheSameKey() {
+        TokenService issuer = new TokenService(Duration.ofHours(1), KEY_A);
+        TokenService verifier = new TokenService(Duration.ofHours(1), KEY_A);
+        UUID accountId = UUID.randomUUID();
+        TokenService.AuthToken token = issuer.issue(accountId);
+
+        TokenPrincipal principal = verifier.authenticate("Bearer " + token.token()).orElseThrow();
+        assertEquals(accountId, principal.accountId());
+        assertEquals(token.expireAt().toEpochMilli(), principal.expiresAt().toEpochMilli());
+
+        String tampered = token.token().substring(0, token.token().length() - 2) + "AA";
+        assertTrue(verifier.authenticate("Bearer " + tampered).isEmpty());
+        assertTrue(new TokenService(Duration.ofHours(1), KEY_B).authenticate("Bearer " + token.token()).isEmpty());
+        assertTrue(verifier.authenticate(token.token()).isEmpty());
+    }
+
+    @Test
+    void revokedTokenIsRejectedUntilItExpires() {
+        TokenService service = new TokenService(Duration.ofHours(1), KEY_A);
+        String revoked = service.issue(UUID.randomUUID()).token();
+        String other = service.issue(UUID.randomUUID()).token();
+
+        service.revoke(revoked);
+        assertTrue(service.authenticate("Bearer " + revoked).isEmpty());
+        assertTrue(service.authenticate("Bearer " + other).isPresent());
+
+        service.purge(Instant.now());
+        assertEquals(1, service.revokedCount());
+        service.purge(Instant.now().plus(Duration.ofHours(2)));
+        assertEquals(0, service.revokedCount());
+    }
+
+    @Test
+    void rotatedKeyKeepsVerifyingUntilItsTokensExpire() {
+        TokenService service = new TokenService(Duration.ofHours(1), KEY_A);
+        String before = service.issue(UUID.randomUUID()).token();
+
+        service.rotate(KEY_B);
+        String after = service.issue(UUID.randomUUID()).token();
+        assertEquals("k2", service.currentKeyId());
+        assertTrue(after.startsWith("k2."));
+        assertTrue(service.authenticate("Bearer " + before).isPresent());
+        assertTrue(new TokenService(Duration.ofHours(1), KEY_B, KEY_A).authenticate("Bearer " + before).isPresent());
+
+        service.purge(Instant.now().plus(Duration.ofHours(2)));
+        assertTrue(service.authenticate("Bearer " + before).isEmpty());
+        assertTrue(service.authenticate("Bearer " + after).isPresent());
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws InterruptedException {
+        TokenService service = new TokenService(Duration.ofMillis(5), KEY_A);
+        String token = service.issue(UUID.randomUUID()).token();
+        Thread.sleep(20);
+        assertTrue(service.authenticate("Bearer " + token).isEmpty());
+    }
+}